@@ -0,0 +1,127 @@
+package com.example.legalaid_backend.service;
+
+import com.example.legalaid_backend.entity.User;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * JMH benchmarks for the match scoring hot path: scoring one case against
+ * synthetic populations from 250 to 100k providers.
+ *
+ * Run with {@code mvn -Pjmh test-compile exec:exec@jmh}; the profile adds the
+ * GC profiler, so every result also reports the allocation rate
+ * ({@code gc.alloc.rate.norm} is bytes allocated per operation).
+ *
+ * The pool size where scoreAllParallel overtakes scoreAllSequential is the
+ * value to use for {@code matching.parallel.threshold}; to measure only that,
+ * add {@code -Djmh.include=MatchScoringBenchmark.scoreAll}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class MatchScoringBenchmark {
+
+    private static final int TOP_K = 10;
+
+    @Param({"250", "500", "1000", "2000", "5000", "10000", "25000", "50000", "100000"})
+    public int providerCount;
+
+    private MatchScorer sequentialScorer;
+    private MatchScorer parallelScorer;
+    private MatchScorer.CaseFeatures legalCase;
+    private List<User> users;
+    private List<ProviderFeatures> providers;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        sequentialScorer = new MatchScorer(Integer.MAX_VALUE, 1);
+        parallelScorer = new MatchScorer(0, 0);
+        legalCase = MatchScorer.CaseFeatures.of(ScoringFixtures.sampleCase());
+        users = ScoringFixtures.providers(providerCount, new Random(42));
+        providers = ScoringFixtures.providerFeatures(providerCount, new Random(42));
+        verifyIdentical(sequentialScorer.scoreAll(legalCase, providers, Set.of()),
+                parallelScorer.scoreAll(legalCase, providers, Set.of()));
+    }
+
+    /** Parallel scoring is only worth timing if it returns exactly what the sequential path does */
+    private static void verifyIdentical(List<MatchScorer.MatchScore> expected, List<MatchScorer.MatchScore> actual) {
+        if (expected.size() != actual.size()) {
+            throw new IllegalStateException("Parallel scoring returned " + actual.size()
+                    + " matches, sequential returned " + expected.size());
+        }
+        for (int i = 0; i < expected.size(); i++) {
+            MatchScorer.MatchScore e = expected.get(i);
+            MatchScorer.MatchScore a = actual.get(i);
+            if (!e.getProvider().getUserId().equals(a.getProvider().getUserId())
+                    || e.getScore() != a.getScore()
+                    || !e.getReason().equals(a.getReason())) {
+                throw new IllegalStateException("Parallel and sequential results differ at index " + i);
+            }
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        sequentialScorer.shutdown();
+        parallelScorer.shutdown();
+    }
+
+    /**
+     * Score plus match reason for every provider, the per-pair work that
+     * calculateMatchScore and generateMatchReason used to do.
+     */
+    @Benchmark
+    public void scoreWithReason(Blackhole blackhole) {
+        for (ProviderFeatures provider : providers) {
+            MatchScorer.MatchScore result = sequentialScorer.score(legalCase, provider);
+            blackhole.consume(result.getScore());
+            blackhole.consume(result.getReason());
+        }
+    }
+
+    /** Sequential scoreAll, as used by match generation below the parallel threshold */
+    @Benchmark
+    public List<MatchScorer.MatchScore> scoreAllSequential() {
+        return sequentialScorer.scoreAll(legalCase, providers, Set.of());
+    }
+
+    /** Fork-join scoreAll, as used above the parallel threshold */
+    @Benchmark
+    public List<MatchScorer.MatchScore> scoreAllParallel() {
+        return parallelScorer.scoreAll(legalCase, providers, Set.of());
+    }
+
+    /** Bounded min-heap selection used when matching.top-k is set */
+    @Benchmark
+    public List<MatchScorer.MatchScore> topK() {
+        return sequentialScorer.topK(legalCase, providers, Set.of(), TOP_K);
+    }
+
+    /** Normalizing provider entities into features, done once per provider by the index */
+    @Benchmark
+    public void buildFeatures(Blackhole blackhole) {
+        for (User user : users) {
+            blackhole.consume(ProviderFeatures.of(user));
+        }
+    }
+}
@@ -46,6 +46,7 @@ public class AnalyticsActivityDTO {
     
     // Response Times
     private Long averageResponseTime; // Minutes
+    private PercentilesDTO responseTimePercentiles; // Minutes
     private Long averageCaseReviewTime; // Hours
     private Long averageMatchDecisionTime; // Hours
     
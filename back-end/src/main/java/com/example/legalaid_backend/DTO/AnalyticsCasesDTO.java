@@ -43,6 +43,8 @@ public class AnalyticsCasesDTO {
     private Long averageCaseAge; // Days
     private Long medianCaseAge;
     private Long averageResolutionTime; // Days for closed cases
+    private PercentilesDTO caseAgePercentiles; // Days
+    private PercentilesDTO resolutionTimePercentiles; // Days
     
     private Double caseResolutionRate; // Percentage of closed vs total
     
@@ -0,0 +1,44 @@
+package com.example.legalaid_backend.DTO;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.Map;
+
+/**
+ * Every analytics section in one response, computed concurrently.
+ * Returned by GET /api/admin/analytics/dashboard; a section that failed or
+ * timed out is null and its entry in {@code sections} says why.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class AnalyticsDashboardDTO {
+
+    public enum SectionStatus { OK, TIMEOUT, FAILED }
+
+    private AnalyticsOverviewDTO overview;
+    private AnalyticsUsersDTO users;
+    private AnalyticsCasesDTO cases;
+    private AnalyticsMatchesDTO matches;
+    private AnalyticsActivityDTO activity;
+
+    private Map<String, Section> sections; // Keyed by section name, e.g. "users"
+    private boolean partial;               // True if any section is missing
+    private long durationMs;               // Wall time of the whole dashboard
+
+    private String lastUpdated;
+
+    @Data
+    @Builder
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class Section {
+        private SectionStatus status;
+        private long durationMs;           // Time spent so far when the section timed out
+        private String error;
+    }
+}
@@ -0,0 +1,26 @@
+package com.example.legalaid_backend.DTO;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * What happened on the platform during one batch window of the live admin
+ * dashboard feed. Counts are increments, to be added to the figures last
+ * fetched from the analytics endpoints.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class AnalyticsLiveDeltaDTO {
+    private Long sequence;          // Increases by one per delta; a gap means a delta was missed
+    private Long newUsers;
+    private Long newCases;
+    private Long newMatches;
+    private Long newAppointments;
+    private Long errorLogs;
+    private String windowStart;
+    private String windowEnd;
+}
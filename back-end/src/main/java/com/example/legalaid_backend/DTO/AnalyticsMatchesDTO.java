@@ -43,6 +43,7 @@ public class AnalyticsMatchesDTO {
     private Double pendingRate;
     private Long averageTimeToAcceptance; // Days
     private Long averageTimeToRejection; // Days
+    private PercentilesDTO timeToAcceptancePercentiles; // Days
     
     // Match Quality Over Time
     private List<AnalyticsTrendDTO> averageMatchScoreTrend;
@@ -0,0 +1,22 @@
+package com.example.legalaid_backend.DTO;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * One page of the citizen match feed, newest first. Pass {@code nextCursor}
+ * back as {@code cursor} to fetch the following page; it is null on the last page.
+ * {@code totalMatches} counts the citizen's matches across all pages.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class MatchFeedResponse {
+    private long totalMatches;
+    private List<MatchResponse> matches;
+    private String nextCursor;
+    private boolean hasMore;
+}
@@ -0,0 +1,31 @@
+package com.example.legalaid_backend.DTO;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * Progress of a background match-generation job.
+ * Pushed to /user/queue/match-jobs and returned by GET /api/matches/jobs/{jobId}.
+ */
+@Data
+@Builder(toBuilder = true)
+@NoArgsConstructor
+@AllArgsConstructor
+public class MatchJobStatus {
+
+    public enum State { QUEUED, SCORING, NOTIFYING, COMPLETED, FAILED }
+
+    private String jobId;
+    private Long caseId;
+    private State state;
+    private int newMatches;
+    private int notificationsSent;
+    private String message;
+    private GenerateMatchesResponse result; // Only set once COMPLETED
+    private LocalDateTime submittedAt;
+    private LocalDateTime updatedAt;
+}
@@ -0,0 +1,45 @@
+package com.example.legalaid_backend.DTO;
+
+import com.example.legalaid_backend.util.MatchStatus;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * Flat projection of a match with its case, citizen and provider columns,
+ * selected with a JPQL constructor expression so listing matches never loads
+ * entities (or attachment content). Field order is the constructor order.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class MatchRowDTO {
+    private Long id;
+    private Long caseId;
+    private String caseNumber;
+    private String caseTitle;
+    private String caseType;
+    private String caseLocation;
+    private String caseDescription;
+    private String casePriority;
+    private String preferredLanguage;
+    private MatchStatus status;
+    private Double matchScore;
+    private String matchReason;
+    private String rejectionReason;
+    private LocalDateTime createdAt;
+    private LocalDateTime acceptedAt;
+    private LocalDateTime rejectedAt;
+    private String citizenName;
+    private String citizenEmail;
+    private Long lawyerId;
+    private String lawyerName;
+    private String lawyerLocation;
+    private String lawyerSpecialization;
+    private Long ngoId;
+    private String ngoName;
+    private String ngoLocation;
+    private String ngoFocusArea;
+}
@@ -0,0 +1,17 @@
+package com.example.legalaid_backend.DTO;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class PercentilesDTO {
+    private Long count;     // Number of values the percentiles are taken over
+    private Double p50;
+    private Double p90;
+    private Double p99;
+}
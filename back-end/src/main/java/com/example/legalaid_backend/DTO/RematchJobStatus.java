@@ -0,0 +1,34 @@
+package com.example.legalaid_backend.DTO;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * Progress of the admin bulk re-match job.
+ * Returned by GET /api/admin/matching/rematch.
+ */
+@Data
+@Builder(toBuilder = true)
+@NoArgsConstructor
+@AllArgsConstructor
+public class RematchJobStatus {
+
+    public enum State { IDLE, RUNNING, STOPPING, STOPPED, COMPLETED, FAILED }
+
+    private State state;
+    private boolean resumed;          // Continued from an earlier checkpoint
+    private long checkpointCaseId;    // Last case id whose chunk has been committed
+    private long casesProcessed;      // Across all runs since the job was last started fresh
+    private long matchesCreated;      // Across all runs since the job was last started fresh
+    private long casesRemaining;      // Estimated when this run started
+    private double percentComplete;
+    private double casesPerSecond;    // Throughput of the current run
+    private String message;
+    private LocalDateTime startedAt;
+    private LocalDateTime updatedAt;
+    private LocalDateTime finishedAt;
+}
@@ -0,0 +1,92 @@
+package com.example.legalaid_backend.DTO;
+
+import com.example.legalaid_backend.util.TrendGranularity;
+import lombok.Getter;
+
+import java.time.DateTimeException;
+import java.time.LocalDate;
+import java.time.ZoneId;
+import java.time.format.DateTimeParseException;
+
+/**
+ * Granularity, inclusive date range and time zone of the trends returned by
+ * the analytics endpoints.
+ */
+@Getter
+public class TrendRange {
+
+    /** Upper bound on buckets per trend, so a daily trend over decades is refused */
+    public static final int MAX_BUCKETS = 1000;
+
+    private final TrendGranularity granularity;
+    private final LocalDate from;
+    private final LocalDate to;
+    private final ZoneId zone;
+
+    private TrendRange(TrendGranularity granularity, LocalDate from, LocalDate to, ZoneId zone) {
+        this.granularity = granularity;
+        this.from = from;
+        this.to = to;
+        this.zone = zone;
+    }
+
+    /** Twelve monthly buckets ending with the current month, in the server's time zone */
+    public static TrendRange defaults() {
+        return of(null, null, null, null);
+    }
+
+    /**
+     * Build a range from request parameters; any of them may be null or blank.
+     * Dates are ISO (yyyy-MM-dd). {@code to} defaults to today in the given
+     * zone, {@code from} to 30 days, 12 weeks or 12 months before it, and the
+     * granularity to MONTH.
+     */
+    public static TrendRange of(String granularity, String from, String to, String timezone) {
+        ZoneId zone;
+        try {
+            zone = isBlank(timezone) ? ZoneId.systemDefault() : ZoneId.of(timezone);
+        } catch (DateTimeException e) {
+            throw new IllegalArgumentException("Unknown timezone: " + timezone);
+        }
+
+        TrendGranularity resolved = isBlank(granularity) ? TrendGranularity.MONTH : TrendGranularity.parse(granularity);
+        LocalDate end = isBlank(to) ? LocalDate.now(zone) : parseDate(to, "to");
+        LocalDate start = isBlank(from) ? defaultStart(resolved, end) : parseDate(from, "from");
+
+        if (start.isAfter(end)) {
+            throw new IllegalArgumentException("'from' must not be after 'to'");
+        }
+        int buckets = resolved.bucketIndex(resolved.bucketStart(start), end) + 1;
+        if (buckets > MAX_BUCKETS) {
+            throw new IllegalArgumentException("Range spans " + buckets + " " + resolved.name().toLowerCase()
+                    + " buckets, at most " + MAX_BUCKETS + " are allowed");
+        }
+        return new TrendRange(resolved, start, end, zone);
+    }
+
+    private static LocalDate defaultStart(TrendGranularity granularity, LocalDate end) {
+        if (granularity == TrendGranularity.DAY) {
+            return end.minusDays(29);
+        } else if (granularity == TrendGranularity.WEEK) {
+            return granularity.bucketStart(end).minusWeeks(11);
+        }
+        return end.withDayOfMonth(1).minusMonths(11);
+    }
+
+    private static LocalDate parseDate(String value, String name) {
+        try {
+            return LocalDate.parse(value.trim());
+        } catch (DateTimeParseException e) {
+            throw new IllegalArgumentException("Invalid '" + name + "' date: " + value + " (expected yyyy-MM-dd)");
+        }
+    }
+
+    private static boolean isBlank(String value) {
+        return value == null || value.isBlank();
+    }
+
+    @Override
+    public String toString() {
+        return granularity + " " + from + ".." + to + " " + zone;
+    }
+}
@@ -0,0 +1,149 @@
+package com.example.legalaid_backend.controller;
+
+import com.example.legalaid_backend.DTO.AnalyticsDashboardDTO;
+import com.example.legalaid_backend.DTO.TrendRange;
+import com.example.legalaid_backend.service.AnalyticsDashboardService;
+import com.example.legalaid_backend.service.AnalyticsExportService;
+import com.example.legalaid_backend.service.AnalyticsLiveFeed;
+import com.example.legalaid_backend.service.AnalyticsRollupService;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.slf4j.MDC;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.security.core.Authentication;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.time.LocalDate;
+import java.time.format.DateTimeParseException;
+
+@Slf4j
+@RestController
+@RequestMapping("/api/admin/analytics")
+@RequiredArgsConstructor
+@PreAuthorize("hasRole('ADMIN')")
+public class AdminAnalyticsController {
+
+    private final AnalyticsDashboardService dashboardService;
+    private final AnalyticsExportService exportService;
+    private final AnalyticsLiveFeed liveFeed;
+
+    /**
+     * ADMIN LANDING PAGE: EVERY ANALYTICS SECTION IN ONE ROUND TRIP
+     * GET /api/admin/analytics/dashboard
+     * Optional trend parameters as on /api/analytics/users: granularity, from, to, timezone
+     */
+    @GetMapping("/dashboard")
+    public ResponseEntity<AnalyticsDashboardDTO> getDashboard(
+            @RequestParam(required = false) String granularity,
+            @RequestParam(required = false) String from,
+            @RequestParam(required = false) String to,
+            @RequestParam(required = false) String timezone,
+            Authentication auth) {
+
+        MDC.put("username", auth.getName());
+        MDC.put("endpoint", "/api/admin/analytics/dashboard");
+
+        try {
+            log.info("Admin {} requested: Fetching analytics dashboard", auth.getName());
+            AnalyticsDashboardDTO dashboard = dashboardService.getDashboard(
+                    TrendRange.of(granularity, from, to, timezone));
+            return ResponseEntity.ok(dashboard);
+        } catch (Exception e) {
+            log.error("Failed to build analytics dashboard: {}", e.getMessage(), e);
+            throw e;
+        } finally {
+            MDC.clear();
+        }
+    }
+
+    /**
+     * LIVE DASHBOARD DELTAS (Server-Sent Events)
+     * GET /api/admin/analytics/stream
+     * One "delta" event per second with activity, heartbeats while quiet
+     */
+    @GetMapping(value = "/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public SseEmitter stream(Authentication auth) {
+
+        MDC.put("username", auth.getName());
+        MDC.put("endpoint", "/api/admin/analytics/stream");
+
+        try {
+            log.info("Admin {} requested: Subscribing to live analytics", auth.getName());
+            return liveFeed.subscribe(auth.getName());
+        } catch (Exception e) {
+            log.error("Failed to open live analytics stream: {}", e.getMessage(), e);
+            throw e;
+        } finally {
+            MDC.clear();
+        }
+    }
+
+    /**
+     * RAW DATA EXPORT, STREAMED STRAIGHT FROM THE DATABASE
+     * GET /api/admin/analytics/export/{dataset}
+     * dataset: cases, matches, chat-messages or rollups
+     * Optional: format (csv | ndjson, default csv), gzip (default false), from, to (yyyy-MM-dd)
+     *
+     * Written synchronously to the servlet output stream so a long export is
+     * not cut off by the async request timeout.
+     */
+    @GetMapping("/export/{dataset}")
+    public void export(
+            @PathVariable String dataset,
+            @RequestParam(defaultValue = "csv") String format,
+            @RequestParam(defaultValue = "false") boolean gzip,
+            @RequestParam(required = false) String from,
+            @RequestParam(required = false) String to,
+            Authentication auth,
+            HttpServletResponse response) throws IOException {
+
+        MDC.put("username", auth.getName());
+        MDC.put("endpoint", "/api/admin/analytics/export/" + dataset);
+
+        try {
+            AnalyticsExportService.Dataset resolvedDataset = AnalyticsExportService.Dataset.parse(dataset);
+            AnalyticsExportService.Format resolvedFormat = AnalyticsExportService.Format.parse(format);
+            LocalDate start = from == null || from.isBlank() ? AnalyticsRollupService.EPOCH : parseDate(from, "from");
+            LocalDate end = to == null || to.isBlank() ? LocalDate.now() : parseDate(to, "to");
+            if (start.isAfter(end)) {
+                throw new IllegalArgumentException("'from' must not be after 'to'");
+            }
+
+            log.info("Admin {} requested: Exporting {} {}..{} as {} (gzip={})",
+                    auth.getName(), resolvedDataset, start, end, resolvedFormat, gzip);
+
+            String fileName = resolvedDataset.fileName() + "-" + start + "-" + end + "." + resolvedFormat.getExtension();
+            if (gzip) {
+                response.setContentType("application/gzip");
+                fileName += ".gz";
+            } else {
+                response.setContentType(resolvedFormat.getContentType());
+                response.setCharacterEncoding("UTF-8");
+            }
+            response.setHeader(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"" + fileName + "\"");
+
+            long rows = exportService.export(resolvedDataset, resolvedFormat, start, end, gzip,
+                    response.getOutputStream());
+            log.info("Export of {} finished: {} rows", resolvedDataset, rows);
+        } catch (Exception e) {
+            log.error("Failed to export analytics data: {}", e.getMessage(), e);
+            throw e;
+        } finally {
+            MDC.clear();
+        }
+    }
+
+    private static LocalDate parseDate(String value, String name) {
+        try {
+            return LocalDate.parse(value.trim());
+        } catch (DateTimeParseException e) {
+            throw new IllegalArgumentException("Invalid '" + name + "' date: " + value + " (expected yyyy-MM-dd)");
+        }
+    }
+}
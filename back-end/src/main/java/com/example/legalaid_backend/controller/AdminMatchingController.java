@@ -0,0 +1,83 @@
+package com.example.legalaid_backend.controller;
+
+import com.example.legalaid_backend.DTO.RematchJobStatus;
+import com.example.legalaid_backend.service.BulkRematchService;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.slf4j.MDC;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.security.core.Authentication;
+import org.springframework.web.bind.annotation.*;
+
+@Slf4j
+@RestController
+@RequestMapping("/api/admin/matching")
+@RequiredArgsConstructor
+@PreAuthorize("hasRole('ADMIN')")
+public class AdminMatchingController {
+
+    private final BulkRematchService bulkRematchService;
+
+    /**
+     * START A BULK RE-MATCH OF ALL OPEN CASES
+     * POST /api/admin/matching/rematch?resume=true
+     * With resume=true an unfinished earlier run continues from its checkpoint
+     */
+    @PostMapping("/rematch")
+    public ResponseEntity<RematchJobStatus> startRematch(
+            @RequestParam(defaultValue = "false") boolean resume,
+            Authentication auth) {
+
+        MDC.put("username", auth.getName());
+        MDC.put("endpoint", "/api/admin/matching/rematch");
+
+        try {
+            log.info("Admin {} starting bulk re-match (resume={})", auth.getName(), resume);
+            RematchJobStatus status = bulkRematchService.start(resume);
+            return ResponseEntity.status(HttpStatus.ACCEPTED).body(status);
+        } catch (Exception e) {
+            log.error("Failed to start bulk re-match: {}", e.getMessage(), e);
+            throw e;
+        } finally {
+            MDC.clear();
+        }
+    }
+
+    /**
+     * BULK RE-MATCH PROGRESS AND THROUGHPUT
+     * GET /api/admin/matching/rematch
+     */
+    @GetMapping("/rematch")
+    public ResponseEntity<RematchJobStatus> getRematchStatus(Authentication auth) {
+        MDC.put("username", auth.getName());
+        MDC.put("endpoint", "/api/admin/matching/rematch");
+
+        try {
+            return ResponseEntity.ok(bulkRematchService.getStatus());
+        } finally {
+            MDC.clear();
+        }
+    }
+
+    /**
+     * STOP THE RUNNING BULK RE-MATCH AFTER ITS CURRENT CHUNK
+     * POST /api/admin/matching/rematch/stop
+     */
+    @PostMapping("/rematch/stop")
+    public ResponseEntity<RematchJobStatus> stopRematch(Authentication auth) {
+        MDC.put("username", auth.getName());
+        MDC.put("endpoint", "/api/admin/matching/rematch/stop");
+
+        try {
+            log.info("Admin {} stopping bulk re-match", auth.getName());
+            return ResponseEntity.ok(bulkRematchService.stop());
+        } catch (Exception e) {
+            log.error("Failed to stop bulk re-match: {}", e.getMessage(), e);
+            throw e;
+        } finally {
+            MDC.clear();
+        }
+    }
+}
@@ -1,7 +1,8 @@
 package com.example.legalaid_backend.controller;
 
 import com.example.legalaid_backend.DTO.*;
-import com.example.legalaid_backend.service.AnalyticsService;
+import com.example.legalaid_backend.service.AnalyticsRollupService;
+import com.example.legalaid_backend.service.AnalyticsSnapshotCache;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.slf4j.MDC;
@@ -10,6 +11,8 @@ import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.security.core.Authentication;
 import org.springframework.web.bind.annotation.*;
 
+import java.util.Map;
+
 @Slf4j
 @RestController
 @RequestMapping("/api/analytics")
@@ -18,7 +21,8 @@ import org.springframework.web.bind.annotation.*;
 @CrossOrigin(origins = "*", maxAge = 3600)
 public class AnalyticsController {
 
-    private final AnalyticsService analyticsService;
+    private final AnalyticsSnapshotCache snapshotCache;
+    private final AnalyticsRollupService rollupService;
 
     /**
      * GET /api/analytics/overview
@@ -32,7 +36,7 @@ public class AnalyticsController {
 
         try {
             log.info("Admin {} requested: Fetching overview analytics", auth.getName());
-            AnalyticsOverviewDTO overview = analyticsService.getOverviewAnalytics();
+            AnalyticsOverviewDTO overview = snapshotCache.getOverviewAnalytics();
             log.info("Overview analytics fetched successfully");
             return ResponseEntity.ok(overview);
         } catch (Exception e) {
@@ -44,16 +48,23 @@ public class AnalyticsController {
     /**
      * GET /api/analytics/users
      * Returns detailed user analytics including counts, trends, geographic breakdown, etc.
+     * Optional trend parameters: granularity (DAY, WEEK, MONTH), from/to (yyyy-MM-dd), timezone
      * Admin access only
      */
     @GetMapping("/users")
-    public ResponseEntity<AnalyticsUsersDTO> getUsersAnalytics(Authentication auth) {
+    public ResponseEntity<AnalyticsUsersDTO> getUsersAnalytics(
+            @RequestParam(required = false) String granularity,
+            @RequestParam(required = false) String from,
+            @RequestParam(required = false) String to,
+            @RequestParam(required = false) String timezone,
+            Authentication auth) {
         MDC.put("username", auth.getName());
         MDC.put("endpoint", "/api/analytics/users");
 
         try {
             log.info("Admin {} requested: Fetching users analytics", auth.getName());
-            AnalyticsUsersDTO usersAnalytics = analyticsService.getUsersAnalytics();
+            AnalyticsUsersDTO usersAnalytics = snapshotCache.getUsersAnalytics(
+                    TrendRange.of(granularity, from, to, timezone));
             log.info("Users analytics fetched successfully");
             return ResponseEntity.ok(usersAnalytics);
         } catch (Exception e) {
@@ -65,16 +76,23 @@ public class AnalyticsController {
     /**
      * GET /api/analytics/cases
      * Returns detailed case analytics including counts, trends, geographic breakdown, expertise tags, etc.
+     * Optional trend parameters: granularity, from, to, timezone (see /users)
      * Admin access only
      */
     @GetMapping("/cases")
-    public ResponseEntity<AnalyticsCasesDTO> getCasesAnalytics(Authentication auth) {
+    public ResponseEntity<AnalyticsCasesDTO> getCasesAnalytics(
+            @RequestParam(required = false) String granularity,
+            @RequestParam(required = false) String from,
+            @RequestParam(required = false) String to,
+            @RequestParam(required = false) String timezone,
+            Authentication auth) {
         MDC.put("username", auth.getName());
         MDC.put("endpoint", "/api/analytics/cases");
 
         try {
             log.info("Admin {} requested: Fetching cases analytics", auth.getName());
-            AnalyticsCasesDTO casesAnalytics = analyticsService.getCasesAnalytics();
+            AnalyticsCasesDTO casesAnalytics = snapshotCache.getCasesAnalytics(
+                    TrendRange.of(granularity, from, to, timezone));
             log.info("Cases analytics fetched successfully");
             return ResponseEntity.ok(casesAnalytics);
         } catch (Exception e) {
@@ -86,16 +104,23 @@ public class AnalyticsController {
     /**
      * GET /api/analytics/matches
      * Returns detailed match analytics including counts, trends, quality metrics, geographic breakdown, etc.
+     * Optional trend parameters: granularity, from, to, timezone (see /users)
      * Admin access only
      */
     @GetMapping("/matches")
-    public ResponseEntity<AnalyticsMatchesDTO> getMatchesAnalytics(Authentication auth) {
+    public ResponseEntity<AnalyticsMatchesDTO> getMatchesAnalytics(
+            @RequestParam(required = false) String granularity,
+            @RequestParam(required = false) String from,
+            @RequestParam(required = false) String to,
+            @RequestParam(required = false) String timezone,
+            Authentication auth) {
         MDC.put("username", auth.getName());
         MDC.put("endpoint", "/api/analytics/matches");
 
         try {
             log.info("Admin {} requested: Fetching matches analytics", auth.getName());
-            AnalyticsMatchesDTO matchesAnalytics = analyticsService.getMatchesAnalytics();
+            AnalyticsMatchesDTO matchesAnalytics = snapshotCache.getMatchesAnalytics(
+                    TrendRange.of(granularity, from, to, timezone));
             log.info("Matches analytics fetched successfully");
             return ResponseEntity.ok(matchesAnalytics);
         } catch (Exception e) {
@@ -107,16 +132,23 @@ public class AnalyticsController {
     /**
      * GET /api/analytics/activity
      * Returns platform activity analytics including appointments, chat activity, engagement rates, etc.
+     * Optional trend parameters: granularity, from, to, timezone (see /users)
      * Admin access only
      */
     @GetMapping("/activity")
-    public ResponseEntity<AnalyticsActivityDTO> getActivityAnalytics(Authentication auth) {
+    public ResponseEntity<AnalyticsActivityDTO> getActivityAnalytics(
+            @RequestParam(required = false) String granularity,
+            @RequestParam(required = false) String from,
+            @RequestParam(required = false) String to,
+            @RequestParam(required = false) String timezone,
+            Authentication auth) {
         MDC.put("username", auth.getName());
         MDC.put("endpoint", "/api/analytics/activity");
 
         try {
             log.info("Admin {} requested: Fetching activity analytics", auth.getName());
-            AnalyticsActivityDTO activityAnalytics = analyticsService.getActivityAnalytics();
+            AnalyticsActivityDTO activityAnalytics = snapshotCache.getActivityAnalytics(
+                    TrendRange.of(granularity, from, to, timezone));
             log.info("Activity analytics fetched successfully");
             return ResponseEntity.ok(activityAnalytics);
         } catch (Exception e) {
@@ -124,4 +156,27 @@ public class AnalyticsController {
             throw e;
         }
     }
+
+    /**
+     * POST /api/analytics/rollups/backfill
+     * Recomputes the daily analytics rollups from the source tables.
+     * Only needed after data was changed outside the application.
+     * Admin access only
+     */
+    @PostMapping("/rollups/backfill")
+    public ResponseEntity<Map<String, Object>> backfillRollups(Authentication auth) {
+        MDC.put("username", auth.getName());
+        MDC.put("endpoint", "/api/analytics/rollups/backfill");
+
+        try {
+            log.info("Admin {} requested: Backfilling analytics rollups", auth.getName());
+            int rows = rollupService.backfill();
+            snapshotCache.invalidateAll();
+            log.info("Analytics rollups backfilled: {} rows", rows);
+            return ResponseEntity.ok(Map.of("rows", rows, "message", "Analytics rollups rebuilt"));
+        } catch (Exception e) {
+            log.error("Failed to backfill analytics rollups", e);
+            throw e;
+        }
+    }
 }
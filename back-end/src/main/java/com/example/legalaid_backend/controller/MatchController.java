@@ -1,16 +1,20 @@
 package com.example.legalaid_backend.controller;
 
 import com.example.legalaid_backend.DTO.GenerateMatchesResponse;
+import com.example.legalaid_backend.DTO.MatchFeedResponse;
+import com.example.legalaid_backend.DTO.MatchJobStatus;
 import com.example.legalaid_backend.DTO.MatchRejectRequest;
 import com.example.legalaid_backend.DTO.MatchResponse;
 import com.example.legalaid_backend.DTO.MatchResultDTO;
 import com.example.legalaid_backend.entity.CaseAttachment;
 import com.example.legalaid_backend.repository.AttachmentRepository;
+import com.example.legalaid_backend.service.MatchJobService;
 import com.example.legalaid_backend.service.MatchService;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.slf4j.MDC;
 import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.core.Authentication;
@@ -27,6 +31,7 @@ import java.util.Map;
 public class MatchController {
 
     private final MatchService matchService;
+    private final MatchJobService matchJobService;
     private final AttachmentRepository attachmentRepository;
 
     /**
@@ -59,6 +64,53 @@ public class MatchController {
         }
     }
 
+    /**
+     * SUBMIT A BACKGROUND MATCH-GENERATION JOB (Citizen)
+     * POST /api/matches/case/{caseId}/generate-async
+     * Progress is pushed to /user/queue/match-jobs
+     */
+    @PostMapping("/case/{caseId}/generate-async")
+    public ResponseEntity<MatchJobStatus> generateMatchesAsync(
+            @PathVariable Long caseId,
+            Authentication auth) {
+
+        MDC.put("username", auth.getName());
+        MDC.put("endpoint", "/api/matches/case/" + caseId + "/generate-async");
+
+        try {
+            log.info("User {} submitting match generation job for case {}", auth.getName(), caseId);
+
+            MatchJobStatus status = matchJobService.submit(caseId);
+
+            return ResponseEntity.status(HttpStatus.ACCEPTED).body(status);
+
+        } catch (Exception e) {
+            log.error("Failed to submit match job for case {}: {}", caseId, e.getMessage(), e);
+            throw e;
+        } finally {
+            MDC.clear();
+        }
+    }
+
+    /**
+     * GET MATCH-GENERATION JOB STATUS (Citizen)
+     * GET /api/matches/jobs/{jobId}
+     */
+    @GetMapping("/jobs/{jobId}")
+    public ResponseEntity<MatchJobStatus> getMatchJobStatus(
+            @PathVariable String jobId,
+            Authentication auth) {
+
+        MDC.put("username", auth.getName());
+        MDC.put("endpoint", "/api/matches/jobs/" + jobId);
+
+        try {
+            return ResponseEntity.ok(matchJobService.getStatus(jobId));
+        } finally {
+            MDC.clear();
+        }
+    }
+
     /**
      * GET MATCHES FOR A CASE (Citizen) - Public format
      * GET /api/matches/case/{caseId}/results
@@ -190,25 +242,24 @@ public class MatchController {
     }
 
     /**
-     * GET MY MATCHES (Citizen) - View all matches for all my cases
-     * GET /api/matches/my
+     * GET MY MATCHES (Citizen) - Paginated feed of matches across all my cases
+     * GET /api/matches/my?cursor={nextCursor}&size=20
      */
     @GetMapping("/my")
-    public ResponseEntity<Map<String, Object>> getMyMatches(Authentication auth) {
+    public ResponseEntity<MatchFeedResponse> getMyMatches(
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "20") int size,
+            Authentication auth) {
 
         MDC.put("username", auth.getName());
         MDC.put("endpoint", "/api/matches/my");
 
         try {
-            log.info("Citizen {} requesting all their matches", auth.getName());
+            log.info("Citizen {} requesting matches (cursor={}, size={})", auth.getName(), cursor, size);
 
-            List<MatchResponse> matches = matchService.getMyMatches();
-
-            Map<String, Object> response = new HashMap<>();
-            response.put("matches", matches);
-            response.put("totalMatches", matches.size());
+            MatchFeedResponse response = matchService.getMyMatches(cursor, size);
 
-            log.info("Returning {} matches for citizen {}", matches.size(), auth.getName());
+            log.info("Returning {} matches for citizen {}", response.getMatches().size(), auth.getName());
 
             return ResponseEntity.ok(response);
 
@@ -0,0 +1,38 @@
+package com.example.legalaid_backend.entity;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+/**
+ * Packed HyperLogLog sketch of the users who made an authenticated request on
+ * one day, for one role or for "ALL". Maintained by ActiveUserTracker.
+ */
+@Entity
+@Table(name = "active_user_sketches", uniqueConstraints = {
+        @UniqueConstraint(name = "uk_active_user_sketch_day_role", columnNames = {"day", "role"})
+})
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ActiveUserSketch {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(nullable = false)
+    private LocalDate day;
+
+    @Column(nullable = false, length = 20)
+    private String role;
+
+    @Column(columnDefinition = "bytea", nullable = false)
+    private byte[] registers;
+
+    private LocalDateTime updatedAt;
+}
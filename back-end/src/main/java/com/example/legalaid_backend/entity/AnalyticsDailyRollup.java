@@ -0,0 +1,49 @@
+package com.example.legalaid_backend.entity;
+
+import com.example.legalaid_backend.util.AnalyticsDimension;
+import com.example.legalaid_backend.util.AnalyticsMetric;
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDate;
+
+/**
+ * One day's count of a metric for one value of a dimension, e.g.
+ * (2026-01-10, CASE_CREATED, LOCATION, "Pune") = 14.
+ * Maintained by AnalyticsRollupService; every metric has an ALL row per day.
+ */
+@Entity
+@Table(name = "analytics_daily_rollups", uniqueConstraints = {
+        @UniqueConstraint(name = "uk_rollup_day_metric_dimension",
+                columnNames = {"day", "metric", "dimension", "dimension_value"})
+}, indexes = {
+        @Index(name = "idx_rollup_metric_dimension_day", columnList = "metric, dimension, day")
+})
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class AnalyticsDailyRollup {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(nullable = false)
+    private LocalDate day;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 40)
+    private AnalyticsMetric metric;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 20)
+    private AnalyticsDimension dimension;
+
+    @Column(name = "dimension_value", nullable = false)
+    private String dimensionValue;
+
+    @Column(nullable = false)
+    private long count;
+}
@@ -1,5 +1,6 @@
 package com.example.legalaid_backend.entity;
 
+import com.example.legalaid_backend.service.AnalyticsRollupListener;
 import com.example.legalaid_backend.util.AppointmentStatus;
 import com.example.legalaid_backend.util.AppointmentType;
 import jakarta.persistence.*;
@@ -13,6 +14,7 @@ import java.time.LocalDateTime;
 import java.time.LocalTime;
 
 @Entity
+@EntityListeners(AnalyticsRollupListener.class)
 @Table(name = "appointments")
 @Data
 @NoArgsConstructor
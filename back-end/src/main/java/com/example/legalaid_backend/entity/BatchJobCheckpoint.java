@@ -0,0 +1,42 @@
+package com.example.legalaid_backend.entity;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * Progress of a long-running batch job, committed together with each chunk
+ * it processes so the job can resume after the last committed chunk.
+ */
+@Entity
+@Table(name = "batch_job_checkpoints")
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class BatchJobCheckpoint {
+
+    @Id
+    @Column(length = 100)
+    private String jobName;
+
+    @Column(nullable = false, length = 20)
+    private String state; // RUNNING, STOPPED, COMPLETED, FAILED
+
+    @Column(nullable = false)
+    private Long lastProcessedId; // Keyset cursor: highest id fully processed
+
+    @Column(nullable = false)
+    private long itemsProcessed;
+
+    @Column(nullable = false)
+    private long itemsWritten;
+
+    private LocalDateTime startedAt;
+
+    private LocalDateTime updatedAt;
+
+    private LocalDateTime finishedAt;
+}
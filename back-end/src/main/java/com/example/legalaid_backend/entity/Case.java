@@ -1,5 +1,6 @@
 package com.example.legalaid_backend.entity;
 
+import com.example.legalaid_backend.service.AnalyticsRollupListener;
 import jakarta.persistence.*;
 import lombok.*;
 import org.hibernate.annotations.CreationTimestamp;
@@ -8,7 +9,10 @@ import org.hibernate.annotations.UpdateTimestamp;
 import java.time.LocalDateTime;
 
 @Entity
-@Table(name = "cases")
+@EntityListeners(AnalyticsRollupListener.class)
+@Table(name = "cases", indexes = {
+    @Index(name = "idx_cases_created_by", columnList = "created_by")
+})
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
@@ -60,4 +64,13 @@ public class Case {
 
     @UpdateTimestamp
     private LocalDateTime updatedAt;
+
+    // Set by CaseStateMachine when the case reaches RESOLVED; resolution analytics count this day
+    @Column
+    private LocalDateTime resolvedAt;
+
+    // Optimistic lock; status transitions bump it through CaseStateMachine
+    @Version
+    @Column(columnDefinition = "bigint default 0 not null")
+    private long version;
 }
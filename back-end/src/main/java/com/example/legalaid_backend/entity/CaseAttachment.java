@@ -23,6 +23,10 @@ public class CaseAttachment {
     @Column(columnDefinition = "bytea", nullable = false)
     private byte[] content;
 
+    // Size of content in bytes, stored so listings never have to read the blob
+    @Column(name = "file_size")
+    private Long fileSize;
+
     @ManyToOne
     @JoinColumn(name = "case_id", nullable = false)
     private Case legalCase;
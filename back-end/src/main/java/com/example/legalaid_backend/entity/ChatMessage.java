@@ -1,5 +1,6 @@
 package com.example.legalaid_backend.entity;
 
+import com.example.legalaid_backend.service.AnalyticsRollupListener;
 import jakarta.persistence.*;
 import lombok.AllArgsConstructor;
 import lombok.Data;
@@ -16,6 +17,7 @@ import java.time.LocalDateTime;
  * ACCEPTED_BY_PROVIDER
  */
 @Entity
+@EntityListeners(AnalyticsRollupListener.class)
 @Table(name = "chat_messages", indexes = {
         @Index(name = "idx_match_id", columnList = "match_id"),
         @Index(name = "idx_sender_id", columnList = "sender_id"),
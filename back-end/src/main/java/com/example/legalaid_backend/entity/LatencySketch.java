@@ -0,0 +1,37 @@
+package com.example.legalaid_backend.entity;
+
+import com.example.legalaid_backend.util.LatencyMetric;
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDate;
+
+/**
+ * Serialized quantile sketch of one latency metric, in seconds, for the
+ * events that completed on one day. Maintained by LatencySketchService.
+ */
+@Entity
+@Table(name = "latency_sketches", uniqueConstraints = {
+        @UniqueConstraint(name = "uk_latency_sketch_day_metric", columnNames = {"day", "metric"})
+})
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class LatencySketch {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(nullable = false)
+    private LocalDate day;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 30)
+    private LatencyMetric metric;
+
+    @Column(columnDefinition = "bytea", nullable = false)
+    private byte[] data;
+}
@@ -1,5 +1,6 @@
 package com.example.legalaid_backend.entity;
 
+import com.example.legalaid_backend.service.AnalyticsRollupListener;
 import com.example.legalaid_backend.util.MatchStatus;
 import jakarta.persistence.*;
 import lombok.AllArgsConstructor;
@@ -11,7 +12,10 @@ import org.hibernate.annotations.UpdateTimestamp;
 import java.time.LocalDateTime;
 
 @Entity
-@Table(name = "matches")
+@EntityListeners(AnalyticsRollupListener.class)
+@Table(name = "matches", indexes = {
+    @Index(name = "idx_matches_case_created", columnList = "case_id,created_at,id")
+})
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
@@ -55,4 +59,9 @@ public class Match {
 
     @Column
     private LocalDateTime rejectedAt;
+
+    // Optimistic lock; status transitions bump it through CaseStateMachine
+    @Version
+    @Column(columnDefinition = "bigint default 0 not null")
+    private long version;
 }
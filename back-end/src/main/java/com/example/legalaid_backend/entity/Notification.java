@@ -1,5 +1,6 @@
 package com.example.legalaid_backend.entity;
 
+import com.example.legalaid_backend.service.AnalyticsRollupListener;
 import com.example.legalaid_backend.util.NotificationType;
 import jakarta.persistence.*;
 import lombok.AllArgsConstructor;
@@ -10,6 +11,7 @@ import org.hibernate.annotations.CreationTimestamp;
 import java.time.LocalDateTime;
 
 @Entity
+@EntityListeners(AnalyticsRollupListener.class)
 @Table(name = "notifications", indexes = {
     @Index(name = "idx_user_id", columnList = "user_id"),
     @Index(name = "idx_user_read", columnList = "user_id,is_read"),
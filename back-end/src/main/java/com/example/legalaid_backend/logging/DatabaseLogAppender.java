@@ -1,84 +1,241 @@
 package com.example.legalaid_backend.logging;
 
+import ch.qos.logback.classic.Level;
 import ch.qos.logback.classic.spi.ILoggingEvent;
 import ch.qos.logback.classic.spi.IThrowableProxy;
 import ch.qos.logback.classic.spi.StackTraceElementProxy;
-import ch.qos.logback.core.AppenderBase;
+import ch.qos.logback.core.UnsynchronizedAppenderBase;
 import com.example.legalaid_backend.entity.ApplicationLog;
-import com.example.legalaid_backend.repository.ApplicationLogRepository;
-import org.springframework.context.ApplicationContext;
-import org.springframework.stereotype.Component;
+import com.example.legalaid_backend.repository.ApplicationLogBatchWriter;
+import com.example.legalaid_backend.service.AnalyticsLiveFeed;
+import com.example.legalaid_backend.util.LiveMetric;
 
 import java.time.Instant;
 import java.time.LocalDateTime;
 import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.LockSupport;
 
+/**
+ * Writes log events to application_logs without blocking the logging thread.
+ *
+ * Events are converted on the calling thread and offered to a lock-free ring
+ * buffer. One writer thread drains it and inserts multi-row batches once
+ * {@code batchSize} events are waiting or the oldest has waited
+ * {@code flushIntervalMs}. When fewer than {@code discardingThreshold} slots
+ * are left, events at {@code discardLevel} or below are dropped so WARN and
+ * ERROR still fit; when the buffer is full everything is dropped. Each case
+ * is counted, see {@link DatabaseLogSink}.
+ *
+ * The JDBC writer only exists once Spring is up; until then events wait in
+ * the buffer. A {@link LogSamplingFilter} in front of the appender limits
+ * what reaches the buffer; its "repeated N times" rows are written here.
+ */
+public class DatabaseLogAppender extends UnsynchronizedAppenderBase<ILoggingEvent> {
 
-public class DatabaseLogAppender extends AppenderBase<ILoggingEvent> {
-    private ApplicationLogRepository logRepository;
-    private boolean repositoryInjected = false;
+    private static final long IDLE_PARK_NANOS = TimeUnit.MILLISECONDS.toNanos(10);
+    private static final long STOP_TIMEOUT_MS = 5000;
+    private static final long REPEAT_SWEEP_MS = 1000;
 
+    // Configuration, set from logback-spring.xml
+    private int capacity = 8192;
+    private int batchSize = 500;
+    private long flushIntervalMs = 1000;
+    private int discardingThreshold = -1;
+    private Level discardLevel = Level.INFO;
+
+    private LogRingBuffer<ApplicationLog> buffer;
+    private List<LogSamplingFilter> samplingFilters = List.of();
+    private Thread writerThread;
+    private volatile boolean running;
+    private volatile ApplicationLogBatchWriter batchWriter;
+    private volatile AnalyticsLiveFeed liveFeed;
+
+    private final LongAdder discarded = new LongAdder();
+    private final LongAdder overflowed = new LongAdder();
+    private final AtomicLong flushed = new AtomicLong();
+    private final AtomicLong failed = new AtomicLong();
+
+    @Override
+    public void start() {
+        if (isStarted()) {
+            return;
+        }
+        buffer = new LogRingBuffer<>(capacity);
+        samplingFilters = getCopyOfAttachedFiltersList().stream()
+                .filter(LogSamplingFilter.class::isInstance)
+                .map(LogSamplingFilter.class::cast)
+                .toList();
+        if (discardingThreshold < 0) {
+            discardingThreshold = buffer.capacity() / 5;
+        }
+
+        running = true;
+        writerThread = new Thread(this::drain, "db-log-writer");
+        writerThread.setDaemon(true);
+        writerThread.start();
+        super.start();
+    }
+
+    @Override
+    public void stop() {
+        if (!isStarted()) {
+            return;
+        }
+        // Stop accepting events, then let the writer empty the buffer
+        super.stop();
+        running = false;
+        LockSupport.unpark(writerThread);
+        try {
+            writerThread.join(STOP_TIMEOUT_MS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        if (writerThread.isAlive()) {
+            addWarn("Log writer did not finish within " + STOP_TIMEOUT_MS + " ms, " + buffer.size() + " events lost");
+        }
+    }
+
+    /** Called once Spring is up; from then on batches are written */
+    void attach(ApplicationLogBatchWriter batchWriter, AnalyticsLiveFeed liveFeed) {
+        this.batchWriter = batchWriter;
+        this.liveFeed = liveFeed;
+    }
+
+    // =========================
+    // APPEND (any thread)
+    // =========================
     @Override
     protected void append(ILoggingEvent event) {
-        // Lazy initialization of repository
-        if (!repositoryInjected) {
-            try {
-                ApplicationContext context = SpringContextHolder.getApplicationContext();
-                if (context != null) {
-                    logRepository = context.getBean(ApplicationLogRepository.class);
-                    repositoryInjected = true;
-                }
-            } catch (Exception e) {
-                // Repository not yet available (application still starting)
-                return;
-            }
+        // Logging caused by the writer's own JDBC calls must not feed back into the buffer
+        if (Thread.currentThread() == writerThread) {
+            return;
         }
 
-        if (logRepository == null) {
-            return; // Skip if repository is not available
+        // Count errors for the live admin dashboard
+        AnalyticsLiveFeed feed = liveFeed;
+        if (feed != null && event.getLevel() == Level.ERROR) {
+            feed.record(LiveMetric.ERROR_LOGS);
         }
 
-        try {
-            ApplicationLog log = new ApplicationLog();
+        // Low-priority events make way for warnings and errors when space runs low
+        if (event.getLevel().toInt() <= discardLevel.toInt() && buffer.remainingCapacity() <= discardingThreshold) {
+            discarded.increment();
+            return;
+        }
+
+        if (!buffer.offer(toApplicationLog(event))) {
+            overflowed.increment();
+        }
+    }
+
+    private ApplicationLog toApplicationLog(ILoggingEvent event) {
+        ApplicationLog log = new ApplicationLog();
+
+        // Convert timestamp
+        log.setTimestamp(LocalDateTime.ofInstant(Instant.ofEpochMilli(event.getTimeStamp()), ZoneId.systemDefault()));
+
+        // Set log level
+        log.setLevel(event.getLevel().toString());
+
+        // Set logger name (class name)
+        log.setLogger(event.getLoggerName());
+
+        // Set message
+        log.setMessage(event.getFormattedMessage());
+
+        // Set thread name
+        log.setThreadName(event.getThreadName());
+
+        // Extract exception if present
+        IThrowableProxy throwable = event.getThrowableProxy();
+        if (throwable != null) {
+            log.setException(formatException(throwable));
+        }
+
+        // Extract MDC values if available (username, endpoint, etc.)
+        if (event.getMDCPropertyMap() != null) {
+            log.setUsername(event.getMDCPropertyMap().get("username"));
+            log.setEndpoint(event.getMDCPropertyMap().get("endpoint"));
+        }
 
-            // Convert timestamp
-            LocalDateTime timestamp = LocalDateTime.ofInstant(
-                    Instant.ofEpochMilli(event.getTimeStamp()),
-                    ZoneId.systemDefault()
-            );
-            log.setTimestamp(timestamp);
+        return log;
+    }
 
-            // Set log level
-            log.setLevel(event.getLevel().toString());
+    // =========================
+    // WRITER THREAD
+    // =========================
+    private void drain() {
+        List<ApplicationLog> batch = new ArrayList<>(batchSize);
+        long oldestQueuedAt = 0;
+        long sweptAt = System.currentTimeMillis();
 
-            // Set logger name (class name)
-            log.setLogger(event.getLoggerName());
+        while (true) {
+            boolean stopping = !running;
 
-            // Set message
-            log.setMessage(event.getFormattedMessage());
+            // "Repeated N times" rows for messages the sampling filters collapsed
+            if (!samplingFilters.isEmpty() && (stopping || System.currentTimeMillis() - sweptAt >= REPEAT_SWEEP_MS)) {
+                for (LogSamplingFilter filter : samplingFilters) {
+                    List<ApplicationLog> summaries = filter.drainRepeatSummaries(stopping);
+                    if (!summaries.isEmpty() && batch.isEmpty()) {
+                        oldestQueuedAt = System.currentTimeMillis();
+                    }
+                    batch.addAll(summaries);
+                }
+                sweptAt = System.currentTimeMillis();
+            }
 
-            // Set thread name
-            log.setThreadName(event.getThreadName());
+            ApplicationLog log;
+            while (batch.size() < batchSize && (log = buffer.poll()) != null) {
+                if (batch.isEmpty()) {
+                    oldestQueuedAt = System.currentTimeMillis();
+                }
+                batch.add(log);
+            }
 
-            // Extract exception if present
-            IThrowableProxy throwable = event.getThrowableProxy();
-            if (throwable != null) {
-                log.setException(formatException(throwable));
+            if (batch.isEmpty()) {
+                if (stopping) {
+                    return;
+                }
+                LockSupport.parkNanos(IDLE_PARK_NANOS);
+                continue;
             }
 
-            // Extract MDC values if available (username, endpoint, etc.)
-            if (event.getMDCPropertyMap() != null) {
-                log.setUsername(event.getMDCPropertyMap().get("username"));
-                log.setEndpoint(event.getMDCPropertyMap().get("endpoint"));
+            boolean due = stopping
+                    || batch.size() >= batchSize
+                    || System.currentTimeMillis() - oldestQueuedAt >= flushIntervalMs;
+            if (!due) {
+                LockSupport.parkNanos(IDLE_PARK_NANOS);
+                continue;
             }
 
-            // Save to database asynchronously to avoid blocking
-            logRepository.save(log);
+            ApplicationLogBatchWriter writer = batchWriter;
+            if (writer != null) {
+                write(writer, batch);
+            } else if (stopping) {
+                failed.addAndGet(batch.size());
+                batch.clear();
+            } else {
+                // Spring is not up yet; hold the batch and let the buffer absorb the rest
+                LockSupport.parkNanos(IDLE_PARK_NANOS);
+            }
+        }
+    }
 
+    private void write(ApplicationLogBatchWriter writer, List<ApplicationLog> batch) {
+        try {
+            writer.insertAll(batch);
+            flushed.addAndGet(batch.size());
         } catch (Exception e) {
             // Don't let logging failures crash the application
-            addError("Failed to save log to database", e);
+            failed.addAndGet(batch.size());
+            addError("Failed to save " + batch.size() + " logs to database", e);
         }
+        batch.clear();
     }
 
     private String formatException(IThrowableProxy throwable) {
@@ -101,4 +258,62 @@ public class DatabaseLogAppender extends AppenderBase<ILoggingEvent> {
 
         return sb.toString();
     }
+
+    // =========================
+    // COUNTERS
+    // =========================
+
+    /** Events written to the database */
+    public long getFlushedCount() {
+        return flushed.get();
+    }
+
+    /** Low-priority events dropped because the buffer was running low */
+    public long getDiscardedCount() {
+        return discarded.sum();
+    }
+
+    /** Events dropped because the buffer was full */
+    public long getOverflowCount() {
+        return overflowed.sum();
+    }
+
+    /** Events lost because their batch could not be written */
+    public long getFailedCount() {
+        return failed.get();
+    }
+
+    public int getBufferedCount() {
+        return buffer != null ? buffer.size() : 0;
+    }
+
+    /** Filters ahead of this appender that sample, rate-limit and collapse events */
+    List<LogSamplingFilter> getSamplingFilters() {
+        return samplingFilters;
+    }
+
+    // =========================
+    // CONFIGURATION
+    // =========================
+    public void setCapacity(int capacity) {
+        this.capacity = capacity;
+    }
+
+    public void setBatchSize(int batchSize) {
+        this.batchSize = Math.max(1, batchSize);
+    }
+
+    public void setFlushIntervalMs(long flushIntervalMs) {
+        this.flushIntervalMs = flushIntervalMs;
+    }
+
+    /** Free slots below which low-priority events are dropped; defaults to a fifth of the capacity */
+    public void setDiscardingThreshold(int discardingThreshold) {
+        this.discardingThreshold = discardingThreshold;
+    }
+
+    /** Highest level dropped when the buffer runs low, INFO by default */
+    public void setDiscardLevel(String discardLevel) {
+        this.discardLevel = Level.toLevel(discardLevel, Level.INFO);
+    }
 }
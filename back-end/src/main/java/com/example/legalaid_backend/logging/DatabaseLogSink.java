@@ -0,0 +1,107 @@
+package com.example.legalaid_backend.logging;
+
+import ch.qos.logback.classic.Logger;
+import ch.qos.logback.classic.LoggerContext;
+import ch.qos.logback.classic.spi.ILoggingEvent;
+import ch.qos.logback.core.Appender;
+import com.example.legalaid_backend.repository.ApplicationLogBatchWriter;
+import com.example.legalaid_backend.service.AnalyticsLiveFeed;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.lang.NonNull;
+import org.springframework.stereotype.Component;
+
+import java.util.Iterator;
+import java.util.LinkedHashSet;
+import java.util.Set;
+import java.util.function.ToDoubleFunction;
+
+/**
+ * Connects the DatabaseLogAppender configured in logback-spring.xml to the
+ * Spring context: hands it the JDBC writer once the application is ready,
+ * publishes its counters and those of its sampling filters as logsink.*
+ * metrics, and drains it on shutdown while the DataSource is still open.
+ */
+@Slf4j
+@Component
+public class DatabaseLogSink implements MeterBinder {
+
+    private final ApplicationLogBatchWriter batchWriter;
+    private final AnalyticsLiveFeed liveFeed;
+    private final Set<DatabaseLogAppender> appenders;
+
+    public DatabaseLogSink(ApplicationLogBatchWriter batchWriter, AnalyticsLiveFeed liveFeed) {
+        this.batchWriter = batchWriter;
+        this.liveFeed = liveFeed;
+        this.appenders = findAppenders();
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void attach() {
+        appenders.forEach(appender -> appender.attach(batchWriter, liveFeed));
+        log.info("Database log sink attached to {} appender(s), {} events buffered during startup",
+                appenders.size(), sum(DatabaseLogAppender::getBufferedCount));
+    }
+
+    @PreDestroy
+    public void drain() {
+        appenders.forEach(DatabaseLogAppender::stop);
+    }
+
+    @Override
+    public void bindTo(@NonNull MeterRegistry registry) {
+        counter(registry, "flushed", DatabaseLogAppender::getFlushedCount);
+        counter(registry, "discarded", DatabaseLogAppender::getDiscardedCount);
+        counter(registry, "overflow", DatabaseLogAppender::getOverflowCount);
+        counter(registry, "failed", DatabaseLogAppender::getFailedCount);
+        filterCounter(registry, "sampled", LogSamplingFilter::getSampledCount);
+        filterCounter(registry, "rate_limited", LogSamplingFilter::getRateLimitedCount);
+        filterCounter(registry, "collapsed", LogSamplingFilter::getCollapsedCount);
+        Gauge.builder("logsink.buffer.size", this, sink -> sink.sum(DatabaseLogAppender::getBufferedCount))
+                .description("Log events waiting to be written to the database")
+                .register(registry);
+    }
+
+    private void counter(MeterRegistry registry, String outcome, ToDoubleFunction<DatabaseLogAppender> count) {
+        FunctionCounter.builder("logsink.events", this, sink -> sink.sum(count))
+                .tag("outcome", outcome)
+                .description("Log events handled by the database log sink")
+                .register(registry);
+    }
+
+    private void filterCounter(MeterRegistry registry, String outcome, ToDoubleFunction<LogSamplingFilter> count) {
+        FunctionCounter.builder("logsink.events", this, sink -> sink.appenders.stream()
+                        .flatMap(appender -> appender.getSamplingFilters().stream())
+                        .mapToDouble(count)
+                        .sum())
+                .tag("outcome", outcome)
+                .description("Log events handled by the database log sink")
+                .register(registry);
+    }
+
+    private double sum(ToDoubleFunction<DatabaseLogAppender> count) {
+        return appenders.stream().mapToDouble(count).sum();
+    }
+
+    private static Set<DatabaseLogAppender> findAppenders() {
+        Set<DatabaseLogAppender> found = new LinkedHashSet<>();
+        if (LoggerFactory.getILoggerFactory() instanceof LoggerContext context) {
+            for (Logger logger : context.getLoggerList()) {
+                Iterator<Appender<ILoggingEvent>> iterator = logger.iteratorForAppenders();
+                while (iterator.hasNext()) {
+                    if (iterator.next() instanceof DatabaseLogAppender appender) {
+                        found.add(appender);
+                    }
+                }
+            }
+        }
+        return found;
+    }
+}
@@ -0,0 +1,83 @@
+package com.example.legalaid_backend.logging;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * Bounded lock-free queue for many producer threads and one consumer.
+ *
+ * Each slot carries a sequence number telling producers whether it is free
+ * for the current lap and the consumer whether it has been filled, so
+ * {@link #offer} is a single CAS on the tail and never waits: when the
+ * buffer is full it fails straight away.
+ */
+final class LogRingBuffer<E> {
+
+    private final int capacity;
+    private final int mask;
+    private final AtomicReferenceArray<E> slots;
+    private final AtomicLongArray sequences;
+    private final AtomicLong tail = new AtomicLong();
+    private volatile long head;
+
+    LogRingBuffer(int requestedCapacity) {
+        int size = Integer.highestOneBit(Math.max(2, requestedCapacity - 1)) << 1;
+        this.capacity = size;
+        this.mask = size - 1;
+        this.slots = new AtomicReferenceArray<>(size);
+        this.sequences = new AtomicLongArray(size);
+        for (int i = 0; i < size; i++) {
+            sequences.set(i, i);
+        }
+    }
+
+    /** Any thread; false when the buffer is full */
+    boolean offer(E element) {
+        long position = tail.get();
+        while (true) {
+            int index = (int) (position & mask);
+            long difference = sequences.get(index) - position;
+            if (difference == 0) {
+                if (tail.compareAndSet(position, position + 1)) {
+                    slots.set(index, element);
+                    sequences.set(index, position + 1);
+                    return true;
+                }
+                position = tail.get();
+            } else if (difference < 0) {
+                return false;
+            } else {
+                // Another producer claimed this slot first
+                position = tail.get();
+            }
+        }
+    }
+
+    /** Consumer thread only; null when empty */
+    E poll() {
+        long position = head;
+        int index = (int) (position & mask);
+        if (sequences.get(index) != position + 1) {
+            return null;
+        }
+        E element = slots.get(index);
+        slots.set(index, null);
+        sequences.set(index, position + capacity);
+        head = position + 1;
+        return element;
+    }
+
+    int size() {
+        long size = tail.get() - head;
+        return (int) Math.max(0, Math.min(size, capacity));
+    }
+
+    int remainingCapacity() {
+        return capacity - size();
+    }
+
+    int capacity() {
+        return capacity;
+    }
+}
@@ -0,0 +1,241 @@
+package com.example.legalaid_backend.logging;
+
+import ch.qos.logback.classic.Level;
+import ch.qos.logback.classic.spi.ILoggingEvent;
+import ch.qos.logback.core.filter.Filter;
+import ch.qos.logback.core.spi.FilterReply;
+import com.example.legalaid_backend.entity.ApplicationLog;
+
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Keeps the database log sink's load bounded whatever the traffic.
+ * Attached to DatabaseLogAppender in logback-spring.xml. ERROR events always
+ * pass; everything else goes through, in order:
+ * <ol>
+ *   <li>the most specific matching {@code <rule>}: 1-in-N sampling, then a
+ *       per-rule token bucket</li>
+ *   <li>repeat collapsing: the same logger, level and message again within
+ *       {@code repeatWindowMs} is dropped and counted, and a single
+ *       "repeated N times" row is written when the window closes</li>
+ *   <li>a token bucket shared by all events, {@code maxRatePerSecond}</li>
+ * </ol>
+ * Collapsing comes after the rules so the messages they drop do not fill the
+ * {@code maxTrackedMessages} slots, and a window is only opened by an event
+ * that also passed the shared bucket, i.e. one that is actually written.
+ */
+public class LogSamplingFilter extends Filter<ILoggingEvent> {
+
+    private final List<LogSamplingRule> rules = new ArrayList<>();
+    private double maxRatePerSecond = 200;
+    private double maxBurst = 1000;
+    private long repeatWindowMs = 10000;
+    private int maxTrackedMessages = 4096;
+
+    private TokenBucket globalBucket;
+    private final Map<String, Repeat> repeats = new ConcurrentHashMap<>();
+    private final ConcurrentLinkedQueue<Repeat> closed = new ConcurrentLinkedQueue<>();
+
+    private final LongAdder sampled = new LongAdder();
+    private final LongAdder rateLimited = new LongAdder();
+    private final LongAdder collapsed = new LongAdder();
+
+    @Override
+    public void start() {
+        // Most specific logger first, so the first match wins
+        rules.sort((a, b) -> Integer.compare(b.getLogger().length(), a.getLogger().length()));
+        rules.forEach(LogSamplingRule::start);
+        globalBucket = new TokenBucket(maxRatePerSecond, maxBurst);
+        addInfo("Database log sampling rules: " + rules + ", overall limit " + maxRatePerSecond + "/s");
+        super.start();
+    }
+
+    @Override
+    public FilterReply decide(ILoggingEvent event) {
+        Level level = event.getLevel();
+        if (level.toInt() >= Level.ERROR_INT) {
+            return FilterReply.NEUTRAL;
+        }
+
+        String loggerName = event.getLoggerName();
+        for (LogSamplingRule rule : rules) {
+            if (rule.matches(loggerName, level)) {
+                if (rule.sampledOut()) {
+                    sampled.increment();
+                    return FilterReply.DENY;
+                }
+                if (rule.rateLimited()) {
+                    rateLimited.increment();
+                    return FilterReply.DENY;
+                }
+                break;
+            }
+        }
+
+        String repeatKey = repeatWindowMs > 0 ? repeatKey(event) : null;
+        if (repeatKey != null && isRepeat(repeatKey, event)) {
+            collapsed.increment();
+            return FilterReply.DENY;
+        }
+
+        if (!globalBucket.tryAcquire()) {
+            rateLimited.increment();
+            return FilterReply.DENY;
+        }
+
+        // Only an event that is written opens a window, so what it suppresses has a row to refer to
+        if (repeatKey != null) {
+            openWindow(repeatKey, event);
+        }
+        return FilterReply.NEUTRAL;
+    }
+
+    // =========================
+    // REPEAT COLLAPSING
+    // =========================
+    private static String repeatKey(ILoggingEvent event) {
+        return event.getLoggerName() + '\u0000' + event.getLevel() + '\u0000' + event.getFormattedMessage();
+    }
+
+    /** Whether an open window covers the event; if so it is counted there */
+    private boolean isRepeat(String key, ILoggingEvent event) {
+        long now = event.getTimeStamp();
+        Repeat repeat = repeats.get(key);
+        if (repeat != null && now - repeat.windowStart < repeatWindowMs) {
+            repeat.suppressed.incrementAndGet();
+            repeat.lastSeen = now;
+            return true;
+        }
+        return false;
+    }
+
+    /** Start a window for an event that passed every check */
+    private void openWindow(String key, ILoggingEvent event) {
+        long now = event.getTimeStamp();
+        Repeat repeat = repeats.get(key);
+        if (repeat != null) {
+            if (now - repeat.windowStart < repeatWindowMs) {
+                // Another thread opened it meanwhile
+                return;
+            }
+            // The previous window is over: start a new one and leave the old one for the next sweep
+            if (repeats.replace(key, repeat, new Repeat(event, now))) {
+                closed.add(repeat);
+            }
+        } else if (repeats.size() < maxTrackedMessages) {
+            repeats.putIfAbsent(key, new Repeat(event, now));
+        }
+    }
+
+    /**
+     * Remove the windows that have closed, or all of them when
+     * {@code closeAll}, and return one summary row for each that suppressed
+     * anything. Called periodically by the log writer thread.
+     */
+    List<ApplicationLog> drainRepeatSummaries(boolean closeAll) {
+        List<ApplicationLog> summaries = new ArrayList<>();
+        long now = System.currentTimeMillis();
+        Iterator<Repeat> iterator = repeats.values().iterator();
+        while (iterator.hasNext()) {
+            Repeat repeat = iterator.next();
+            if (closeAll || now - repeat.windowStart >= repeatWindowMs) {
+                iterator.remove();
+                closed.add(repeat);
+            }
+        }
+
+        Repeat repeat;
+        while ((repeat = closed.poll()) != null) {
+            long count = repeat.suppressed.get();
+            if (count > 0) {
+                summaries.add(repeat.toSummary(count, repeatWindowMs));
+            }
+        }
+        return summaries;
+    }
+
+    /** The first event of a window and how many identical ones followed it */
+    private static final class Repeat {
+        private final String logger;
+        private final String level;
+        private final String message;
+        private final String threadName;
+        private final long windowStart;
+        private final AtomicLong suppressed = new AtomicLong();
+        private volatile long lastSeen;
+
+        private Repeat(ILoggingEvent event, long windowStart) {
+            this.logger = event.getLoggerName();
+            this.level = event.getLevel().toString();
+            this.message = event.getFormattedMessage();
+            this.threadName = event.getThreadName();
+            this.windowStart = windowStart;
+            this.lastSeen = windowStart;
+        }
+
+        private ApplicationLog toSummary(long count, long windowMs) {
+            ApplicationLog log = new ApplicationLog();
+            log.setTimestamp(LocalDateTime.ofInstant(Instant.ofEpochMilli(lastSeen), ZoneId.systemDefault()));
+            log.setLevel(level);
+            log.setLogger(logger);
+            log.setMessage(message + " [repeated " + count + " more time" + (count == 1 ? "" : "s")
+                    + " within " + (windowMs / 1000) + " s]");
+            log.setThreadName(threadName);
+            return log;
+        }
+    }
+
+    // =========================
+    // COUNTERS
+    // =========================
+
+    /** Events dropped by 1-in-N sampling */
+    public long getSampledCount() {
+        return sampled.sum();
+    }
+
+    /** Events dropped by a rule's or the overall token bucket */
+    public long getRateLimitedCount() {
+        return rateLimited.sum();
+    }
+
+    /** Repeats folded into a summary row */
+    public long getCollapsedCount() {
+        return collapsed.sum();
+    }
+
+    // =========================
+    // CONFIGURATION
+    // =========================
+    public void addRule(LogSamplingRule rule) {
+        rules.add(rule);
+    }
+
+    /** Overall limit for non-ERROR events; zero or less disables it */
+    public void setMaxRatePerSecond(double maxRatePerSecond) {
+        this.maxRatePerSecond = maxRatePerSecond;
+    }
+
+    public void setMaxBurst(double maxBurst) {
+        this.maxBurst = maxBurst;
+    }
+
+    /** Zero disables repeat collapsing */
+    public void setRepeatWindowMs(long repeatWindowMs) {
+        this.repeatWindowMs = repeatWindowMs;
+    }
+
+    public void setMaxTrackedMessages(int maxTrackedMessages) {
+        this.maxTrackedMessages = maxTrackedMessages;
+    }
+}
@@ -0,0 +1,81 @@
+package com.example.legalaid_backend.logging;
+
+import ch.qos.logback.classic.Level;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * One {@code <rule>} of a {@link LogSamplingFilter}: how many events from a
+ * logger (and its children) at {@code level} or below reach the database.
+ * Events first pass 1-in-{@code sampleEvery} sampling, then a token bucket of
+ * {@code ratePerSecond} with bursts of {@code burst}.
+ */
+public class LogSamplingRule {
+
+    private String logger = "";
+    private Level level = Level.INFO;
+    private int sampleEvery = 1;
+    private double ratePerSecond;
+    private double burst;
+
+    private final AtomicLong seen = new AtomicLong();
+    private String childPrefix;
+    private TokenBucket bucket;
+
+    /** Called by the filter once the configuration is complete */
+    void start() {
+        childPrefix = logger + ".";
+        bucket = new TokenBucket(ratePerSecond, burst > 0 ? burst : ratePerSecond);
+    }
+
+    boolean matches(String loggerName, Level eventLevel) {
+        return eventLevel.toInt() <= level.toInt()
+                && (logger.isEmpty() || loggerName.equals(logger) || loggerName.startsWith(childPrefix));
+    }
+
+    boolean sampledOut() {
+        return sampleEvery > 1 && seen.getAndIncrement() % sampleEvery != 0;
+    }
+
+    boolean rateLimited() {
+        return !bucket.tryAcquire();
+    }
+
+    String getLogger() {
+        return logger;
+    }
+
+    // =========================
+    // CONFIGURATION
+    // =========================
+
+    /** Logger name; its child loggers are covered too. Empty matches every logger */
+    public void setLogger(String logger) {
+        this.logger = logger != null ? logger.trim() : "";
+    }
+
+    /** Highest level the rule applies to; ERROR is never limited */
+    public void setLevel(String level) {
+        this.level = Level.toLevel(level, Level.INFO);
+        if (this.level.toInt() > Level.WARN.toInt()) {
+            this.level = Level.WARN;
+        }
+    }
+
+    public void setSampleEvery(int sampleEvery) {
+        this.sampleEvery = Math.max(1, sampleEvery);
+    }
+
+    public void setRatePerSecond(double ratePerSecond) {
+        this.ratePerSecond = ratePerSecond;
+    }
+
+    public void setBurst(double burst) {
+        this.burst = burst;
+    }
+
+    @Override
+    public String toString() {
+        return (logger.isEmpty() ? "*" : logger) + "<=" + level + " 1/" + sampleEvery + " " + ratePerSecond + "/s";
+    }
+}
@@ -0,0 +1,38 @@
+package com.example.legalaid_backend.logging;
+
+/**
+ * Token bucket allowing {@code ratePerSecond} on average with bursts of up to
+ * {@code burst}. A rate of zero or less means unlimited.
+ */
+final class TokenBucket {
+
+    private final double ratePerMs;
+    private final double burst;
+    private double tokens;
+    private long refilledAt;
+
+    TokenBucket(double ratePerSecond, double burst) {
+        this.ratePerMs = ratePerSecond / 1000.0;
+        this.burst = Math.max(1, burst);
+        this.tokens = this.burst;
+        this.refilledAt = System.currentTimeMillis();
+    }
+
+    boolean tryAcquire() {
+        if (ratePerMs <= 0) {
+            return true;
+        }
+        synchronized (this) {
+            long now = System.currentTimeMillis();
+            if (now > refilledAt) {
+                tokens = Math.min(burst, tokens + (now - refilledAt) * ratePerMs);
+                refilledAt = now;
+            }
+            if (tokens >= 1) {
+                tokens -= 1;
+                return true;
+            }
+            return false;
+        }
+    }
+}
@@ -0,0 +1,17 @@
+package com.example.legalaid_backend.repository;
+
+import com.example.legalaid_backend.entity.ActiveUserSketch;
+import org.springframework.data.jpa.repository.JpaRepository;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Optional;
+
+public interface ActiveUserSketchRepository extends JpaRepository<ActiveUserSketch, Long> {
+
+    Optional<ActiveUserSketch> findByDayAndRole(LocalDate day, String role);
+
+    List<ActiveUserSketch> findByDayGreaterThanEqual(LocalDate from);
+
+    List<ActiveUserSketch> findByRoleAndDayBetween(String role, LocalDate from, LocalDate to);
+}
@@ -0,0 +1,46 @@
+package com.example.legalaid_backend.repository;
+
+import com.example.legalaid_backend.entity.AnalyticsDailyRollup;
+import com.example.legalaid_backend.util.AnalyticsDimension;
+import com.example.legalaid_backend.util.AnalyticsMetric;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.stream.Stream;
+
+public interface AnalyticsRollupRepository extends JpaRepository<AnalyticsDailyRollup, Long> {
+
+    // [day, count] for one dimension value, oldest day first
+    @Query("SELECT r.day, r.count FROM AnalyticsDailyRollup r " +
+           "WHERE r.metric = :metric AND r.dimension = :dimension AND r.dimensionValue = :value " +
+           "AND r.day BETWEEN :from AND :to ORDER BY r.day ASC")
+    List<Object[]> findDailyCounts(@Param("metric") AnalyticsMetric metric,
+                                   @Param("dimension") AnalyticsDimension dimension,
+                                   @Param("value") String value,
+                                   @Param("from") LocalDate from,
+                                   @Param("to") LocalDate to);
+
+    // [dimensionValue, total] over a range of days
+    @Query("SELECT r.dimensionValue, SUM(r.count) FROM AnalyticsDailyRollup r " +
+           "WHERE r.metric = :metric AND r.dimension = :dimension AND r.day BETWEEN :from AND :to " +
+           "GROUP BY r.dimensionValue")
+    List<Object[]> sumByDimensionValue(@Param("metric") AnalyticsMetric metric,
+                                       @Param("dimension") AnalyticsDimension dimension,
+                                       @Param("from") LocalDate from,
+                                       @Param("to") LocalDate to);
+
+    // Export rows [day, metric, dimension, dimensionValue, count], read with a cursor
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "1000"),
+            @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+    })
+    @Query("SELECT r.day, r.metric, r.dimension, r.dimensionValue, r.count FROM AnalyticsDailyRollup r " +
+           "WHERE r.day BETWEEN :from AND :to ORDER BY r.day, r.metric, r.dimension, r.dimensionValue")
+    Stream<Object[]> streamForExport(@Param("from") LocalDate from, @Param("to") LocalDate to);
+}
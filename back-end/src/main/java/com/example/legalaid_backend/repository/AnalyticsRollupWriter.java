@@ -0,0 +1,128 @@
+package com.example.legalaid_backend.repository;
+
+import com.example.legalaid_backend.util.AnalyticsDimension;
+import com.example.legalaid_backend.util.AnalyticsMetric;
+import lombok.EqualsAndHashCode;
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.sql.Date;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * JDBC write path for analytics_daily_rollups.
+ *
+ * Increments are applied with INSERT ... ON CONFLICT DO UPDATE in one batch,
+ * so concurrent flushes add up instead of overwriting each other. The
+ * rebuild recomputes every rollup from the source tables with grouped
+ * INSERT ... SELECT statements, without loading rows into the JVM.
+ */
+@Slf4j
+@Repository
+@RequiredArgsConstructor
+public class AnalyticsRollupWriter {
+
+    private static final String UPSERT_SQL =
+            "INSERT INTO analytics_daily_rollups (day, metric, dimension, dimension_value, count) " +
+            "VALUES (?, ?, ?, ?, ?) " +
+            "ON CONFLICT (day, metric, dimension, dimension_value) " +
+            "DO UPDATE SET count = analytics_daily_rollups.count + EXCLUDED.count";
+
+    private static final String INSERT_PREFIX =
+            "INSERT INTO analytics_daily_rollups (day, metric, dimension, dimension_value, count) ";
+
+    /** One grouped SELECT per (metric, dimension) the incremental path records */
+    private static final List<String> REBUILD_SELECTS = List.of(
+            // Users
+            "SELECT CAST(created_at AS date), 'USER_CREATED', 'ALL', '', COUNT(*) FROM users " +
+            "WHERE created_at IS NOT NULL GROUP BY 1",
+            "SELECT CAST(created_at AS date), 'USER_CREATED', 'ROLE', role, COUNT(*) FROM users " +
+            "WHERE created_at IS NOT NULL AND role IS NOT NULL GROUP BY 1, 4",
+            "SELECT CAST(created_at AS date), 'USER_CREATED', 'LOCATION', location, COUNT(*) FROM users " +
+            "WHERE created_at IS NOT NULL AND location <> '' GROUP BY 1, 4",
+            // Cases
+            "SELECT CAST(created_at AS date), 'CASE_CREATED', 'ALL', '', COUNT(*) FROM cases " +
+            "WHERE created_at IS NOT NULL GROUP BY 1",
+            "SELECT CAST(created_at AS date), 'CASE_CREATED', 'CASE_TYPE', case_type, COUNT(*) FROM cases " +
+            "WHERE created_at IS NOT NULL AND case_type <> '' GROUP BY 1, 4",
+            "SELECT CAST(created_at AS date), 'CASE_CREATED', 'LOCATION', location, COUNT(*) FROM cases " +
+            "WHERE created_at IS NOT NULL AND location <> '' GROUP BY 1, 4",
+            "SELECT CAST(c.created_at AS date), 'CASE_CREATED', 'EXPERTISE_TAG', t.expertise_tags, COUNT(DISTINCT c.id) " +
+            "FROM cases c JOIN case_expertise_tags t ON t.case_id = c.id " +
+            "WHERE c.created_at IS NOT NULL AND t.expertise_tags <> '' GROUP BY 1, 4",
+            // Counted on the day the case reached RESOLVED, as CaseStateMachine records it live;
+            // cases resolved before resolved_at existed fall back to their last update
+            "SELECT CAST(COALESCE(resolved_at, updated_at) AS date), 'CASE_RESOLVED', 'ALL', '', COUNT(*) FROM cases " +
+            "WHERE (resolved_at IS NOT NULL OR status IN ('RESOLVED', 'CLOSED')) " +
+            "AND COALESCE(resolved_at, updated_at) IS NOT NULL GROUP BY 1",
+            // Matches
+            "SELECT CAST(created_at AS date), 'MATCH_CREATED', 'ALL', '', COUNT(*) FROM matches " +
+            "WHERE created_at IS NOT NULL GROUP BY 1",
+            "SELECT CAST(accepted_at AS date), 'MATCH_ACCEPTED', 'ALL', '', COUNT(*) FROM matches " +
+            "WHERE accepted_at IS NOT NULL GROUP BY 1",
+            "SELECT CAST(rejected_at AS date), 'MATCH_REJECTED', 'ALL', '', COUNT(*) FROM matches " +
+            "WHERE rejected_at IS NOT NULL AND status IN ('REJECTED_BY_CITIZEN', 'REJECTED_BY_PROVIDER') GROUP BY 1",
+            "SELECT CAST(rejected_at AS date), 'MATCH_REJECTED', 'STATUS', status, COUNT(*) FROM matches " +
+            "WHERE rejected_at IS NOT NULL AND status IN ('REJECTED_BY_CITIZEN', 'REJECTED_BY_PROVIDER') GROUP BY 1, 4",
+            // Activity
+            "SELECT CAST(created_at AS date), 'APPOINTMENT_BOOKED', 'ALL', '', COUNT(*) FROM appointments " +
+            "WHERE created_at IS NOT NULL GROUP BY 1",
+            "SELECT CAST(sent_at AS date), 'CHAT_MESSAGE_SENT', 'ALL', '', COUNT(*) FROM chat_messages " +
+            "WHERE sent_at IS NOT NULL GROUP BY 1",
+            "SELECT CAST(created_at AS date), 'NOTIFICATION_SENT', 'ALL', '', COUNT(*) FROM notifications " +
+            "WHERE created_at IS NOT NULL GROUP BY 1",
+            "SELECT CAST(created_at AS date), 'NOTIFICATION_SENT', 'TYPE', type, COUNT(*) FROM notifications " +
+            "WHERE created_at IS NOT NULL AND type IS NOT NULL GROUP BY 1, 4"
+    );
+
+    private final JdbcTemplate jdbcTemplate;
+
+    /**
+     * Add the given deltas to their rollup rows, creating rows as needed.
+     */
+    public void addAll(Map<Key, Long> deltas) {
+        if (deltas.isEmpty()) {
+            return;
+        }
+
+        List<Object[]> rows = new ArrayList<>(deltas.size());
+        deltas.forEach((key, delta) -> rows.add(new Object[]{
+                Date.valueOf(key.getDay()), key.getMetric().name(), key.getDimension().name(), key.getValue(), delta}));
+
+        jdbcTemplate.batchUpdate(UPSERT_SQL, rows);
+        log.debug("Flushed {} analytics rollup increments", rows.size());
+    }
+
+    /**
+     * Replace every rollup with counts recomputed from the source tables.
+     * Must run inside a transaction so readers never see an empty table.
+     */
+    public int rebuild() {
+        jdbcTemplate.update("DELETE FROM analytics_daily_rollups");
+
+        int rows = 0;
+        for (String select : REBUILD_SELECTS) {
+            rows += jdbcTemplate.update(INSERT_PREFIX + select);
+        }
+        return rows;
+    }
+
+    /**
+     * Identity of one rollup row.
+     */
+    @Getter
+    @EqualsAndHashCode
+    @RequiredArgsConstructor
+    public static final class Key {
+        private final LocalDate day;
+        private final AnalyticsMetric metric;
+        private final AnalyticsDimension dimension;
+        private final String value;
+    }
+}
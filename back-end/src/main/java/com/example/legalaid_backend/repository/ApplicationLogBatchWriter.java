@@ -0,0 +1,83 @@
+package com.example.legalaid_backend.repository;
+
+import com.example.legalaid_backend.entity.ApplicationLog;
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.util.List;
+
+/**
+ * Bulk insert path for application_logs, used by DatabaseLogAppender.
+ *
+ * Each chunk is one multi-row INSERT in autocommit mode, instead of a JPA
+ * persist and transaction per log line. Values are cut to the column
+ * lengths first so one oversized field cannot fail the whole batch.
+ *
+ * Nothing here may log through SLF4J: it runs on the log writer thread.
+ */
+@Repository
+@RequiredArgsConstructor
+public class ApplicationLogBatchWriter {
+
+    private static final int MAX_ROWS_PER_STATEMENT = 500;
+
+    private static final String INSERT_PREFIX =
+            "INSERT INTO application_logs (timestamp, level, logger, message, thread_name, exception, username, endpoint) VALUES ";
+    private static final String ROW_PLACEHOLDERS = "(?, ?, ?, ?, ?, ?, ?, ?)";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    /**
+     * Insert the given transient logs.
+     *
+     * @return number of rows written
+     */
+    public int insertAll(List<ApplicationLog> logs) {
+        int written = 0;
+        for (int from = 0; from < logs.size(); from += MAX_ROWS_PER_STATEMENT) {
+            List<ApplicationLog> chunk = logs.subList(from, Math.min(from + MAX_ROWS_PER_STATEMENT, logs.size()));
+            String sql = insertSql(chunk.size());
+            written += jdbcTemplate.update(con -> {
+                PreparedStatement ps = con.prepareStatement(sql);
+                int index = 1;
+                for (ApplicationLog log : chunk) {
+                    index = bind(ps, index, log);
+                }
+                return ps;
+            });
+        }
+        return written;
+    }
+
+    private static String insertSql(int rows) {
+        StringBuilder sql = new StringBuilder(INSERT_PREFIX.length() + rows * (ROW_PLACEHOLDERS.length() + 2));
+        sql.append(INSERT_PREFIX);
+        for (int i = 0; i < rows; i++) {
+            if (i > 0) {
+                sql.append(", ");
+            }
+            sql.append(ROW_PLACEHOLDERS);
+        }
+        return sql.toString();
+    }
+
+    private static int bind(PreparedStatement ps, int index, ApplicationLog log) throws SQLException {
+        ps.setTimestamp(index++, Timestamp.valueOf(log.getTimestamp()));
+        ps.setString(index++, truncate(log.getLevel(), 10));
+        ps.setString(index++, truncate(log.getLogger(), 500));
+        ps.setString(index++, log.getMessage());
+        ps.setString(index++, truncate(log.getThreadName(), 200));
+        ps.setString(index++, log.getException());
+        ps.setString(index++, truncate(log.getUsername(), 100));
+        ps.setString(index++, truncate(log.getEndpoint(), 50));
+        return index;
+    }
+
+    private static String truncate(String value, int maxLength) {
+        return value != null && value.length() > maxLength ? value.substring(0, maxLength) : value;
+    }
+}
@@ -6,6 +6,7 @@ import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 import org.springframework.transaction.annotation.Transactional;
 
@@ -47,6 +48,12 @@ public interface ApplicationLogRepository extends JpaRepository<ApplicationLog,
     @Query("SELECT l FROM ApplicationLog l WHERE l.level = 'ERROR' ORDER BY l.timestamp DESC")
     List<ApplicationLog> findRecentErrors(Pageable pageable);
 
+    // [day, lower-cased username, role] per user with a log entry on that day; role is null for unknown users
+    @Query(value = "SELECT DISTINCT CAST(l.timestamp AS date), LOWER(l.username), u.role " +
+                   "FROM application_logs l LEFT JOIN users u ON LOWER(u.email) = LOWER(l.username) " +
+                   "WHERE l.timestamp >= :since AND l.username <> ''", nativeQuery = true)
+    List<Object[]> findDistinctActiveUsersSince(@Param("since") LocalDateTime since);
+
     // Delete logs older than a specific date
     @Modifying
     @Transactional
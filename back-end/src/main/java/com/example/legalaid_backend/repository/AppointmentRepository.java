@@ -8,6 +8,7 @@ import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 
 import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 
 public interface AppointmentRepository extends JpaRepository<Appointment, Long> {
@@ -85,4 +86,20 @@ public interface AppointmentRepository extends JpaRepository<Appointment, Long>
     @Query("SELECT a FROM Appointment a WHERE a.citizen = :user OR a.provider = :user " +
            "ORDER BY a.scheduledDateTime DESC")
     List<Appointment> findAllByUser(@Param("user") User user);
+
+    long countByStatus(AppointmentStatus status);
+
+    long countByScheduledDateTimeAfter(LocalDateTime after);
+
+    // [providerId, count] of appointments in the given statuses scheduled after :now
+    @Query("SELECT a.provider.id, COUNT(a) FROM Appointment a " +
+           "WHERE a.status IN :statuses AND a.scheduledDateTime > :now GROUP BY a.provider.id")
+    List<Object[]> countUpcomingByProvider(@Param("statuses") Collection<AppointmentStatus> statuses,
+                                           @Param("now") LocalDateTime now);
+
+    @Query("SELECT COUNT(a) FROM Appointment a " +
+           "WHERE a.provider.id = :providerId AND a.status IN :statuses AND a.scheduledDateTime > :now")
+    long countUpcomingForProvider(@Param("providerId") Long providerId,
+                                  @Param("statuses") Collection<AppointmentStatus> statuses,
+                                  @Param("now") LocalDateTime now);
 }
@@ -2,8 +2,20 @@ package com.example.legalaid_backend.repository;
 
 import com.example.legalaid_backend.entity.CaseAttachment;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
+import java.util.List;
+
 @Repository
 public interface AttachmentRepository extends JpaRepository<CaseAttachment, Long> {
+
+    // Attachment metadata as [caseId, id, fileName, fileType, size] without reading the content.
+    // Rows saved before file_size existed fall back to octet_length, which PostgreSQL answers
+    // from the TOAST header instead of detoasting the value.
+    @Query("SELECT a.legalCase.id, a.id, a.fileName, a.fileType, COALESCE(a.fileSize, octet_length(a.content)) " +
+           "FROM CaseAttachment a WHERE a.legalCase.id IN :caseIds ORDER BY a.id")
+    List<Object[]> findMetadataByCaseIds(@Param("caseIds") Collection<Long> caseIds);
 }
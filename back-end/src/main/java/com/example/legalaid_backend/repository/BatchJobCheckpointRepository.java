@@ -0,0 +1,7 @@
+package com.example.legalaid_backend.repository;
+
+import com.example.legalaid_backend.entity.BatchJobCheckpoint;
+import org.springframework.data.jpa.repository.JpaRepository;
+
+public interface BatchJobCheckpointRepository extends JpaRepository<BatchJobCheckpoint, String> {
+}
@@ -2,10 +2,20 @@ package com.example.legalaid_backend.repository;
 
 import com.example.legalaid_backend.entity.Case;
 import com.example.legalaid_backend.entity.User;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
+import java.util.stream.Stream;
 
 public interface CaseRepository extends JpaRepository<Case, Long> {
 
@@ -16,4 +26,69 @@ public interface CaseRepository extends JpaRepository<Case, Long> {
     Optional<Case> findByCaseNumber(String caseNumber);
 
     long countByCreatedBy(User user);
+
+    long countByStatusInAndIdGreaterThan(Collection<String> statuses, Long afterId);
+
+    long countByCreatedAtAfter(LocalDateTime since);
+
+    // [status, count] for every case status in use
+    @Query("SELECT c.status, COUNT(c) FROM Case c GROUP BY c.status")
+    List<Object[]> countGroupedByStatus();
+
+    // [priority, count] for every case priority in use
+    @Query("SELECT c.priority, COUNT(c) FROM Case c GROUP BY c.priority")
+    List<Object[]> countGroupedByPriority();
+
+    // [tag, count] over all cases, most used first
+    @Query("SELECT t, COUNT(t) FROM Case c JOIN c.expertiseTags t WHERE t <> '' GROUP BY t ORDER BY COUNT(t) DESC")
+    List<Object[]> countTopExpertiseTags(Pageable pageable);
+
+    // Average whole days from creation to the last update of resolved and closed cases
+    @Query(value = "SELECT COALESCE(AVG(FLOOR(EXTRACT(EPOCH FROM (updated_at - created_at)) / 86400)), 0) " +
+                   "FROM cases WHERE status IN ('RESOLVED', 'CLOSED') " +
+                   "AND created_at IS NOT NULL AND updated_at IS NOT NULL", nativeQuery = true)
+    double averageResolutionDays();
+
+    // Keyset page of matching inputs [id, caseType, location, preferredLanguage] for cases in the given statuses
+    @Query("SELECT c.id, c.caseType, c.location, c.preferredLanguage FROM Case c " +
+           "WHERE c.status IN :statuses AND c.id > :afterId ORDER BY c.id ASC")
+    List<Object[]> findMatchingInputsAfterId(@Param("statuses") Collection<String> statuses,
+                                             @Param("afterId") Long afterId,
+                                             Pageable pageable);
+
+    // [caseId, tag] pairs for the given cases
+    @Query("SELECT c.id, t FROM Case c JOIN c.expertiseTags t WHERE c.id IN :ids")
+    List<Object[]> findExpertiseTagsByCaseIds(@Param("ids") Collection<Long> ids);
+
+    // Current status only, for explaining a failed conditional transition
+    @Query("SELECT c.status FROM Case c WHERE c.id = :caseId")
+    Optional<String> findStatusById(@Param("caseId") Long caseId);
+
+    // Creation time only, for timing a transition
+    @Query("SELECT c.createdAt FROM Case c WHERE c.id = :caseId")
+    Optional<LocalDateTime> findCreatedAtById(@Param("caseId") Long caseId);
+
+    /**
+     * Conditional status transition: only applies while the case is in one of
+     * {@code fromStatuses}, and bumps the optimistic-lock version.
+     * Returns 0 when the case is in any other status.
+     */
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("UPDATE Case c SET c.status = :toStatus, c.updatedAt = :now, c.version = c.version + 1, " +
+           "c.resolvedAt = COALESCE(:resolvedAt, c.resolvedAt) " +
+           "WHERE c.id = :caseId AND c.status IN :fromStatuses")
+    int transitionStatus(@Param("caseId") Long caseId,
+                         @Param("fromStatuses") Collection<String> fromStatuses,
+                         @Param("toStatus") String toStatus,
+                         @Param("now") LocalDateTime now,
+                         @Param("resolvedAt") LocalDateTime resolvedAt);
+
+    // Export rows [id, caseNumber, status, caseType, priority, location, createdAt, updatedAt], read with a cursor
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "1000"),
+            @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+    })
+    @Query("SELECT c.id, c.caseNumber, c.status, c.caseType, c.priority, c.location, c.createdAt, c.updatedAt " +
+           "FROM Case c WHERE c.createdAt >= :from AND c.createdAt < :to ORDER BY c.id")
+    Stream<Object[]> streamForExport(@Param("from") LocalDateTime from, @Param("to") LocalDateTime to);
 }
@@ -1,17 +1,21 @@
 package com.example.legalaid_backend.repository;
 
 import com.example.legalaid_backend.entity.ChatMessage;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.time.LocalDateTime;
 import java.util.List;
 import java.util.Optional;
+import java.util.stream.Stream;
 
 @Repository
 public interface ChatMessageRepository extends JpaRepository<ChatMessage, Long> {
@@ -94,6 +98,20 @@ public interface ChatMessageRepository extends JpaRepository<ChatMessage, Long>
             "AND cm.deleted = false GROUP BY cm.match.id")
     List<Object[]> getMessageCountsByUserId(@Param("userId") Long userId);
 
+    long countBySentAtAfter(LocalDateTime after);
+
+    /**
+     * [sentAt, senderId] of the latest message in a conversation
+     */
+    @Query("SELECT cm.sentAt, cm.sender.id FROM ChatMessage cm WHERE cm.match.id = :matchId ORDER BY cm.sentAt DESC")
+    List<Object[]> findLatestSentAtAndSender(@Param("matchId") Long matchId, Pageable pageable);
+
+    /**
+     * Number of matches that have any chat message
+     */
+    @Query("SELECT COUNT(DISTINCT cm.match.id) FROM ChatMessage cm")
+    long countConversations();
+
     // ==================== SOFT DELETE ====================
 
     /**
@@ -109,4 +127,17 @@ public interface ChatMessageRepository extends JpaRepository<ChatMessage, Long>
     @Modifying
     @Query("UPDATE ChatMessage cm SET cm.deleted = true WHERE cm.match.id = :matchId")
     int softDeleteAllByMatchId(@Param("matchId") Long matchId);
+
+    // ==================== EXPORT ====================
+
+    /**
+     * Export rows [id, matchId, senderId, messageType, sentAt], without content, read with a cursor
+     */
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "1000"),
+            @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+    })
+    @Query("SELECT cm.id, cm.match.id, cm.sender.id, cm.messageType, cm.sentAt FROM ChatMessage cm " +
+           "WHERE cm.deleted = false AND cm.sentAt >= :from AND cm.sentAt < :to ORDER BY cm.id")
+    Stream<Object[]> streamForExport(@Param("from") LocalDateTime from, @Param("to") LocalDateTime to);
 }
@@ -0,0 +1,47 @@
+package com.example.legalaid_backend.repository;
+
+import com.example.legalaid_backend.entity.LatencySketch;
+import com.example.legalaid_backend.util.LatencyMetric;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Optional;
+
+public interface LatencySketchRepository extends JpaRepository<LatencySketch, Long> {
+
+    Optional<LatencySketch> findByDayAndMetric(LocalDate day, LatencyMetric metric);
+
+    // ==================== BACKFILL ====================
+    // Each returns [day, sketch bucket index, count]; bucket -1 holds durations under one second
+
+    // Same resolution day as the CASE_RESOLVED rollup: resolved_at, or the last update for older cases
+    @Query(value = "SELECT CAST(resolved AS date), " +
+                   "CASE WHEN secs < 1 THEN -1 ELSE CEIL(LN(secs) / :logGamma) END, COUNT(*) FROM (" +
+                   "SELECT resolved, EXTRACT(EPOCH FROM (resolved - created_at)) AS secs FROM (" +
+                   "SELECT COALESCE(resolved_at, updated_at) AS resolved, created_at FROM cases " +
+                   "WHERE resolved_at IS NOT NULL OR status IN ('RESOLVED', 'CLOSED')) r " +
+                   "WHERE created_at IS NOT NULL AND resolved IS NOT NULL) t " +
+                   "WHERE secs >= 0 GROUP BY 1, 2", nativeQuery = true)
+    List<Object[]> bucketCaseResolutionSeconds(@Param("logGamma") double logGamma);
+
+    @Query(value = "SELECT CAST(accepted_at AS date), " +
+                   "CASE WHEN secs < 1 THEN -1 ELSE CEIL(LN(secs) / :logGamma) END, COUNT(*) FROM (" +
+                   "SELECT accepted_at, EXTRACT(EPOCH FROM (accepted_at - created_at)) AS secs FROM matches " +
+                   "WHERE accepted_at IS NOT NULL AND created_at IS NOT NULL) t " +
+                   "WHERE secs >= 0 GROUP BY 1, 2", nativeQuery = true)
+    List<Object[]> bucketMatchAcceptanceSeconds(@Param("logGamma") double logGamma);
+
+    @Query(value = "SELECT CAST(sent_at AS date), " +
+                   "CASE WHEN secs < 1 THEN -1 ELSE CEIL(LN(secs) / :logGamma) END, COUNT(*) FROM (" +
+                   "SELECT sent_at, EXTRACT(EPOCH FROM (sent_at - prev_sent_at)) AS secs FROM (" +
+                   "SELECT sent_at, sender_id, " +
+                   "LAG(sent_at) OVER (PARTITION BY match_id ORDER BY sent_at) AS prev_sent_at, " +
+                   "LAG(sender_id) OVER (PARTITION BY match_id ORDER BY sent_at) AS prev_sender_id " +
+                   "FROM chat_messages WHERE sent_at IS NOT NULL) m " +
+                   "WHERE prev_sent_at IS NOT NULL AND sender_id <> prev_sender_id) t " +
+                   "WHERE secs >= 0 GROUP BY 1, 2", nativeQuery = true)
+    List<Object[]> bucketChatResponseSeconds(@Param("logGamma") double logGamma);
+}
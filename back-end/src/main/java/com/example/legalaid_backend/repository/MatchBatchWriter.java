@@ -0,0 +1,138 @@
+package com.example.legalaid_backend.repository;
+
+import com.example.legalaid_backend.entity.Match;
+import com.example.legalaid_backend.service.AnalyticsRollupService;
+import com.example.legalaid_backend.service.ProviderCandidateIndex;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.jdbc.core.BatchPreparedStatementSetter;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.support.GeneratedKeyHolder;
+import org.springframework.jdbc.support.KeyHolder;
+import org.springframework.stereotype.Repository;
+
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.sql.Types;
+import java.time.LocalDateTime;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+/**
+ * Bulk insert path for new Match rows.
+ *
+ * Match uses IDENTITY ids, which stops Hibernate from batching inserts, so
+ * generated matches are written here with a plain JDBC batch that returns the
+ * generated keys. The batch joins the surrounding JPA transaction. Rows
+ * written here skip JPA entity listeners, so they are counted into the
+ * analytics rollups explicitly.
+ *
+ * Providers come from the in-memory candidate index, so their ids are checked
+ * against users first: a provider deleted since it was indexed is skipped
+ * (and evicted) instead of failing the foreign key and the whole batch.
+ */
+@Slf4j
+@Repository
+@RequiredArgsConstructor
+public class MatchBatchWriter {
+
+    private static final int BATCH_SIZE = 500;
+
+    private static final String INSERT_SQL =
+            "INSERT INTO matches (case_id, lawyer_id, ngo_id, status, match_score, match_reason, created_at, version) " +
+            "VALUES (?, ?, ?, ?, ?, ?, ?, 0)";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final AnalyticsRollupService rollupService;
+    private final UserRepository userRepository;
+    private final ProviderCandidateIndex candidateIndex;
+
+    /**
+     * Insert the given transient matches and populate their ids and createdAt.
+     *
+     * @return the matches written; those whose provider no longer exists are left out
+     */
+    public List<Match> insertAll(List<Match> matches) {
+        if (matches.isEmpty()) {
+            return matches;
+        }
+
+        matches = withExistingProviders(matches);
+        if (matches.isEmpty()) {
+            return matches;
+        }
+
+        LocalDateTime now = LocalDateTime.now();
+
+        for (int from = 0; from < matches.size(); from += BATCH_SIZE) {
+            List<Match> chunk = matches.subList(from, Math.min(from + BATCH_SIZE, matches.size()));
+            KeyHolder keyHolder = new GeneratedKeyHolder();
+
+            jdbcTemplate.batchUpdate(
+                    con -> con.prepareStatement(INSERT_SQL, new String[]{"id"}),
+                    new BatchPreparedStatementSetter() {
+                        @Override
+                        public void setValues(PreparedStatement ps, int i) throws SQLException {
+                            Match match = chunk.get(i);
+                            ps.setLong(1, match.getLegalCase().getId());
+                            setNullableId(ps, 2, match.getLawyer() != null ? match.getLawyer().getId() : null);
+                            setNullableId(ps, 3, match.getNgo() != null ? match.getNgo().getId() : null);
+                            ps.setString(4, match.getStatus().name());
+                            ps.setDouble(5, match.getMatchScore());
+                            ps.setString(6, match.getMatchReason());
+                            ps.setTimestamp(7, Timestamp.valueOf(now));
+                        }
+
+                        @Override
+                        public int getBatchSize() {
+                            return chunk.size();
+                        }
+                    },
+                    keyHolder);
+
+            List<Map<String, Object>> keys = keyHolder.getKeyList();
+            for (int i = 0; i < chunk.size(); i++) {
+                chunk.get(i).setId(((Number) keys.get(i).get("id")).longValue());
+                chunk.get(i).setCreatedAt(now);
+            }
+        }
+
+        rollupService.recordMatchesCreated(matches.size());
+
+        log.debug("Batch inserted {} matches", matches.size());
+        return matches;
+    }
+
+    private List<Match> withExistingProviders(List<Match> matches) {
+        Set<Long> providerIds = matches.stream()
+                .map(MatchBatchWriter::providerId)
+                .collect(Collectors.toSet());
+        Set<Long> missing = new HashSet<>(providerIds);
+        missing.removeAll(userRepository.findExistingIds(providerIds));
+        if (missing.isEmpty()) {
+            return matches;
+        }
+
+        log.warn("Skipping matches for deleted providers {}", missing);
+        missing.forEach(candidateIndex::evict);
+        return matches.stream()
+                .filter(match -> !missing.contains(providerId(match)))
+                .collect(Collectors.toList());
+    }
+
+    private static Long providerId(Match match) {
+        return match.getLawyer() != null ? match.getLawyer().getId() : match.getNgo().getId();
+    }
+
+    private static void setNullableId(PreparedStatement ps, int index, Long id) throws SQLException {
+        if (id != null) {
+            ps.setLong(index, id);
+        } else {
+            ps.setNull(index, Types.BIGINT);
+        }
+    }
+}
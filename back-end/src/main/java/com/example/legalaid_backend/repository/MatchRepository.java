@@ -1,24 +1,61 @@
 package com.example.legalaid_backend.repository;
 
+import com.example.legalaid_backend.DTO.MatchRowDTO;
 import com.example.legalaid_backend.entity.Match;
 import com.example.legalaid_backend.entity.User;
 import com.example.legalaid_backend.util.MatchStatus;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
-import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
-import jakarta.persistence.LockModeType;
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
+import java.util.Set;
+import java.util.stream.Stream;
 
 @Repository
 public interface MatchRepository extends JpaRepository<Match, Long> {
 
+    // Select clause shared by the MatchRowDTO projection queries below
+    String MATCH_ROW_SELECT = "SELECT new com.example.legalaid_backend.DTO.MatchRowDTO(" +
+            "m.id, c.id, c.caseNumber, c.title, c.caseType, c.location, c.description, c.priority, " +
+            "c.preferredLanguage, m.status, m.matchScore, m.matchReason, m.rejectionReason, " +
+            "m.createdAt, m.acceptedAt, m.rejectedAt, cb.username, cb.email, " +
+            "l.id, l.username, l.location, lp.specialization, n.id, n.username, n.location, np.focusArea) " +
+            "FROM Match m JOIN m.legalCase c JOIN c.createdBy cb " +
+            "LEFT JOIN m.lawyer l LEFT JOIN l.lawyerProfile lp " +
+            "LEFT JOIN m.ngo n LEFT JOIN n.ngoProfile np ";
+
     // Find all matches for a specific case
     List<Match> findByLegalCaseId(Long caseId);
 
+    // [providerId, count] of matches in :status whose case is not in :excludedCaseStatuses
+    @Query("SELECT COALESCE(l.id, n.id), COUNT(m) FROM Match m JOIN m.legalCase c " +
+           "LEFT JOIN m.lawyer l LEFT JOIN m.ngo n " +
+           "WHERE m.status = :status AND c.status NOT IN :excludedCaseStatuses GROUP BY COALESCE(l.id, n.id)")
+    List<Object[]> countByProviderAndStatus(@Param("status") MatchStatus status,
+                                            @Param("excludedCaseStatuses") Collection<String> excludedCaseStatuses);
+
+    @Query("SELECT COUNT(m) FROM Match m JOIN m.legalCase c " +
+           "WHERE (m.lawyer.id = :providerId OR m.ngo.id = :providerId) " +
+           "AND m.status = :status AND c.status NOT IN :excludedCaseStatuses")
+    long countForProviderAndStatus(@Param("providerId") Long providerId,
+                                   @Param("status") MatchStatus status,
+                                   @Param("excludedCaseStatuses") Collection<String> excludedCaseStatuses);
+
+    // IDs of the providers holding a match in :status for a case
+    @Query("SELECT COALESCE(l.id, n.id) FROM Match m LEFT JOIN m.lawyer l LEFT JOIN m.ngo n " +
+           "WHERE m.legalCase.id = :caseId AND m.status = :status")
+    List<Long> findProviderIdsByCaseIdAndStatus(@Param("caseId") Long caseId, @Param("status") MatchStatus status);
+
     // Find all matches for a lawyer
     List<Match> findByLawyer(User lawyer);
 
@@ -34,12 +71,74 @@ public interface MatchRepository extends JpaRepository<Match, Long> {
     // Find matches by case and status
     List<Match> findByLegalCaseIdAndStatus(Long caseId, MatchStatus status);
 
+    // Count matches for a case in any of the given statuses
+    long countByLegalCaseIdAndStatusIn(Long caseId, Collection<MatchStatus> statuses);
+
+    // Cases among the given ones that already hold at least :limit matches in the given statuses
+    @Query("SELECT m.legalCase.id FROM Match m WHERE m.legalCase.id IN :caseIds AND m.status IN :statuses " +
+           "GROUP BY m.legalCase.id HAVING COUNT(m) >= :limit")
+    Set<Long> findCaseIdsWithMatchCountAtLeast(@Param("caseIds") Collection<Long> caseIds,
+                                               @Param("statuses") Collection<MatchStatus> statuses,
+                                               @Param("limit") long limit);
+
+    // [caseId, live match count] for the given cases that have any match in the given statuses
+    @Query("SELECT m.legalCase.id, COUNT(m) FROM Match m WHERE m.legalCase.id IN :caseIds AND m.status IN :statuses " +
+           "GROUP BY m.legalCase.id")
+    List<Object[]> countByCaseIdsAndStatusIn(@Param("caseIds") Collection<Long> caseIds,
+                                             @Param("statuses") Collection<MatchStatus> statuses);
+
+    long countByCreatedAtAfter(LocalDateTime since);
+
+    // [status, count] for every match status in use
+    @Query("SELECT m.status, COUNT(m) FROM Match m GROUP BY m.status")
+    List<Object[]> countGroupedByStatus();
+
+    // [matchScore average, high (> 0.7), medium (0.4 - 0.7), low (< 0.4)] over all matches; one row
+    @Query("SELECT AVG(m.matchScore), " +
+           "SUM(CASE WHEN m.matchScore > 0.7 THEN 1 ELSE 0 END), " +
+           "SUM(CASE WHEN m.matchScore >= 0.4 AND m.matchScore <= 0.7 THEN 1 ELSE 0 END), " +
+           "SUM(CASE WHEN m.matchScore < 0.4 THEN 1 ELSE 0 END) FROM Match m")
+    List<Object[]> findScoreStatistics();
+
+    // [case location, count] of matches
+    @Query("SELECT c.location, COUNT(m) FROM Match m JOIN m.legalCase c WHERE c.location IS NOT NULL GROUP BY c.location")
+    List<Object[]> countGroupedByCaseLocation();
+
+    @Query("SELECT COUNT(DISTINCT m.legalCase.id) FROM Match m")
+    long countDistinctCases();
+
+    // Average whole days from creation to provider acceptance
+    @Query(value = "SELECT COALESCE(AVG(FLOOR(EXTRACT(EPOCH FROM (accepted_at - created_at)) / 86400)), 0) " +
+                   "FROM matches WHERE status = 'ACCEPTED_BY_PROVIDER' " +
+                   "AND created_at IS NOT NULL AND accepted_at IS NOT NULL", nativeQuery = true)
+    double averageDaysToAcceptance();
+
+    // Average whole days from creation to rejection by either side
+    @Query(value = "SELECT COALESCE(AVG(FLOOR(EXTRACT(EPOCH FROM (rejected_at - created_at)) / 86400)), 0) " +
+                   "FROM matches WHERE status IN ('REJECTED_BY_CITIZEN', 'REJECTED_BY_PROVIDER') " +
+                   "AND created_at IS NOT NULL AND rejected_at IS NOT NULL", nativeQuery = true)
+    double averageDaysToRejection();
+
     // Check if a match already exists for a case and lawyer
     Optional<Match> findByLegalCaseIdAndLawyerId(Long caseId, Long lawyerId);
 
     // Check if a match already exists for a case and NGO
     Optional<Match> findByLegalCaseIdAndNgoId(Long caseId, Long ngoId);
 
+    // IDs of every provider (lawyer or NGO) already matched to a case
+    @Query("SELECT COALESCE(l.id, n.id) FROM Match m LEFT JOIN m.lawyer l LEFT JOIN m.ngo n WHERE m.legalCase.id = :caseId")
+    Set<Long> findProviderIdsByCaseId(@Param("caseId") Long caseId);
+
+    // [caseId, providerId] for every match on the given cases
+    @Query("SELECT m.legalCase.id, COALESCE(l.id, n.id) FROM Match m LEFT JOIN m.lawyer l LEFT JOIN m.ngo n " +
+           "WHERE m.legalCase.id IN :caseIds")
+    List<Object[]> findProviderIdsByCaseIds(@Param("caseIds") Collection<Long> caseIds);
+
+    // IDs of the given cases that a provider is already matched to
+    @Query("SELECT m.legalCase.id FROM Match m WHERE (m.lawyer.id = :providerId OR m.ngo.id = :providerId) " +
+           "AND m.legalCase.id IN :caseIds")
+    Set<Long> findMatchedCaseIds(@Param("providerId") Long providerId, @Param("caseIds") Collection<Long> caseIds);
+
     // Find all pending matches for a lawyer or NGO
     @Query("SELECT m FROM Match m WHERE (m.lawyer.id = :userId OR m.ngo.id = :userId) AND m.status = :status ORDER BY m.createdAt DESC")
     List<Match> findByProviderIdAndStatus(@Param("userId") Long userId, @Param("status") MatchStatus status);
@@ -52,16 +151,82 @@ public interface MatchRepository extends JpaRepository<Match, Long> {
     @Query("SELECT m FROM Match m WHERE m.legalCase.createdBy.id = :userId ORDER BY m.createdAt DESC")
     List<Match> findByCitizenId(@Param("userId") Long userId);
 
-    // Check if any provider has already accepted a case
-    @Query("SELECT m FROM Match m WHERE m.legalCase.id = :caseId AND m.status = :status")
-    List<Match> findByCaseIdAndStatus(@Param("caseId") Long caseId, @Param("status") MatchStatus status);
-
-    // Count accepted matches for a case (to check if case is already taken)
-    @Query("SELECT COUNT(m) FROM Match m WHERE m.legalCase.id = :caseId AND m.status = 'ACCEPTED_BY_PROVIDER'")
-    long countAcceptedMatchesForCase(@Param("caseId") Long caseId);
-
-    // Find match by ID with pessimistic lock to prevent race conditions
-    @Lock(LockModeType.PESSIMISTIC_WRITE)
-    @Query("SELECT m FROM Match m WHERE m.id = :matchId")
-    Optional<Match> findByIdWithLock(@Param("matchId") Long matchId);
+    // Count all matches where user is the citizen (case creator)
+    @Query("SELECT COUNT(m) FROM Match m WHERE m.legalCase.createdBy.id = :userId")
+    long countByCitizenId(@Param("userId") Long userId);
+
+    // Projected match rows (no entities, no attachment content)
+    @Query(MATCH_ROW_SELECT + "WHERE m.id = :matchId")
+    Optional<MatchRowDTO> findRowById(@Param("matchId") Long matchId);
+
+    @Query(MATCH_ROW_SELECT + "WHERE c.id = :caseId ORDER BY m.matchScore DESC")
+    List<MatchRowDTO> findRowsByCaseId(@Param("caseId") Long caseId);
+
+    // Citizen match feed, keyset-paginated on (createdAt, id) descending
+    @Query(MATCH_ROW_SELECT + "WHERE cb.id = :userId ORDER BY m.createdAt DESC, m.id DESC")
+    List<MatchRowDTO> findRowsByCitizenId(@Param("userId") Long userId, Pageable pageable);
+
+    @Query(MATCH_ROW_SELECT + "WHERE cb.id = :userId " +
+           "AND (m.createdAt < :createdAt OR (m.createdAt = :createdAt AND m.id < :id)) " +
+           "ORDER BY m.createdAt DESC, m.id DESC")
+    List<MatchRowDTO> findRowsByCitizenIdBefore(@Param("userId") Long userId,
+                                                @Param("createdAt") LocalDateTime createdAt,
+                                                @Param("id") Long id,
+                                                Pageable pageable);
+
+    @Query(MATCH_ROW_SELECT + "WHERE (l.id = :userId OR n.id = :userId) AND m.status IN :statuses " +
+           "ORDER BY m.createdAt DESC")
+    List<MatchRowDTO> findRowsByProviderIdAndStatusIn(@Param("userId") Long userId,
+                                                      @Param("statuses") Collection<MatchStatus> statuses);
+
+    // Current status only, for explaining a failed conditional transition
+    @Query("SELECT m.status FROM Match m WHERE m.id = :matchId")
+    Optional<MatchStatus> findStatusById(@Param("matchId") Long matchId);
+
+    // Creation time only, for timing a transition
+    @Query("SELECT m.createdAt FROM Match m WHERE m.id = :matchId")
+    Optional<LocalDateTime> findCreatedAtById(@Param("matchId") Long matchId);
+
+    /**
+     * Conditional status transition: only applies while the match is in
+     * {@code fromStatus}, and bumps the optimistic-lock version. Null
+     * timestamps and reason leave the current values in place.
+     * Returns 0 when the match is in any other status.
+     */
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("UPDATE Match m SET m.status = :toStatus, m.version = m.version + 1, " +
+           "m.acceptedAt = COALESCE(:acceptedAt, m.acceptedAt), " +
+           "m.rejectedAt = COALESCE(:rejectedAt, m.rejectedAt), " +
+           "m.rejectionReason = COALESCE(:reason, m.rejectionReason) " +
+           "WHERE m.id = :matchId AND m.status = :fromStatus")
+    int transitionStatus(@Param("matchId") Long matchId,
+                         @Param("fromStatus") MatchStatus fromStatus,
+                         @Param("toStatus") MatchStatus toStatus,
+                         @Param("acceptedAt") LocalDateTime acceptedAt,
+                         @Param("rejectedAt") LocalDateTime rejectedAt,
+                         @Param("reason") String reason);
+
+    /**
+     * Expire every other match of a case still in the given status in one statement.
+     * Returns the number of matches expired.
+     */
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("UPDATE Match m SET m.status = :expired, m.rejectionReason = :reason, m.version = m.version + 1 " +
+           "WHERE m.legalCase.id = :caseId AND m.id <> :keepMatchId AND m.status = :competing")
+    int expireCompetingMatches(@Param("caseId") Long caseId,
+                               @Param("keepMatchId") Long keepMatchId,
+                               @Param("competing") MatchStatus competing,
+                               @Param("expired") MatchStatus expired,
+                               @Param("reason") String reason);
+
+    // Export rows [id, caseId, lawyerId, ngoId, status, matchScore, caseLocation, createdAt, acceptedAt, rejectedAt],
+    // read with a cursor
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "1000"),
+            @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+    })
+    @Query("SELECT m.id, c.id, l.id, n.id, m.status, m.matchScore, c.location, m.createdAt, m.acceptedAt, m.rejectedAt " +
+           "FROM Match m JOIN m.legalCase c LEFT JOIN m.lawyer l LEFT JOIN m.ngo n " +
+           "WHERE m.createdAt >= :from AND m.createdAt < :to ORDER BY m.id")
+    Stream<Object[]> streamForExport(@Param("from") LocalDateTime from, @Param("to") LocalDateTime to);
 }
@@ -11,6 +11,7 @@ import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.time.LocalDateTime;
 import java.util.List;
 import java.util.Optional;
 
@@ -81,6 +82,14 @@ public interface NotificationRepository extends JpaRepository<Notification, Long
     @Query(value = "DELETE FROM notifications WHERE user_id = :userId AND created_at < CURRENT_TIMESTAMP - INTERVAL ':days days'", nativeQuery = true)
     void deleteOldNotifications(@Param("userId") Long userId, @Param("days") int days);
 
+    long countByCreatedAtAfter(LocalDateTime after);
+
+    /**
+     * [type, count] over all notifications
+     */
+    @Query("SELECT n.type, COUNT(n) FROM Notification n GROUP BY n.type")
+    List<Object[]> countGroupedByType();
+
     /**
      * Find notifications by case ID
      */
@@ -8,8 +8,11 @@ import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
+import java.util.Set;
 
 @Repository
 public interface UserRepository extends JpaRepository<User, Long> {
@@ -45,4 +48,39 @@ public interface UserRepository extends JpaRepository<User, Long> {
     // Find users by role and approval status
     List<User> findByRoleAndApprovalStatus(Role role, ApprovalStatus status);
     long countByRoleAndApprovalStatus(Role role, ApprovalStatus status);
+
+    long countByCreatedAtAfter(LocalDateTime since);
+
+    // [role, count] for every role that has users
+    @Query("SELECT u.role, COUNT(u) FROM User u GROUP BY u.role")
+    List<Object[]> countGroupedByRole();
+
+    // [approvalStatus, count] for every approval status in use
+    @Query("SELECT u.approvalStatus, COUNT(u) FROM User u GROUP BY u.approvalStatus")
+    List<Object[]> countGroupedByApprovalStatus();
+
+    long countByCreatedAtBefore(LocalDateTime before);
+
+    // [location, count] for users with a location
+    @Query("SELECT u.location, COUNT(u) FROM User u WHERE u.location <> '' GROUP BY u.location")
+    List<Object[]> countGroupedByLocation();
+
+    // Average whole days since registration of users in one approval status
+    @Query(value = "SELECT COALESCE(AVG(FLOOR(EXTRACT(EPOCH FROM (LOCALTIMESTAMP - created_at)) / 86400)), 0) " +
+                   "FROM users WHERE approval_status = :status AND created_at IS NOT NULL", nativeQuery = true)
+    double averageDaysSinceCreated(@Param("status") String status);
+
+    // Providers with their profiles in one query (used by the matching engine)
+    @Query("SELECT DISTINCT u FROM User u LEFT JOIN FETCH u.lawyerProfile LEFT JOIN FETCH u.ngoProfile " +
+           "WHERE u.role IN :roles AND u.approvalStatus = :status")
+    List<User> findByRoleInAndApprovalStatusWithProfiles(@Param("roles") List<Role> roles,
+                                                         @Param("status") ApprovalStatus status);
+
+    // Which of the given user ids still exist
+    @Query("SELECT u.id FROM User u WHERE u.id IN :ids")
+    Set<Long> findExistingIds(@Param("ids") Collection<Long> ids);
+
+    @Query("SELECT DISTINCT u FROM User u LEFT JOIN FETCH u.lawyerProfile LEFT JOIN FETCH u.ngoProfile " +
+           "WHERE u.id IN :ids")
+    List<User> findByIdInWithProfiles(@Param("ids") java.util.Collection<Long> ids);
 }
@@ -1,5 +1,6 @@
 package com.example.legalaid_backend.security;
 
+import com.example.legalaid_backend.service.ActiveUserTracker;
 import com.example.legalaid_backend.service.CustomUserDetailsService;
 import jakarta.servlet.FilterChain;
 import jakarta.servlet.ServletException;
@@ -7,6 +8,7 @@ import jakarta.servlet.http.HttpServletRequest;
 import jakarta.servlet.http.HttpServletResponse;
 import lombok.RequiredArgsConstructor;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.GrantedAuthority;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.security.web.authentication.WebAuthenticationDetailsSource;
@@ -22,6 +24,7 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
 
     private final JwtTokenProvider tokenProvider;
     private final CustomUserDetailsService userDetailsService;
+    private final ActiveUserTracker activeUserTracker;
 
     @Override
     protected void doFilterInternal(HttpServletRequest request,
@@ -55,6 +58,9 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
 
                 // Set authentication in SecurityContext
                 SecurityContextHolder.getContext().setAuthentication(authentication);
+
+                // Count the user as active today for DAU/WAU/MAU
+                activeUserTracker.record(userDetails.getUsername(), roleOf(userDetails));
             }
 
         } catch (Exception ex) {
@@ -64,6 +70,17 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
         // Pass to next filter in the chain
         filterChain.doFilter(request, response);
     }
+
+    private static String roleOf(UserDetails userDetails) {
+        for (GrantedAuthority authority : userDetails.getAuthorities()) {
+            String name = authority.getAuthority();
+            if (name != null && name.startsWith("ROLE_")) {
+                return name.substring("ROLE_".length());
+            }
+        }
+        return null;
+    }
+
     private String getJwtFromRequest(HttpServletRequest request) {
         // Get Authorization header
         String bearerToken = request.getHeader("Authorization");
@@ -39,6 +39,7 @@ public class AdminService {
     private final UserRepository userRepository;
     private final CaseRepository caseRepository;
     private final MatchRepository matchRepository;
+    private final ProviderCandidateIndex candidateIndex;
 
     public List<PendingApproval> getPendingApprovals() {
         logger.info("Fetching all users with PENDING or REAPPROVAL_PENDING status");
@@ -82,6 +83,7 @@ public class AdminService {
         updateLastApprovedValues(user);
 
         userRepository.save(user);
+        candidateIndex.refresh(user);
 
         logger.info("User {} approved successfully", user.getEmail());
 
@@ -128,6 +130,7 @@ public class AdminService {
         }
 
         userRepository.save(user);
+        candidateIndex.refresh(user);
 
         return ApprovalResponse.builder()
                 .userId(user.getId())
@@ -183,6 +186,7 @@ public class AdminService {
         user.setEnabled(false);
         user.setApprovalStatus(ApprovalStatus.SUSPENDED);
         userRepository.save(user);
+        candidateIndex.refresh(user);
 
         logger.info("User {} suspended successfully", user.getEmail());
 
@@ -213,6 +217,7 @@ public class AdminService {
         user.setEnabled(true);
         user.setApprovalStatus(ApprovalStatus.APPROVED);
         userRepository.save(user);
+        candidateIndex.refresh(user);
 
         logger.info("User {} reactivated successfully", user.getEmail());
 
@@ -335,6 +340,7 @@ public class AdminService {
         }
 
         userRepository.save(user);
+        candidateIndex.refresh(user);
         logger.info("User {} status updated successfully", user.getEmail());
 
         return ApprovalResponse.builder()
@@ -399,6 +405,7 @@ public class AdminService {
         user.setApprovalStatus(ApprovalStatus.APPROVED);
         updateLastApprovedValues(user);
         userRepository.save(user);
+        candidateIndex.refresh(user);
 
         logger.info("Lawyer {} verified successfully", user.getEmail());
 
@@ -440,6 +447,7 @@ public class AdminService {
         user.setApprovalStatus(ApprovalStatus.APPROVED);
         updateLastApprovedValues(user);
         userRepository.save(user);
+        candidateIndex.refresh(user);
 
         logger.info("NGO {} verified successfully", user.getEmail());
 
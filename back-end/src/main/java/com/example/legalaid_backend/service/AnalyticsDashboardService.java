@@ -0,0 +1,140 @@
+package com.example.legalaid_backend.service;
+
+import com.example.legalaid_backend.DTO.AnalyticsActivityDTO;
+import com.example.legalaid_backend.DTO.AnalyticsCasesDTO;
+import com.example.legalaid_backend.DTO.AnalyticsDashboardDTO;
+import com.example.legalaid_backend.DTO.AnalyticsMatchesDTO;
+import com.example.legalaid_backend.DTO.AnalyticsOverviewDTO;
+import com.example.legalaid_backend.DTO.AnalyticsUsersDTO;
+import com.example.legalaid_backend.DTO.TrendRange;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.time.LocalDateTime;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.function.Supplier;
+
+/**
+ * Admin dashboard: the overview, users, cases, matches and activity sections
+ * gathered concurrently, so the response takes as long as the slowest section
+ * rather than the sum of all of them.
+ *
+ * Sections come from {@link AnalyticsSnapshotCache}, so the dashboard shares
+ * snapshots and single-flight refreshes with the section endpoints and the
+ * number of computations running at once is capped by the cache's refresh
+ * pool, however many admins load it. Whatever has not finished by the
+ * deadline is reported as TIMEOUT and left out; its refresh keeps running
+ * once for everyone and the next load gets the result.
+ */
+@Slf4j
+@Service
+public class AnalyticsDashboardService {
+
+    private final AnalyticsSnapshotCache snapshotCache;
+    private final long timeoutMs;
+
+    public AnalyticsDashboardService(AnalyticsSnapshotCache snapshotCache,
+                                     @Value("${analytics.dashboard.timeout-ms:10000}") long timeoutMs) {
+        this.snapshotCache = snapshotCache;
+        this.timeoutMs = timeoutMs;
+    }
+
+    public AnalyticsDashboardDTO getDashboard(TrendRange range) {
+        long start = System.currentTimeMillis();
+
+        Map<String, SectionRun<?>> runs = new LinkedHashMap<>();
+        runs.put("overview", track(start, snapshotCache::getOverviewAnalyticsAsync));
+        runs.put("users", track(start, () -> snapshotCache.getUsersAnalyticsAsync(range)));
+        runs.put("cases", track(start, () -> snapshotCache.getCasesAnalyticsAsync(range)));
+        runs.put("matches", track(start, () -> snapshotCache.getMatchesAnalyticsAsync(range)));
+        runs.put("activity", track(start, () -> snapshotCache.getActivityAnalyticsAsync(range)));
+
+        CompletableFuture<?>[] futures = runs.values().stream()
+                .map(run -> run.future)
+                .toArray(CompletableFuture[]::new);
+        try {
+            CompletableFuture.allOf(futures).get(timeoutMs, TimeUnit.MILLISECONDS);
+        } catch (TimeoutException e) {
+            log.warn("Analytics dashboard hit its {} ms deadline, returning partial results", timeoutMs);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (ExecutionException e) {
+            // A failed section is reported on its own below
+        }
+
+        Map<String, AnalyticsDashboardDTO.Section> sections = new LinkedHashMap<>();
+        runs.forEach((name, run) -> sections.put(name, run.describe(start)));
+        boolean partial = sections.values().stream()
+                .anyMatch(section -> section.getStatus() != AnalyticsDashboardDTO.SectionStatus.OK);
+
+        long durationMs = System.currentTimeMillis() - start;
+        log.info("Analytics dashboard built in {} ms (partial={}): {}", durationMs, partial, sections);
+
+        return AnalyticsDashboardDTO.builder()
+                .overview((AnalyticsOverviewDTO) runs.get("overview").valueOrNull())
+                .users((AnalyticsUsersDTO) runs.get("users").valueOrNull())
+                .cases((AnalyticsCasesDTO) runs.get("cases").valueOrNull())
+                .matches((AnalyticsMatchesDTO) runs.get("matches").valueOrNull())
+                .activity((AnalyticsActivityDTO) runs.get("activity").valueOrNull())
+                .sections(sections)
+                .partial(partial)
+                .durationMs(durationMs)
+                .lastUpdated(LocalDateTime.now().toString())
+                .build();
+    }
+
+    private <T> SectionRun<T> track(long dashboardStart, Supplier<CompletableFuture<T>> section) {
+        SectionRun<T> run = new SectionRun<>();
+        try {
+            run.future = section.get();
+        } catch (RuntimeException e) {
+            run.future = CompletableFuture.failedFuture(e);
+        }
+        run.future.whenComplete((value, error) -> run.durationMs = System.currentTimeMillis() - dashboardStart);
+        return run;
+    }
+
+    /** One section's computation and how long it ran */
+    private static class SectionRun<T> {
+        private CompletableFuture<T> future;
+        private volatile long durationMs = -1;
+
+        private Object valueOrNull() {
+            return future.isDone() && !future.isCompletedExceptionally() ? future.join() : null;
+        }
+
+        private AnalyticsDashboardDTO.Section describe(long dashboardStart) {
+            if (!future.isDone()) {
+                // The cache finishes it in the background for the next load
+                return AnalyticsDashboardDTO.Section.builder()
+                        .status(AnalyticsDashboardDTO.SectionStatus.TIMEOUT)
+                        .durationMs(System.currentTimeMillis() - dashboardStart)
+                        .build();
+            }
+            if (future.isCompletedExceptionally()) {
+                Throwable error = null;
+                try {
+                    future.join();
+                } catch (CompletionException e) {
+                    error = e.getCause() != null ? e.getCause() : e;
+                }
+                return AnalyticsDashboardDTO.Section.builder()
+                        .status(AnalyticsDashboardDTO.SectionStatus.FAILED)
+                        .durationMs(Math.max(durationMs, 0))
+                        .error(error != null ? error.getMessage() : null)
+                        .build();
+            }
+            return AnalyticsDashboardDTO.Section.builder()
+                    .status(AnalyticsDashboardDTO.SectionStatus.OK)
+                    .durationMs(Math.max(durationMs, 0))
+                    .build();
+        }
+    }
+}
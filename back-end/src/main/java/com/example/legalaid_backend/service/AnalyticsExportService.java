@@ -0,0 +1,208 @@
+package com.example.legalaid_backend.service;
+
+import com.example.legalaid_backend.repository.AnalyticsRollupRepository;
+import com.example.legalaid_backend.repository.CaseRepository;
+import com.example.legalaid_backend.repository.ChatMessageRepository;
+import com.example.legalaid_backend.repository.MatchRepository;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.util.Iterator;
+import java.util.stream.Stream;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Streams raw analytics data to an OutputStream as CSV or NDJSON.
+ *
+ * Rows are scalar projections read through a database cursor (fetch size
+ * 1000, read-only), so no entities are created and memory stays constant
+ * however many rows are exported. The PostgreSQL driver only honours the
+ * fetch size inside a transaction, hence the read-only transaction around
+ * the whole export.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class AnalyticsExportService {
+
+    private static final int BUFFER_SIZE = 64 * 1024;
+
+    public enum Dataset {
+        CASES("id", "case_number", "status", "case_type", "priority", "location", "created_at", "updated_at"),
+        MATCHES("id", "case_id", "lawyer_id", "ngo_id", "status", "match_score", "case_location",
+                "created_at", "accepted_at", "rejected_at"),
+        CHAT_MESSAGES("id", "match_id", "sender_id", "message_type", "sent_at"),
+        ROLLUPS("day", "metric", "dimension", "dimension_value", "count");
+
+        private final String[] columns;
+
+        Dataset(String... columns) {
+            this.columns = columns;
+        }
+
+        /** Accepts the path form, e.g. "chat-messages" */
+        public static Dataset parse(String value) {
+            for (Dataset dataset : values()) {
+                if (dataset.name().equalsIgnoreCase(value.replace('-', '_'))) {
+                    return dataset;
+                }
+            }
+            throw new IllegalArgumentException("Unknown export dataset: " + value
+                    + " (expected cases, matches, chat-messages or rollups)");
+        }
+
+        public String fileName() {
+            return name().toLowerCase().replace('_', '-');
+        }
+    }
+
+    public enum Format {
+        CSV("text/csv", "csv"),
+        NDJSON("application/x-ndjson", "ndjson");
+
+        private final String contentType;
+        private final String extension;
+
+        Format(String contentType, String extension) {
+            this.contentType = contentType;
+            this.extension = extension;
+        }
+
+        public static Format parse(String value) {
+            for (Format format : values()) {
+                if (format.name().equalsIgnoreCase(value)) {
+                    return format;
+                }
+            }
+            throw new IllegalArgumentException("Unknown export format: " + value + " (expected csv or ndjson)");
+        }
+
+        public String getContentType() {
+            return contentType;
+        }
+
+        public String getExtension() {
+            return extension;
+        }
+    }
+
+    private final CaseRepository caseRepository;
+    private final MatchRepository matchRepository;
+    private final ChatMessageRepository chatMessageRepository;
+    private final AnalyticsRollupRepository rollupRepository;
+    private final ObjectMapper objectMapper;
+
+    /**
+     * Write every row of {@code dataset} created between {@code from} and
+     * {@code to} inclusive. The stream is flushed (and the gzip trailer
+     * written) but not closed.
+     *
+     * @return number of rows written
+     */
+    @Transactional(readOnly = true)
+    public long export(Dataset dataset, Format format, LocalDate from, LocalDate to,
+                       boolean gzip, OutputStream out) throws IOException {
+        long start = System.currentTimeMillis();
+
+        GZIPOutputStream gzipStream = gzip ? new GZIPOutputStream(out, BUFFER_SIZE) : null;
+        Writer writer = new BufferedWriter(
+                new OutputStreamWriter(gzipStream != null ? gzipStream : out, StandardCharsets.UTF_8), BUFFER_SIZE);
+
+        long rows = 0;
+        try (Stream<Object[]> stream = open(dataset, from, to)) {
+            Iterator<Object[]> iterator = stream.iterator();
+            if (format == Format.CSV) {
+                writeCsvRow(writer, dataset.columns);
+                while (iterator.hasNext()) {
+                    writeCsvRow(writer, iterator.next());
+                    rows++;
+                }
+            } else {
+                JsonGenerator json = objectMapper.getFactory().createGenerator(writer);
+                json.disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+                while (iterator.hasNext()) {
+                    writeJsonRow(json, dataset.columns, iterator.next());
+                    rows++;
+                }
+                json.flush();
+            }
+        }
+
+        writer.flush();
+        if (gzipStream != null) {
+            gzipStream.finish();
+        }
+        out.flush();
+
+        log.info("Exported {} {} rows as {} (gzip={}) in {} ms",
+                rows, dataset, format, gzip, System.currentTimeMillis() - start);
+        return rows;
+    }
+
+    private Stream<Object[]> open(Dataset dataset, LocalDate from, LocalDate to) {
+        if (dataset == Dataset.CASES) {
+            return caseRepository.streamForExport(from.atStartOfDay(), to.plusDays(1).atStartOfDay());
+        } else if (dataset == Dataset.MATCHES) {
+            return matchRepository.streamForExport(from.atStartOfDay(), to.plusDays(1).atStartOfDay());
+        } else if (dataset == Dataset.CHAT_MESSAGES) {
+            return chatMessageRepository.streamForExport(from.atStartOfDay(), to.plusDays(1).atStartOfDay());
+        }
+        return rollupRepository.streamForExport(from, to);
+    }
+
+    // =========================
+    // ROW WRITERS
+    // =========================
+
+    /** RFC 4180: quote fields containing a delimiter, quote or line break */
+    private static void writeCsvRow(Writer writer, Object[] values) throws IOException {
+        for (int i = 0; i < values.length; i++) {
+            if (i > 0) {
+                writer.write(',');
+            }
+            Object value = values[i];
+            if (value == null) {
+                continue;
+            }
+            String text = value.toString();
+            if (text.indexOf(',') >= 0 || text.indexOf('"') >= 0 || text.indexOf('\n') >= 0 || text.indexOf('\r') >= 0) {
+                writer.write('"');
+                writer.write(text.replace("\"", "\"\""));
+                writer.write('"');
+            } else {
+                writer.write(text);
+            }
+        }
+        writer.write("\r\n");
+    }
+
+    private static void writeJsonRow(JsonGenerator json, String[] columns, Object[] values) throws IOException {
+        json.writeStartObject();
+        for (int i = 0; i < columns.length; i++) {
+            Object value = values[i];
+            json.writeFieldName(columns[i]);
+            if (value == null) {
+                json.writeNull();
+            } else if (value instanceof Long || value instanceof Integer) {
+                json.writeNumber(((Number) value).longValue());
+            } else if (value instanceof Number) {
+                json.writeNumber(((Number) value).doubleValue());
+            } else {
+                json.writeString(value.toString());
+            }
+        }
+        json.writeEndObject();
+        json.writeRaw('\n');
+    }
+}
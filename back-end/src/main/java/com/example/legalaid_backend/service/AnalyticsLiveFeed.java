@@ -0,0 +1,298 @@
+package com.example.legalaid_backend.service;
+
+import com.example.legalaid_backend.DTO.AnalyticsLiveDeltaDTO;
+import com.example.legalaid_backend.util.LiveMetric;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Service;
+import org.springframework.web.servlet.mvc.method.annotation.ResponseBodyEmitter;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Queue;
+import java.util.Set;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.SynchronousQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Live admin dashboard feed over Server-Sent Events.
+ *
+ * Write paths count new users, cases, matches, appointments and error logs
+ * as they commit. Once per batch interval the counts are drained, serialised
+ * once and the same event is sent to every subscribed admin; quiet windows
+ * send nothing but a periodic heartbeat. Dashboards stay current without
+ * polling the analytics queries.
+ *
+ * Events are built on the feed's own thread and handed to each subscriber's
+ * small queue; every subscriber is written to by its own sender task, so a
+ * stalled client only delays itself. A client that falls
+ * {@code maxPendingEvents} behind is disconnected and can reconnect.
+ */
+@Slf4j
+@Service
+public class AnalyticsLiveFeed {
+
+    private final ObjectMapper objectMapper;
+    private final long batchIntervalMs;
+    private final long heartbeatIntervalMs;
+    private final long emitterTimeoutMs;
+    private final int maxSubscribers;
+    private final int maxPendingEvents;
+    private final ScheduledExecutorService publisher;
+    private final ThreadPoolExecutor sender;
+
+    private final AtomicLongArray pending = new AtomicLongArray(LiveMetric.values().length);
+    private final List<Subscriber> subscribers = new CopyOnWriteArrayList<>();
+
+    // Only touched by the publisher thread
+    private long sequence;
+    private LocalDateTime windowStart = LocalDateTime.now();
+    private long lastSentAt = System.currentTimeMillis();
+
+    public AnalyticsLiveFeed(ObjectMapper objectMapper,
+                             @Value("${analytics.live.batch-interval-ms:1000}") long batchIntervalMs,
+                             @Value("${analytics.live.heartbeat-interval-ms:15000}") long heartbeatIntervalMs,
+                             @Value("${analytics.live.emitter-timeout-ms:1800000}") long emitterTimeoutMs,
+                             @Value("${analytics.live.max-subscribers:50}") int maxSubscribers,
+                             @Value("${analytics.live.max-pending-events:20}") int maxPendingEvents) {
+        this.objectMapper = objectMapper;
+        this.batchIntervalMs = Math.max(100, batchIntervalMs);
+        this.heartbeatIntervalMs = heartbeatIntervalMs;
+        this.emitterTimeoutMs = emitterTimeoutMs;
+        this.maxSubscribers = maxSubscribers;
+        this.maxPendingEvents = Math.max(1, maxPendingEvents);
+        this.publisher = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "analytics-live");
+            thread.setDaemon(true);
+            return thread;
+        });
+
+        // At most one send task per subscriber at a time, so one thread each is enough
+        AtomicInteger threadCount = new AtomicInteger();
+        this.sender = new ThreadPoolExecutor(0, Math.max(1, maxSubscribers), 60, TimeUnit.SECONDS,
+                new SynchronousQueue<>(),
+                runnable -> {
+                    Thread thread = new Thread(runnable, "analytics-live-send-" + threadCount.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                });
+    }
+
+    @PostConstruct
+    public void start() {
+        publisher.scheduleWithFixedDelay(this::publish, batchIntervalMs, batchIntervalMs, TimeUnit.MILLISECONDS);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        publisher.shutdownNow();
+        sender.shutdownNow();
+        for (Subscriber subscriber : subscribers) {
+            subscriber.emitter.complete();
+        }
+        subscribers.clear();
+    }
+
+    // =========================
+    // RECORD
+    // =========================
+
+    /** Count one occurrence; call once the change has committed */
+    public void record(LiveMetric metric) {
+        record(metric, 1);
+    }
+
+    public void record(LiveMetric metric, long count) {
+        if (count > 0) {
+            pending.addAndGet(metric.ordinal(), count);
+        }
+    }
+
+    // =========================
+    // SUBSCRIBE
+    // =========================
+    public SseEmitter subscribe(String username) {
+        if (subscribers.size() >= maxSubscribers) {
+            throw new RuntimeException("Too many live dashboard subscribers, try again later");
+        }
+
+        SseEmitter emitter = new SseEmitter(emitterTimeoutMs);
+        Subscriber subscriber = new Subscriber(username, emitter);
+        emitter.onCompletion(() -> unsubscribe(subscriber));
+        emitter.onTimeout(() -> unsubscribe(subscriber));
+        emitter.onError(e -> unsubscribe(subscriber));
+        subscribers.add(subscriber);
+
+        try {
+            // Commits the response headers so the client sees the stream open straight away
+            emitter.send(SseEmitter.event().comment("connected"));
+        } catch (Exception e) {
+            unsubscribe(subscriber);
+            throw new RuntimeException("Failed to open live dashboard stream: " + e.getMessage());
+        }
+
+        log.info("Live dashboard subscriber {} connected ({} total)", username, subscribers.size());
+        return emitter;
+    }
+
+    private void unsubscribe(Subscriber subscriber) {
+        subscribers.remove(subscriber);
+    }
+
+    public int getSubscriberCount() {
+        return subscribers.size();
+    }
+
+    // =========================
+    // PUBLISH
+    // =========================
+    private void publish() {
+        try {
+            LocalDateTime windowEnd = LocalDateTime.now();
+            long[] counts = drain();
+
+            if (subscribers.isEmpty()) {
+                windowStart = windowEnd;
+                return;
+            }
+
+            long now = System.currentTimeMillis();
+            boolean quiet = true;
+            for (long count : counts) {
+                if (count != 0) {
+                    quiet = false;
+                    break;
+                }
+            }
+            if (quiet) {
+                if (now - lastSentAt >= heartbeatIntervalMs) {
+                    broadcast(SseEmitter.event().comment("heartbeat").build());
+                    lastSentAt = now;
+                }
+                return;
+            }
+
+            AnalyticsLiveDeltaDTO delta = AnalyticsLiveDeltaDTO.builder()
+                    .sequence(++sequence)
+                    .newUsers(counts[LiveMetric.NEW_USERS.ordinal()])
+                    .newCases(counts[LiveMetric.NEW_CASES.ordinal()])
+                    .newMatches(counts[LiveMetric.NEW_MATCHES.ordinal()])
+                    .newAppointments(counts[LiveMetric.NEW_APPOINTMENTS.ordinal()])
+                    .errorLogs(counts[LiveMetric.ERROR_LOGS.ordinal()])
+                    .windowStart(windowStart.toString())
+                    .windowEnd(windowEnd.toString())
+                    .build();
+            windowStart = windowEnd;
+
+            // Serialised once, whatever the number of subscribers
+            broadcast(SseEmitter.event()
+                    .name("delta")
+                    .id(String.valueOf(delta.getSequence()))
+                    .data(objectMapper.writeValueAsString(delta), MediaType.APPLICATION_JSON)
+                    .build());
+            lastSentAt = now;
+        } catch (Exception e) {
+            // Never let an exception cancel the scheduled task
+            log.warn("Failed to publish live dashboard delta: {}", e.getMessage());
+        }
+    }
+
+    private long[] drain() {
+        long[] counts = new long[pending.length()];
+        for (int i = 0; i < counts.length; i++) {
+            counts[i] = pending.getAndSet(i, 0);
+        }
+        return counts;
+    }
+
+    private void broadcast(Set<ResponseBodyEmitter.DataWithMediaType> event) {
+        for (Subscriber subscriber : subscribers) {
+            subscriber.offer(event);
+        }
+    }
+
+    /**
+     * One connected admin: events waiting to be written and whether a sender
+     * task is writing them. Sends to one emitter never overlap, and a blocked
+     * send only holds up this subscriber.
+     */
+    private final class Subscriber implements Runnable {
+        private final String username;
+        private final SseEmitter emitter;
+        private final Queue<Set<ResponseBodyEmitter.DataWithMediaType>> queue = new ConcurrentLinkedQueue<>();
+        private final AtomicInteger queued = new AtomicInteger();
+        private final AtomicBoolean sending = new AtomicBoolean();
+        private volatile boolean dropped;
+
+        private Subscriber(String username, SseEmitter emitter) {
+            this.username = username;
+            this.emitter = emitter;
+        }
+
+        /** Called from the publisher thread; never blocks on the client */
+        private void offer(Set<ResponseBodyEmitter.DataWithMediaType> event) {
+            if (dropped) {
+                return;
+            }
+            if (queued.incrementAndGet() > maxPendingEvents) {
+                // The client stopped reading; the sender task closes the stream once its write returns
+                dropped = true;
+                unsubscribe(this);
+                log.warn("Live dashboard subscriber {} fell {} events behind, disconnecting", username, maxPendingEvents);
+                schedule();
+                return;
+            }
+            queue.add(event);
+            schedule();
+        }
+
+        private void schedule() {
+            if (sending.compareAndSet(false, true)) {
+                try {
+                    sender.execute(this);
+                } catch (RejectedExecutionException e) {
+                    sending.set(false);
+                }
+            }
+        }
+
+        @Override
+        public void run() {
+            Set<ResponseBodyEmitter.DataWithMediaType> event;
+            while (!dropped && (event = queue.poll()) != null) {
+                queued.decrementAndGet();
+                try {
+                    emitter.send(event);
+                } catch (Exception e) {
+                    // Client went away; the container completes the emitter
+                    dropped = true;
+                    unsubscribe(this);
+                }
+            }
+            if (dropped) {
+                queue.clear();
+                emitter.complete();
+                return;
+            }
+            sending.set(false);
+            // An event may have arrived after the last poll
+            if (!queue.isEmpty()) {
+                schedule();
+            }
+        }
+    }
+}
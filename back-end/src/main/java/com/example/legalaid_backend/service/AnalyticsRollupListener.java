@@ -0,0 +1,47 @@
+package com.example.legalaid_backend.service;
+
+import com.example.legalaid_backend.entity.Appointment;
+import com.example.legalaid_backend.entity.Case;
+import com.example.legalaid_backend.entity.ChatMessage;
+import com.example.legalaid_backend.entity.Match;
+import com.example.legalaid_backend.entity.Notification;
+import com.example.legalaid_backend.entity.User;
+import jakarta.persistence.PostPersist;
+import org.springframework.context.annotation.Lazy;
+import org.springframework.stereotype.Component;
+
+/**
+ * JPA entity listener feeding newly persisted entities into the analytics
+ * rollups. Matches written by MatchBatchWriter bypass JPA and are recorded
+ * there; status transitions are recorded by CaseStateMachine.
+ *
+ * The rollup service is injected lazily because Hibernate creates entity
+ * listeners while the EntityManagerFactory the service depends on is still
+ * being built.
+ */
+@Component
+public class AnalyticsRollupListener {
+
+    private final AnalyticsRollupService rollupService;
+
+    public AnalyticsRollupListener(@Lazy AnalyticsRollupService rollupService) {
+        this.rollupService = rollupService;
+    }
+
+    @PostPersist
+    public void onCreated(Object entity) {
+        if (entity instanceof User user) {
+            rollupService.recordUserCreated(user);
+        } else if (entity instanceof Case legalCase) {
+            rollupService.recordCaseCreated(legalCase);
+        } else if (entity instanceof Match) {
+            rollupService.recordMatchesCreated(1);
+        } else if (entity instanceof Appointment appointment) {
+            rollupService.recordAppointmentBooked(appointment);
+        } else if (entity instanceof ChatMessage message) {
+            rollupService.recordChatMessage(message);
+        } else if (entity instanceof Notification notification) {
+            rollupService.recordNotification(notification);
+        }
+    }
+}
@@ -0,0 +1,284 @@
+package com.example.legalaid_backend.service;
+
+import com.example.legalaid_backend.entity.Appointment;
+import com.example.legalaid_backend.entity.Case;
+import com.example.legalaid_backend.entity.ChatMessage;
+import com.example.legalaid_backend.entity.Notification;
+import com.example.legalaid_backend.entity.User;
+import com.example.legalaid_backend.repository.AnalyticsRollupRepository;
+import com.example.legalaid_backend.repository.AnalyticsRollupWriter;
+import com.example.legalaid_backend.util.AnalyticsDimension;
+import com.example.legalaid_backend.util.AnalyticsMetric;
+import com.example.legalaid_backend.util.LiveMetric;
+import com.example.legalaid_backend.util.MatchStatus;
+import com.example.legalaid_backend.util.TransactionUtils;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Daily analytics rollups: per-day counts of what happened on the platform,
+ * broken down by role, status, case type, location, expertise tag and
+ * notification type.
+ *
+ * Write paths record facts as they commit; the increments are summed in
+ * memory and flushed to analytics_daily_rollups every few seconds in one
+ * upsert batch. Analytics reads then cost one row per day and dimension value
+ * instead of a scan of the source tables. History is backfilled from the
+ * source tables on first start or on demand. New users, cases, matches and
+ * appointments are also passed on to the live admin dashboard feed.
+ */
+@Slf4j
+@Service
+public class AnalyticsRollupService {
+
+    /** Earliest day any rollup read looks at */
+    public static final LocalDate EPOCH = LocalDate.of(2000, 1, 1);
+
+    private static final String NO_VALUE = "";
+
+    private final AnalyticsRollupRepository rollupRepository;
+    private final AnalyticsRollupWriter rollupWriter;
+    private final TransactionTemplate transactionTemplate;
+    private final AnalyticsLiveFeed liveFeed;
+
+    private Map<AnalyticsRollupWriter.Key, Long> pending = new HashMap<>();
+    // Set while backfill recounts everything; increments arriving meanwhile are dropped
+    private boolean rebuilding;
+    // Held by each flush and for the whole of a backfill, so the two never overlap
+    private final Object flushLock = new Object();
+
+    public AnalyticsRollupService(AnalyticsRollupRepository rollupRepository,
+                                  AnalyticsRollupWriter rollupWriter,
+                                  PlatformTransactionManager transactionManager,
+                                  AnalyticsLiveFeed liveFeed) {
+        this.rollupRepository = rollupRepository;
+        this.rollupWriter = rollupWriter;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.liveFeed = liveFeed;
+    }
+
+    // =========================
+    // RECORD
+    // =========================
+    public void recordUserCreated(User user) {
+        LocalDate day = dayOf(user.getCreatedAt());
+        String role = user.getRole() != null ? user.getRole().name() : null;
+        String location = user.getLocation();
+        TransactionUtils.afterCommit(() -> {
+            add(day, AnalyticsMetric.USER_CREATED, AnalyticsDimension.ALL, NO_VALUE);
+            add(day, AnalyticsMetric.USER_CREATED, AnalyticsDimension.ROLE, role);
+            add(day, AnalyticsMetric.USER_CREATED, AnalyticsDimension.LOCATION, location);
+            liveFeed.record(LiveMetric.NEW_USERS);
+        });
+    }
+
+    public void recordCaseCreated(Case legalCase) {
+        LocalDate day = dayOf(legalCase.getCreatedAt());
+        String caseType = legalCase.getCaseType();
+        String location = legalCase.getLocation();
+        Set<String> tags = legalCase.getExpertiseTags() != null
+                ? new LinkedHashSet<>(legalCase.getExpertiseTags())
+                : Set.of();
+        TransactionUtils.afterCommit(() -> {
+            add(day, AnalyticsMetric.CASE_CREATED, AnalyticsDimension.ALL, NO_VALUE);
+            add(day, AnalyticsMetric.CASE_CREATED, AnalyticsDimension.CASE_TYPE, caseType);
+            add(day, AnalyticsMetric.CASE_CREATED, AnalyticsDimension.LOCATION, location);
+            for (String tag : tags) {
+                add(day, AnalyticsMetric.CASE_CREATED, AnalyticsDimension.EXPERTISE_TAG, tag);
+            }
+            liveFeed.record(LiveMetric.NEW_CASES);
+        });
+    }
+
+    public void recordCaseResolved() {
+        LocalDate day = LocalDate.now();
+        TransactionUtils.afterCommit(() -> add(day, AnalyticsMetric.CASE_RESOLVED, AnalyticsDimension.ALL, NO_VALUE));
+    }
+
+    public void recordMatchesCreated(int count) {
+        if (count <= 0) {
+            return;
+        }
+        LocalDate day = LocalDate.now();
+        TransactionUtils.afterCommit(() -> {
+            add(day, AnalyticsMetric.MATCH_CREATED, AnalyticsDimension.ALL, NO_VALUE, count);
+            liveFeed.record(LiveMetric.NEW_MATCHES, count);
+        });
+    }
+
+    /**
+     * Record a provider acceptance or a citizen/provider rejection; other
+     * match moves are not tracked.
+     */
+    public void recordMatchDecision(MatchStatus status) {
+        LocalDate day = LocalDate.now();
+        if (status == MatchStatus.ACCEPTED_BY_PROVIDER) {
+            TransactionUtils.afterCommit(() -> add(day, AnalyticsMetric.MATCH_ACCEPTED, AnalyticsDimension.ALL, NO_VALUE));
+        } else if (status == MatchStatus.REJECTED_BY_CITIZEN || status == MatchStatus.REJECTED_BY_PROVIDER) {
+            TransactionUtils.afterCommit(() -> {
+                add(day, AnalyticsMetric.MATCH_REJECTED, AnalyticsDimension.ALL, NO_VALUE);
+                add(day, AnalyticsMetric.MATCH_REJECTED, AnalyticsDimension.STATUS, status.name());
+            });
+        }
+    }
+
+    public void recordAppointmentBooked(Appointment appointment) {
+        LocalDate day = dayOf(appointment.getCreatedAt());
+        TransactionUtils.afterCommit(() -> {
+            add(day, AnalyticsMetric.APPOINTMENT_BOOKED, AnalyticsDimension.ALL, NO_VALUE);
+            liveFeed.record(LiveMetric.NEW_APPOINTMENTS);
+        });
+    }
+
+    public void recordChatMessage(ChatMessage message) {
+        LocalDate day = dayOf(message.getSentAt());
+        TransactionUtils.afterCommit(() -> add(day, AnalyticsMetric.CHAT_MESSAGE_SENT, AnalyticsDimension.ALL, NO_VALUE));
+    }
+
+    public void recordNotification(Notification notification) {
+        LocalDate day = dayOf(notification.getCreatedAt());
+        String type = notification.getType() != null ? notification.getType().name() : null;
+        TransactionUtils.afterCommit(() -> {
+            add(day, AnalyticsMetric.NOTIFICATION_SENT, AnalyticsDimension.ALL, NO_VALUE);
+            add(day, AnalyticsMetric.NOTIFICATION_SENT, AnalyticsDimension.TYPE, type);
+        });
+    }
+
+    private void add(LocalDate day, AnalyticsMetric metric, AnalyticsDimension dimension, String value) {
+        add(day, metric, dimension, value, 1);
+    }
+
+    private synchronized void add(LocalDate day, AnalyticsMetric metric, AnalyticsDimension dimension,
+                                  String value, long delta) {
+        if (rebuilding || value == null || (value.isEmpty() && dimension != AnalyticsDimension.ALL)) {
+            return;
+        }
+        pending.merge(new AnalyticsRollupWriter.Key(day, metric, dimension, value), delta, Long::sum);
+    }
+
+    private static LocalDate dayOf(LocalDateTime timestamp) {
+        return timestamp != null ? timestamp.toLocalDate() : LocalDate.now();
+    }
+
+    // =========================
+    // FLUSH / BACKFILL
+    // =========================
+    @Scheduled(fixedDelayString = "${analytics.rollup.flush-interval-ms:5000}")
+    public void flush() {
+        synchronized (flushLock) {
+            Map<AnalyticsRollupWriter.Key, Long> batch = drain();
+            if (batch.isEmpty()) {
+                return;
+            }
+            try {
+                rollupWriter.addAll(batch);
+            } catch (Exception e) {
+                // Keep the increments for the next flush
+                log.warn("Failed to flush {} analytics rollup increments: {}", batch.size(), e.getMessage());
+                synchronized (this) {
+                    batch.forEach((key, delta) -> pending.merge(key, delta, Long::sum));
+                }
+            }
+        }
+    }
+
+    @PreDestroy
+    public void flushOnShutdown() {
+        flush();
+    }
+
+    private synchronized Map<AnalyticsRollupWriter.Key, Long> drain() {
+        Map<AnalyticsRollupWriter.Key, Long> batch = pending;
+        pending = new HashMap<>();
+        return batch;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void backfillIfEmpty() {
+        if (rollupRepository.count() == 0) {
+            log.info("Analytics rollups are empty, backfilling from source tables");
+            backfill();
+        }
+    }
+
+    /**
+     * Recompute every rollup from the source tables in one transaction.
+     * Flushing is paused until it commits, and increments recorded meanwhile
+     * are dropped, so nothing the recount already read is added on top of it.
+     *
+     * @return number of rollup rows written
+     */
+    public int backfill() {
+        long start = System.currentTimeMillis();
+
+        Integer rows;
+        synchronized (flushLock) {
+            flush();
+            synchronized (this) {
+                pending.clear();
+                rebuilding = true;
+            }
+            try {
+                rows = transactionTemplate.execute(status -> rollupWriter.rebuild());
+            } finally {
+                synchronized (this) {
+                    pending.clear();
+                    rebuilding = false;
+                }
+            }
+        }
+
+        log.info("Analytics rollups backfilled: {} rows in {} ms", rows, System.currentTimeMillis() - start);
+        return rows != null ? rows : 0;
+    }
+
+    // =========================
+    // READ
+    // =========================
+
+    /**
+     * Daily counts between {@code from} and {@code to} inclusive, oldest first.
+     * Days with no activity are absent. For {@link AnalyticsDimension#ALL}
+     * pass an empty value.
+     */
+    public Map<LocalDate, Long> dailyCounts(AnalyticsMetric metric, AnalyticsDimension dimension, String value,
+                                            LocalDate from, LocalDate to) {
+        Map<LocalDate, Long> counts = new LinkedHashMap<>();
+        for (Object[] row : rollupRepository.findDailyCounts(metric, dimension, value, from, to)) {
+            counts.put((LocalDate) row[0], ((Number) row[1]).longValue());
+        }
+        return counts;
+    }
+
+    public Map<LocalDate, Long> dailyCounts(AnalyticsMetric metric, LocalDate from, LocalDate to) {
+        return dailyCounts(metric, AnalyticsDimension.ALL, NO_VALUE, from, to);
+    }
+
+    /**
+     * Totals per dimension value between {@code from} and {@code to} inclusive.
+     */
+    public Map<String, Long> totalsBy(AnalyticsMetric metric, AnalyticsDimension dimension,
+                                      LocalDate from, LocalDate to) {
+        Map<String, Long> totals = new HashMap<>();
+        List<Object[]> rows = rollupRepository.sumByDimensionValue(metric, dimension, from, to);
+        for (Object[] row : rows) {
+            totals.put((String) row[0], ((Number) row[1]).longValue());
+        }
+        return totals;
+    }
+}
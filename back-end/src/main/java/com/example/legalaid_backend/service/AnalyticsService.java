@@ -3,18 +3,23 @@ package com.example.legalaid_backend.service;
 import com.example.legalaid_backend.DTO.*;
 import com.example.legalaid_backend.entity.*;
 import com.example.legalaid_backend.repository.*;
+import com.example.legalaid_backend.util.AnalyticsDimension;
+import com.example.legalaid_backend.util.AnalyticsMetric;
 import com.example.legalaid_backend.util.ApprovalStatus;
+import com.example.legalaid_backend.util.LatencyMetric;
+import com.example.legalaid_backend.util.AppointmentStatus;
 import com.example.legalaid_backend.util.Role;
 import com.example.legalaid_backend.util.MatchStatus;
 import lombok.RequiredArgsConstructor;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.stereotype.Service;
 
 import java.time.*;
+import java.time.temporal.ChronoUnit;
 import java.util.*;
 import java.util.stream.Collectors;
-import java.util.stream.Stream;
 
 @Service
 @RequiredArgsConstructor
@@ -22,104 +27,82 @@ public class AnalyticsService {
 
     private static final Logger logger = LoggerFactory.getLogger(AnalyticsService.class);
 
+    private static final double SECONDS_PER_MINUTE = 60;
+    private static final double SECONDS_PER_DAY = 86400;
+
     private final UserRepository userRepository;
     private final CaseRepository caseRepository;
     private final MatchRepository matchRepository;
     private final AppointmentRepository appointmentRepository;
     private final ChatMessageRepository chatMessageRepository;
     private final NotificationRepository notificationRepository;
-    private final ApplicationLogRepository applicationLogRepository;
+    private final AnalyticsRollupService rollupService;
+    private final ActiveUserTracker activeUserTracker;
+    private final LatencySketchService latencySketchService;
 
     // ==================== OVERVIEW ANALYTICS ====================
+
+    /**
+     * Built entirely from COUNT and GROUP BY queries returning scalar rows,
+     * so memory use does not grow with the size of the tables.
+     */
     public AnalyticsOverviewDTO getOverviewAnalytics() {
         logger.info("Generating overview analytics");
 
         LocalDateTime oneMonthAgo = LocalDateTime.now().minusMonths(1);
-        LocalDateTime today = LocalDateTime.now().withHour(0).withMinute(0).withSecond(0);
 
         long totalUsers = userRepository.count();
         long totalCases = caseRepository.count();
         long totalMatches = matchRepository.count();
         long totalAppointments = appointmentRepository.count();
 
-        // Users created this month
-        List<User> usersThisMonth = userRepository.findAll().stream()
-                .filter(u -> u.getCreatedAt() != null && u.getCreatedAt().isAfter(oneMonthAgo))
-                .collect(Collectors.toList());
-
-        // Cases created this month
-        List<Case> casesThisMonth = caseRepository.findAll().stream()
-                .filter(c -> c.getCreatedAt() != null && c.getCreatedAt().isAfter(oneMonthAgo))
-                .collect(Collectors.toList());
-
-        // Matches created this month
-        List<Match> matchesThisMonth = matchRepository.findAll().stream()
-                .filter(m -> m.getCreatedAt() != null && m.getCreatedAt().isAfter(oneMonthAgo))
-                .collect(Collectors.toList());
+        // Created this month
+        long newUsersThisMonth = userRepository.countByCreatedAtAfter(oneMonthAgo);
+        long newCasesThisMonth = caseRepository.countByCreatedAtAfter(oneMonthAgo);
+        long newMatchesThisMonth = matchRepository.countByCreatedAtAfter(oneMonthAgo);
 
         // Users by role
+        Map<String, Long> userRoleCounts = toCountMap(userRepository.countGroupedByRole());
         Map<String, Long> usersByRole = new HashMap<>();
-        usersByRole.put("LAWYER", userRepository.findAll().stream()
-                .filter(u -> u.getRole() == Role.LAWYER).count());
-        usersByRole.put("NGO", userRepository.findAll().stream()
-                .filter(u -> u.getRole() == Role.NGO).count());
-        usersByRole.put("CITIZEN", userRepository.findAll().stream()
-                .filter(u -> u.getRole() == Role.CITIZEN).count());
-        usersByRole.put("ADMIN", userRepository.findAll().stream()
-                .filter(u -> u.getRole() == Role.ADMIN).count());
+        for (Role role : List.of(Role.LAWYER, Role.NGO, Role.CITIZEN, Role.ADMIN)) {
+            usersByRole.put(role.name(), userRoleCounts.getOrDefault(role.name(), 0L));
+        }
 
         // Users by approval status
+        Map<String, Long> approvalCounts = toCountMap(userRepository.countGroupedByApprovalStatus());
         Map<String, Long> usersByApprovalStatus = new HashMap<>();
-        usersByApprovalStatus.put("PENDING", (long) userRepository.findByApprovalStatusIn(
-                List.of(ApprovalStatus.PENDING)).size());
-        usersByApprovalStatus.put("APPROVED", (long) userRepository.findByApprovalStatusIn(
-                List.of(ApprovalStatus.APPROVED)).size());
-        usersByApprovalStatus.put("REJECTED", (long) userRepository.findByApprovalStatusIn(
-                List.of(ApprovalStatus.REJECTED)).size());
+        for (ApprovalStatus status : List.of(ApprovalStatus.PENDING, ApprovalStatus.APPROVED, ApprovalStatus.REJECTED)) {
+            usersByApprovalStatus.put(status.name(), approvalCounts.getOrDefault(status.name(), 0L));
+        }
 
         // Cases by status - using updated CaseStatus enum values
+        Map<String, Long> caseStatusCounts = toCountMap(caseRepository.countGroupedByStatus());
         Map<String, Long> casesByStatus = new HashMap<>();
-        List<Case> allCases = caseRepository.findAll();
-        long openCases = allCases.stream().filter(c -> 
-            "SUBMITTED".equals(c.getStatus()) || 
-            "PENDING_APPROVAL".equals(c.getStatus())).count();
-        long assignedCases = allCases.stream().filter(c -> 
-            "ACCEPTED".equals(c.getStatus()) || 
-            "IN_PROGRESS".equals(c.getStatus()) || 
-            "UNDER_REVIEW".equals(c.getStatus())).count();
-        long closedCases = allCases.stream().filter(c -> 
-            "RESOLVED".equals(c.getStatus()) || 
-            "CLOSED".equals(c.getStatus())).count();
-        casesByStatus.put("OPEN", openCases);
-        casesByStatus.put("ASSIGNED", assignedCases);
-        casesByStatus.put("CLOSED", closedCases);
-        casesByStatus.put("SUBMITTED", allCases.stream().filter(c -> "SUBMITTED".equals(c.getStatus())).count());
-        casesByStatus.put("RESOLVED", allCases.stream().filter(c -> "RESOLVED".equals(c.getStatus())).count());
-        casesByStatus.put("REJECTED", allCases.stream().filter(c -> "REJECTED".equals(c.getStatus())).count());
+        casesByStatus.put("OPEN", sumCounts(caseStatusCounts, "SUBMITTED", "PENDING_APPROVAL"));
+        casesByStatus.put("ASSIGNED", sumCounts(caseStatusCounts, "ACCEPTED", "IN_PROGRESS", "UNDER_REVIEW"));
+        casesByStatus.put("CLOSED", sumCounts(caseStatusCounts, "RESOLVED", "CLOSED"));
+        casesByStatus.put("SUBMITTED", caseStatusCounts.getOrDefault("SUBMITTED", 0L));
+        casesByStatus.put("RESOLVED", caseStatusCounts.getOrDefault("RESOLVED", 0L));
+        casesByStatus.put("REJECTED", caseStatusCounts.getOrDefault("REJECTED", 0L));
 
         // Cases by priority
+        Map<String, Long> priorityCounts = toCountMap(caseRepository.countGroupedByPriority());
         Map<String, Long> casesByPriority = new HashMap<>();
-        casesByPriority.put("HIGH", allCases.stream().filter(c -> "HIGH".equals(c.getPriority())).count());
-        casesByPriority.put("MEDIUM", allCases.stream().filter(c -> "MEDIUM".equals(c.getPriority())).count());
-        casesByPriority.put("LOW", allCases.stream().filter(c -> "LOW".equals(c.getPriority())).count());
+        for (String priority : List.of("HIGH", "MEDIUM", "LOW")) {
+            casesByPriority.put(priority, priorityCounts.getOrDefault(priority, 0L));
+        }
 
         // Matches by status
+        Map<String, Long> matchStatusCounts = toCountMap(matchRepository.countGroupedByStatus());
         Map<String, Long> matchesByStatus = new HashMap<>();
-        List<Match> allMatches = matchRepository.findAll();
-        matchesByStatus.put("PENDING", allMatches.stream().filter(m -> m.getStatus() == MatchStatus.PENDING).count());
-        matchesByStatus.put("ACCEPTED_BY_PROVIDER", allMatches.stream().filter(m -> m.getStatus() == MatchStatus.ACCEPTED_BY_PROVIDER).count());
-        matchesByStatus.put("REJECTED_BY_CITIZEN", allMatches.stream().filter(m -> m.getStatus() == MatchStatus.REJECTED_BY_CITIZEN).count());
-        matchesByStatus.put("REJECTED_BY_PROVIDER", allMatches.stream().filter(m -> m.getStatus() == MatchStatus.REJECTED_BY_PROVIDER).count());
+        for (MatchStatus status : List.of(MatchStatus.PENDING, MatchStatus.ACCEPTED_BY_PROVIDER,
+                MatchStatus.REJECTED_BY_CITIZEN, MatchStatus.REJECTED_BY_PROVIDER)) {
+            matchesByStatus.put(status.name(), matchStatusCounts.getOrDefault(status.name(), 0L));
+        }
 
         // Top expertise tags
-        List<String> topExpertiseTags = allCases.stream()
-                .flatMap(c -> c.getExpertiseTags() != null ? c.getExpertiseTags().stream() : Stream.empty())
-                .filter(tag -> tag != null && !tag.isEmpty())
-                .collect(Collectors.groupingBy(String::toString, Collectors.counting()))
-                .entrySet().stream()
-                .sorted((a, b) -> Long.compare(b.getValue(), a.getValue()))
-                .limit(10)
-                .map(Map.Entry::getKey)
+        List<String> topExpertiseTags = caseRepository.countTopExpertiseTags(PageRequest.of(0, 10)).stream()
+                .map(row -> (String) row[0])
                 .collect(Collectors.toList());
 
         // System health score (0-100)
@@ -130,9 +113,9 @@ public class AnalyticsService {
                 .totalCases(totalCases)
                 .totalMatches(totalMatches)
                 .totalAppointments(totalAppointments)
-                .newUsersThisMonth((long) usersThisMonth.size())
-                .newCasesThisMonth((long) casesThisMonth.size())
-                .newMatchesThisMonth((long) matchesThisMonth.size())
+                .newUsersThisMonth(newUsersThisMonth)
+                .newCasesThisMonth(newCasesThisMonth)
+                .newMatchesThisMonth(newMatchesThisMonth)
                 .usersByRole(usersByRole)
                 .usersByApprovalStatus(usersByApprovalStatus)
                 .casesByStatus(casesByStatus)
@@ -146,59 +129,48 @@ public class AnalyticsService {
 
     // ==================== USERS ANALYTICS ====================
     public AnalyticsUsersDTO getUsersAnalytics() {
-        logger.info("Generating users analytics");
+        return getUsersAnalytics(TrendRange.defaults());
+    }
 
-        LocalDateTime oneMonthAgo = LocalDateTime.now().minusMonths(1);
-        LocalDateTime oneWeekAgo = LocalDateTime.now().minusWeeks(1);
-        LocalDateTime today = LocalDateTime.now().withHour(0).withMinute(0).withSecond(0);
+    public AnalyticsUsersDTO getUsersAnalytics(TrendRange range) {
+        logger.info("Generating users analytics, trends {}", range);
 
-        List<User> allUsers = userRepository.findAll();
-        long totalUsers = allUsers.size();
+        long totalUsers = userRepository.count();
 
-        long totalLawyers = allUsers.stream().filter(u -> u.getRole() == Role.LAWYER).count();
-        long totalNgos = allUsers.stream().filter(u -> u.getRole() == Role.NGO).count();
-        long totalCitizens = allUsers.stream().filter(u -> u.getRole() == Role.CITIZEN).count();
+        Map<String, Long> roleCounts = toCountMap(userRepository.countGroupedByRole());
+        long totalLawyers = roleCounts.getOrDefault(Role.LAWYER.name(), 0L);
+        long totalNgos = roleCounts.getOrDefault(Role.NGO.name(), 0L);
+        long totalCitizens = roleCounts.getOrDefault(Role.CITIZEN.name(), 0L);
 
         // Approval status
-        long pendingApprovals = allUsers.stream().filter(u -> u.getApprovalStatus() == ApprovalStatus.PENDING).count();
-        long approvedUsers = allUsers.stream().filter(u -> u.getApprovalStatus() == ApprovalStatus.APPROVED).count();
-        long rejectedUsers = allUsers.stream().filter(u -> u.getApprovalStatus() == ApprovalStatus.REJECTED).count();
-        long reapprovalPendingUsers = allUsers.stream().filter(u -> u.getApprovalStatus() == ApprovalStatus.REAPPROVAL_PENDING).count();
+        Map<String, Long> approvalCounts = toCountMap(userRepository.countGroupedByApprovalStatus());
+        long pendingApprovals = approvalCounts.getOrDefault(ApprovalStatus.PENDING.name(), 0L);
+        long approvedUsers = approvalCounts.getOrDefault(ApprovalStatus.APPROVED.name(), 0L);
+        long rejectedUsers = approvalCounts.getOrDefault(ApprovalStatus.REJECTED.name(), 0L);
+        long reapprovalPendingUsers = approvalCounts.getOrDefault(ApprovalStatus.REAPPROVAL_PENDING.name(), 0L);
 
         // Geographic data
-        Map<String, Long> usersByLocation = allUsers.stream()
-                .filter(u -> u.getLocation() != null && !u.getLocation().isEmpty())
-                .collect(Collectors.groupingBy(User::getLocation, Collectors.counting()));
+        Map<String, Long> usersByLocation = toCountMap(userRepository.countGroupedByLocation());
+        List<String> topLocations = topKeys(usersByLocation, 10, true);
 
-        List<String> topLocations = usersByLocation.entrySet().stream()
-                .sorted((a, b) -> Long.compare(b.getValue(), a.getValue()))
-                .limit(10)
-                .map(Map.Entry::getKey)
-                .collect(Collectors.toList());
+        // Growth trends, from the daily rollups
+        List<AnalyticsTrendDTO> userGrowthTrend = trend(AnalyticsMetric.USER_CREATED, AnalyticsDimension.ALL, "", range);
+        List<AnalyticsTrendDTO> lawyerGrowthTrend = trend(AnalyticsMetric.USER_CREATED, AnalyticsDimension.ROLE, Role.LAWYER.name(), range);
+        List<AnalyticsTrendDTO> ngoGrowthTrend = trend(AnalyticsMetric.USER_CREATED, AnalyticsDimension.ROLE, Role.NGO.name(), range);
+
+        // Activity metrics, from the daily active user sketches
+        long activeUsersThisMonth = activeUserTracker.countActiveInLastDays(null, 30);
+        long activeUsersThisWeek = activeUserTracker.countActiveInLastDays(null, 7);
+        long activeUsersToday = activeUserTracker.countActiveInLastDays(null, 1);
 
-        // Growth trends
-        List<AnalyticsTrendDTO> userGrowthTrend = generateMonthlyTrends(allUsers, User::getCreatedAt);
-        List<AnalyticsTrendDTO> lawyerGrowthTrend = generateMonthlyTrends(
-                allUsers.stream().filter(u -> u.getRole() == Role.LAWYER).collect(Collectors.toList()),
-                User::getCreatedAt
-        );
-        List<AnalyticsTrendDTO> ngoGrowthTrend = generateMonthlyTrends(
-                allUsers.stream().filter(u -> u.getRole() == Role.NGO).collect(Collectors.toList()),
-                User::getCreatedAt
-        );
-
-        // Activity metrics (using log data)
-        long activeUsersThisMonth = getActiveUsersCount(oneMonthAgo);
-        long activeUsersThisWeek = getActiveUsersCount(oneWeekAgo);
-        long activeUsersToday = getActiveUsersCount(today);
-
-        double userRetentionRate = calculateRetentionRate(allUsers);
-        double averageUserLifetime = calculateAverageUserLifetime(allUsers);
+        double userRetentionRate = calculateRetentionRate(totalUsers);
+        double averageUserLifetime = averageAgeInDays(
+                rollupService.dailyCounts(AnalyticsMetric.USER_CREATED, AnalyticsRollupService.EPOCH, LocalDate.now()));
 
         // Approval statistics
         double approvalRate = totalUsers > 0 ? (approvedUsers * 100.0 / totalUsers) : 0;
         double rejectionRate = totalUsers > 0 ? (rejectedUsers * 100.0 / totalUsers) : 0;
-        long averageApprovalTime = calculateAverageApprovalTime();
+        long averageApprovalTime = (long) userRepository.averageDaysSinceCreated(ApprovalStatus.APPROVED.name());
 
         return AnalyticsUsersDTO.builder()
                 .totalUsers(totalUsers)
@@ -228,97 +200,63 @@ public class AnalyticsService {
 
     // ==================== CASES ANALYTICS ====================
     public AnalyticsCasesDTO getCasesAnalytics() {
-        logger.info("Generating cases analytics");
+        return getCasesAnalytics(TrendRange.defaults());
+    }
 
-        LocalDateTime oneMonthAgo = LocalDateTime.now().minusMonths(1);
+    public AnalyticsCasesDTO getCasesAnalytics(TrendRange range) {
+        logger.info("Generating cases analytics, trends {}", range);
 
-        List<Case> allCases = caseRepository.findAll();
-        long totalCases = allCases.size();
+        long totalCases = caseRepository.count();
 
         // Updated to use new CaseStatus enum values stored as strings
-        long openCases = allCases.stream().filter(c -> 
-            "SUBMITTED".equals(c.getStatus()) || 
-            "PENDING_APPROVAL".equals(c.getStatus())).count();
-        long assignedCases = allCases.stream().filter(c -> 
-            "ACCEPTED".equals(c.getStatus()) || 
-            "IN_PROGRESS".equals(c.getStatus()) || 
-            "UNDER_REVIEW".equals(c.getStatus())).count();
-        long closedCases = allCases.stream().filter(c -> 
-            "RESOLVED".equals(c.getStatus()) || 
-            "CLOSED".equals(c.getStatus())).count();
-        long rejectedCases = allCases.stream().filter(c -> 
-            "REJECTED".equals(c.getStatus())).count();
-        long cancelledCases = allCases.stream().filter(c -> 
-            "CANCELLED".equals(c.getStatus())).count();
+        Map<String, Long> statusCounts = toCountMap(caseRepository.countGroupedByStatus());
+        long openCases = sumCounts(statusCounts, "SUBMITTED", "PENDING_APPROVAL");
+        long assignedCases = sumCounts(statusCounts, "ACCEPTED", "IN_PROGRESS", "UNDER_REVIEW");
+        long closedCases = sumCounts(statusCounts, "RESOLVED", "CLOSED");
 
         // Status distribution - use all the new status values
         Map<String, Long> casesByStatus = new HashMap<>();
-        casesByStatus.put("SUBMITTED", allCases.stream().filter(c -> "SUBMITTED".equals(c.getStatus())).count());
-        casesByStatus.put("PENDING_APPROVAL", allCases.stream().filter(c -> "PENDING_APPROVAL".equals(c.getStatus())).count());
-        casesByStatus.put("ACCEPTED", allCases.stream().filter(c -> "ACCEPTED".equals(c.getStatus())).count());
-        casesByStatus.put("IN_PROGRESS", allCases.stream().filter(c -> "IN_PROGRESS".equals(c.getStatus())).count());
-        casesByStatus.put("UNDER_REVIEW", allCases.stream().filter(c -> "UNDER_REVIEW".equals(c.getStatus())).count());
-        casesByStatus.put("RESOLVED", allCases.stream().filter(c -> "RESOLVED".equals(c.getStatus())).count());
-        casesByStatus.put("CLOSED", allCases.stream().filter(c -> "CLOSED".equals(c.getStatus())).count());
-        casesByStatus.put("REJECTED", rejectedCases);
-        casesByStatus.put("CANCELLED", cancelledCases);
+        for (String status : List.of("SUBMITTED", "PENDING_APPROVAL", "ACCEPTED", "IN_PROGRESS", "UNDER_REVIEW",
+                "RESOLVED", "CLOSED", "REJECTED", "CANCELLED")) {
+            casesByStatus.put(status, statusCounts.getOrDefault(status, 0L));
+        }
         // Keep legacy mappings for backwards compatibility
         casesByStatus.put("OPEN", openCases);
         casesByStatus.put("ASSIGNED", assignedCases);
 
         // Priority distribution
+        Map<String, Long> priorityCounts = toCountMap(caseRepository.countGroupedByPriority());
         Map<String, Long> casesByPriority = new HashMap<>();
-        casesByPriority.put("HIGH", allCases.stream().filter(c -> "HIGH".equals(c.getPriority())).count());
-        casesByPriority.put("MEDIUM", allCases.stream().filter(c -> "MEDIUM".equals(c.getPriority())).count());
-        casesByPriority.put("LOW", allCases.stream().filter(c -> "LOW".equals(c.getPriority())).count());
-
-        // Case type distribution
-        Map<String, Long> casesByType = allCases.stream()
-                .filter(c -> c.getCaseType() != null && !c.getCaseType().isEmpty())
-                .collect(Collectors.groupingBy(Case::getCaseType, Collectors.counting()));
-
-        // Geographic data
-        Map<String, Long> casesByLocation = allCases.stream()
-                .filter(c -> c.getLocation() != null && !c.getLocation().isEmpty())
-                .collect(Collectors.groupingBy(Case::getLocation, Collectors.counting()));
-
-        List<String> topCaseLocations = casesByLocation.entrySet().stream()
-                .sorted((a, b) -> Long.compare(b.getValue(), a.getValue()))
-                .limit(10)
-                .map(Map.Entry::getKey)
-                .collect(Collectors.toList());
-
-        // Expertise tags analysis
-        Map<String, Long> casesByExpertiseTag = allCases.stream()
-                .flatMap(c -> c.getExpertiseTags() != null ? c.getExpertiseTags().stream() : Stream.empty())
-                .filter(tag -> tag != null && !tag.isEmpty())
-                .collect(Collectors.groupingBy(String::toString, Collectors.counting()));
+        for (String priority : List.of("HIGH", "MEDIUM", "LOW")) {
+            casesByPriority.put(priority, priorityCounts.getOrDefault(priority, 0L));
+        }
 
-        List<String> mostRequestedExpertiseTags = casesByExpertiseTag.entrySet().stream()
-                .sorted((a, b) -> Long.compare(b.getValue(), a.getValue()))
-                .limit(10)
-                .map(Map.Entry::getKey)
-                .collect(Collectors.toList());
+        // Type, location and expertise tag distributions, counted by the rollups as cases are created
+        LocalDate todayDate = LocalDate.now();
+        Map<String, Long> casesByType = rollupService.totalsBy(
+                AnalyticsMetric.CASE_CREATED, AnalyticsDimension.CASE_TYPE, AnalyticsRollupService.EPOCH, todayDate);
+        Map<String, Long> casesByLocation = rollupService.totalsBy(
+                AnalyticsMetric.CASE_CREATED, AnalyticsDimension.LOCATION, AnalyticsRollupService.EPOCH, todayDate);
+        Map<String, Long> casesByExpertiseTag = rollupService.totalsBy(
+                AnalyticsMetric.CASE_CREATED, AnalyticsDimension.EXPERTISE_TAG, AnalyticsRollupService.EPOCH, todayDate);
 
-        List<String> leastRequestedExpertiseTags = casesByExpertiseTag.entrySet().stream()
-                .sorted((a, b) -> Long.compare(a.getValue(), b.getValue()))
-                .limit(5)
-                .map(Map.Entry::getKey)
-                .collect(Collectors.toList());
+        List<String> topCaseLocations = topKeys(casesByLocation, 10, true);
+        List<String> mostRequestedExpertiseTags = topKeys(casesByExpertiseTag, 10, true);
+        List<String> leastRequestedExpertiseTags = topKeys(casesByExpertiseTag, 5, false);
 
         // Trends
-        List<AnalyticsTrendDTO> casesCreatedTrend = generateMonthlyTrends(allCases, Case::getCreatedAt);
-        List<AnalyticsTrendDTO> casesClosedTrend = generateMonthlyTrends(
-                allCases.stream().filter(c -> "CLOSED".equals(c.getStatus()) || "RESOLVED".equals(c.getStatus())).collect(Collectors.toList()),
-                Case::getUpdatedAt
-        );
+        List<AnalyticsTrendDTO> casesCreatedTrend = trend(AnalyticsMetric.CASE_CREATED, AnalyticsDimension.ALL, "", range);
+        List<AnalyticsTrendDTO> casesClosedTrend = trend(AnalyticsMetric.CASE_RESOLVED, AnalyticsDimension.ALL, "", range);
 
         // Time-based statistics
-        long averageCaseAge = calculateAverageCaseAge(allCases);
-        long medianCaseAge = calculateMedianCaseAge(allCases);
-        long averageResolutionTime = calculateAverageResolutionTime(
-                allCases.stream().filter(c -> "CLOSED".equals(c.getStatus()) || "RESOLVED".equals(c.getStatus())).collect(Collectors.toList())
-        );
+        Map<LocalDate, Long> casesPerDay = rollupService.dailyCounts(
+                AnalyticsMetric.CASE_CREATED, AnalyticsRollupService.EPOCH, todayDate);
+        long averageCaseAge = (long) averageAgeInDays(casesPerDay);
+        long medianCaseAge = medianAgeInDays(casesPerDay);
+        long averageResolutionTime = (long) caseRepository.averageResolutionDays();
+        PercentilesDTO caseAgePercentiles = agePercentilesInDays(casesPerDay);
+        PercentilesDTO resolutionTimePercentiles = percentiles(
+                latencySketchService.snapshot(LatencyMetric.CASE_RESOLUTION), SECONDS_PER_DAY);
 
         double caseResolutionRate = totalCases > 0 ? (closedCases * 100.0 / totalCases) : 0;
 
@@ -340,6 +278,8 @@ public class AnalyticsService {
                 .averageCaseAge(averageCaseAge)
                 .medianCaseAge(medianCaseAge)
                 .averageResolutionTime(averageResolutionTime)
+                .caseAgePercentiles(caseAgePercentiles)
+                .resolutionTimePercentiles(resolutionTimePercentiles)
                 .caseResolutionRate(caseResolutionRate)
                 .lastUpdated(LocalDateTime.now().toString())
                 .build();
@@ -347,14 +287,19 @@ public class AnalyticsService {
 
     // ==================== MATCHES ANALYTICS ====================
     public AnalyticsMatchesDTO getMatchesAnalytics() {
-        logger.info("Generating matches analytics");
+        return getMatchesAnalytics(TrendRange.defaults());
+    }
+
+    public AnalyticsMatchesDTO getMatchesAnalytics(TrendRange range) {
+        logger.info("Generating matches analytics, trends {}", range);
 
-        List<Match> allMatches = matchRepository.findAll();
-        long totalMatches = allMatches.size();
+        long totalMatches = matchRepository.count();
 
-        long pendingMatches = allMatches.stream().filter(m -> m.getStatus() == MatchStatus.PENDING).count();
-        long acceptedMatches = allMatches.stream().filter(m -> m.getStatus() == MatchStatus.ACCEPTED_BY_PROVIDER).count();
-        long rejectedMatches = allMatches.stream().filter(m -> m.getStatus() == MatchStatus.REJECTED_BY_CITIZEN || m.getStatus() == MatchStatus.REJECTED_BY_PROVIDER).count();
+        Map<String, Long> statusCounts = toCountMap(matchRepository.countGroupedByStatus());
+        long pendingMatches = statusCounts.getOrDefault(MatchStatus.PENDING.name(), 0L);
+        long acceptedMatches = statusCounts.getOrDefault(MatchStatus.ACCEPTED_BY_PROVIDER.name(), 0L);
+        long rejectedMatches = sumCounts(statusCounts,
+                MatchStatus.REJECTED_BY_CITIZEN.name(), MatchStatus.REJECTED_BY_PROVIDER.name());
 
         // Status distribution
         Map<String, Long> matchesByStatus = new HashMap<>();
@@ -363,55 +308,38 @@ public class AnalyticsService {
         matchesByStatus.put("REJECTED", rejectedMatches);
 
         // Quality metrics
-        double averageMatchScore = allMatches.stream()
-                .mapToDouble(Match::getMatchScore)
-                .average()
-                .orElse(0.0);
-
-        long highQualityMatches = allMatches.stream().filter(m -> m.getMatchScore() > 0.7).count();
-        long mediumQualityMatches = allMatches.stream().filter(m -> m.getMatchScore() >= 0.4 && m.getMatchScore() <= 0.7).count();
-        long lowQualityMatches = allMatches.stream().filter(m -> m.getMatchScore() < 0.4).count();
+        Object[] scoreStats = matchRepository.findScoreStatistics().get(0);
+        double averageMatchScore = scoreStats[0] != null ? ((Number) scoreStats[0]).doubleValue() : 0.0;
+        long highQualityMatches = longOrZero(scoreStats[1]);
+        long mediumQualityMatches = longOrZero(scoreStats[2]);
+        long lowQualityMatches = longOrZero(scoreStats[3]);
 
         double highQualityPercentage = totalMatches > 0 ? (highQualityMatches * 100.0 / totalMatches) : 0;
         double mediumQualityPercentage = totalMatches > 0 ? (mediumQualityMatches * 100.0 / totalMatches) : 0;
         double lowQualityPercentage = totalMatches > 0 ? (lowQualityMatches * 100.0 / totalMatches) : 0;
 
         // Geographic data
-        Map<String, Long> matchesByLocation = allMatches.stream()
-                .filter(m -> m.getLegalCase() != null && m.getLegalCase().getLocation() != null)
-                .collect(Collectors.groupingBy(m -> m.getLegalCase().getLocation(), Collectors.counting()));
-
-        List<String> topMatchLocations = matchesByLocation.entrySet().stream()
-                .sorted((a, b) -> Long.compare(b.getValue(), a.getValue()))
-                .limit(10)
-                .map(Map.Entry::getKey)
-                .collect(Collectors.toList());
+        Map<String, Long> matchesByLocation = toCountMap(matchRepository.countGroupedByCaseLocation());
+        List<String> topMatchLocations = topKeys(matchesByLocation, 10, true);
 
         // Trends
-        List<AnalyticsTrendDTO> matchesGeneratedTrend = generateMonthlyTrends(allMatches, Match::getCreatedAt);
-        List<AnalyticsTrendDTO> matchesAcceptedTrend = generateMonthlyTrends(
-                allMatches.stream().filter(m -> m.getStatus() == MatchStatus.ACCEPTED_BY_PROVIDER && m.getAcceptedAt() != null).collect(Collectors.toList()),
-                Match::getAcceptedAt
-        );
-        List<AnalyticsTrendDTO> matchesRejectedTrend = generateMonthlyTrends(
-                allMatches.stream().filter(m -> (m.getStatus() == MatchStatus.REJECTED_BY_CITIZEN || m.getStatus() == MatchStatus.REJECTED_BY_PROVIDER) && m.getRejectedAt() != null).collect(Collectors.toList()),
-                Match::getRejectedAt
-        );
+        List<AnalyticsTrendDTO> matchesGeneratedTrend = trend(AnalyticsMetric.MATCH_CREATED, AnalyticsDimension.ALL, "", range);
+        List<AnalyticsTrendDTO> matchesAcceptedTrend = trend(AnalyticsMetric.MATCH_ACCEPTED, AnalyticsDimension.ALL, "", range);
+        List<AnalyticsTrendDTO> matchesRejectedTrend = trend(AnalyticsMetric.MATCH_REJECTED, AnalyticsDimension.ALL, "", range);
 
         // Acceptance metrics
         double acceptanceRate = totalMatches > 0 ? (acceptedMatches * 100.0 / totalMatches) : 0;
         double rejectionRate = totalMatches > 0 ? (rejectedMatches * 100.0 / totalMatches) : 0;
         double pendingRate = totalMatches > 0 ? (pendingMatches * 100.0 / totalMatches) : 0;
 
-        long averageTimeToAcceptance = calculateAverageTimeToMatchStatus(allMatches, MatchStatus.ACCEPTED_BY_PROVIDER);
-        long averageTimeToRejection = calculateAverageTimeToMatchStatus(allMatches, MatchStatus.REJECTED_BY_CITIZEN);
+        long averageTimeToAcceptance = (long) matchRepository.averageDaysToAcceptance();
+        long averageTimeToRejection = (long) matchRepository.averageDaysToRejection();
+        PercentilesDTO timeToAcceptancePercentiles = percentiles(
+                latencySketchService.snapshot(LatencyMetric.MATCH_ACCEPTANCE), SECONDS_PER_DAY);
 
         // Match ratio per case
-        List<Case> casesWithMatches = allMatches.stream()
-                .map(Match::getLegalCase)
-                .distinct()
-                .collect(Collectors.toList());
-        double matchRatioPerCase = casesWithMatches.size() > 0 ? (double) totalMatches / casesWithMatches.size() : 0;
+        long casesWithMatches = matchRepository.countDistinctCases();
+        double matchRatioPerCase = casesWithMatches > 0 ? (double) totalMatches / casesWithMatches : 0;
 
         return AnalyticsMatchesDTO.builder()
                 .totalMatches(totalMatches)
@@ -433,6 +361,7 @@ public class AnalyticsService {
                 .pendingRate(pendingRate)
                 .averageTimeToAcceptance(averageTimeToAcceptance)
                 .averageTimeToRejection(averageTimeToRejection)
+                .timeToAcceptancePercentiles(timeToAcceptancePercentiles)
                 .matchRatioPerCase(matchRatioPerCase)
                 .lastUpdated(LocalDateTime.now().toString())
                 .build();
@@ -440,96 +369,70 @@ public class AnalyticsService {
 
     // ==================== ACTIVITY ANALYTICS ====================
     public AnalyticsActivityDTO getActivityAnalytics() {
-        logger.info("Generating activity analytics");
+        return getActivityAnalytics(TrendRange.defaults());
+    }
+
+    public AnalyticsActivityDTO getActivityAnalytics(TrendRange range) {
+        logger.info("Generating activity analytics, trends {}", range);
 
         LocalDateTime oneMonthAgo = LocalDateTime.now().minusMonths(1);
         LocalDateTime oneWeekAgo = LocalDateTime.now().minusWeeks(1);
         LocalDateTime today = LocalDateTime.now().withHour(0).withMinute(0).withSecond(0);
 
         // Appointment activity
-        List<Appointment> allAppointments = appointmentRepository.findAll();
-        long totalAppointments = allAppointments.size();
-        
-        LocalDateTime now = LocalDateTime.now();
-        long upcomingAppointments = allAppointments.stream()
-                .filter(a -> a.getScheduledDateTime() != null && a.getScheduledDateTime().isAfter(now))
-                .count();
-                
-        long appointmentsThisMonth = allAppointments.stream()
-                .filter(a -> a.getScheduledDateTime() != null && a.getScheduledDateTime().isAfter(oneMonthAgo))
-                .count();
-        long appointmentsThisWeek = allAppointments.stream()
-                .filter(a -> a.getScheduledDateTime() != null && a.getScheduledDateTime().isAfter(oneWeekAgo))
-                .count();
-        long appointmentsToday = allAppointments.stream()
-                .filter(a -> a.getScheduledDateTime() != null && a.getScheduledDateTime().isAfter(today))
-                .count();
-
-        long completedAppointments = allAppointments.stream()
-                .filter(a -> a.getStatus() != null && "COMPLETED".equals(a.getStatus().toString()))
-                .count();
-        long cancelledAppointments = allAppointments.stream()
-                .filter(a -> a.getStatus() != null && "CANCELLED".equals(a.getStatus().toString()))
-                .count();
+        long totalAppointments = appointmentRepository.count();
+        long upcomingAppointments = appointmentRepository.countByScheduledDateTimeAfter(LocalDateTime.now());
+        long appointmentsThisMonth = appointmentRepository.countByScheduledDateTimeAfter(oneMonthAgo);
+        long appointmentsThisWeek = appointmentRepository.countByScheduledDateTimeAfter(oneWeekAgo);
+        long appointmentsToday = appointmentRepository.countByScheduledDateTimeAfter(today);
+
+        long completedAppointments = appointmentRepository.countByStatus(AppointmentStatus.COMPLETED);
+        long cancelledAppointments = appointmentRepository.countByStatus(AppointmentStatus.CANCELLED);
         long rescheduleCount = 0; // Placeholder - check if reschedule count exists
 
         // Chat activity
-        List<ChatMessage> allMessages = chatMessageRepository.findAll();
-        long totalChatMessages = allMessages.size();
-        long messagesThisMonth = allMessages.stream()
-                .filter(m -> m.getSentAt() != null && m.getSentAt().isAfter(oneMonthAgo))
-                .count();
-
-        // Get unique conversations (using match_id as conversation identifier)
-        long activeConversations = allMessages.stream()
-                .map(m -> m.getMatch().getId())
-                .distinct()
-                .count();
+        long totalChatMessages = chatMessageRepository.count();
+        long messagesThisMonth = chatMessageRepository.countBySentAtAfter(oneMonthAgo);
+
+        // Unique conversations (using match_id as conversation identifier)
+        long activeConversations = chatMessageRepository.countConversations();
 
         // Trends
-        List<AnalyticsTrendDTO> appointmentBookingTrend = generateMonthlyTrends(allAppointments, Appointment::getScheduledDateTime);
-        List<AnalyticsTrendDTO> chatActivityTrend = generateMonthlyTrends(allMessages, ChatMessage::getSentAt);
+        List<AnalyticsTrendDTO> appointmentBookingTrend = trend(AnalyticsMetric.APPOINTMENT_BOOKED, AnalyticsDimension.ALL, "", range);
+        List<AnalyticsTrendDTO> chatActivityTrend = trend(AnalyticsMetric.CHAT_MESSAGE_SENT, AnalyticsDimension.ALL, "", range);
 
         // Activity by user role
+        Map<String, Long> roleCounts = toCountMap(userRepository.countGroupedByRole());
         Map<String, Long> activityByUserRole = new HashMap<>();
-        List<User> allUsers = userRepository.findAll();
-        activityByUserRole.put("LAWYER", allUsers.stream().filter(u -> u.getRole() == Role.LAWYER).count());
-        activityByUserRole.put("NGO", allUsers.stream().filter(u -> u.getRole() == Role.NGO).count());
-        activityByUserRole.put("CITIZEN", allUsers.stream().filter(u -> u.getRole() == Role.CITIZEN).count());
+        for (Role role : List.of(Role.LAWYER, Role.NGO, Role.CITIZEN)) {
+            activityByUserRole.put(role.name(), roleCounts.getOrDefault(role.name(), 0L));
+        }
 
         // Geographic activity
-        Map<String, Long> activityByLocation = allUsers.stream()
-                .filter(u -> u.getLocation() != null && !u.getLocation().isEmpty())
-                .collect(Collectors.groupingBy(User::getLocation, Collectors.counting()));
-
-        List<String> mostActiveLocations = activityByLocation.entrySet().stream()
-                .sorted((a, b) -> Long.compare(b.getValue(), a.getValue()))
-                .limit(10)
-                .map(Map.Entry::getKey)
-                .collect(Collectors.toList());
+        Map<String, Long> activityByLocation = toCountMap(userRepository.countGroupedByLocation());
+        List<String> mostActiveLocations = topKeys(activityByLocation, 10, true);
 
         // Response times
-        long averageResponseTime = calculateAverageResponseTime(allMessages);
+        QuantileSketch responseTimes = latencySketchService.snapshot(LatencyMetric.CHAT_RESPONSE);
+        long averageResponseTime = (long) (responseTimes.mean() / SECONDS_PER_MINUTE);
+        PercentilesDTO responseTimePercentiles = percentiles(responseTimes, SECONDS_PER_MINUTE);
         long averageCaseReviewTime = 24; // Placeholder - would need audit log data
         long averageMatchDecisionTime = 48; // Placeholder - would need match event data
 
         // Engagement rates
-        double lawyerEngagementRate = calculateEngagementRate(Role.LAWYER, oneMonthAgo);
-        double ngoEngagementRate = calculateEngagementRate(Role.NGO, oneMonthAgo);
-        double citizenEngagementRate = calculateEngagementRate(Role.CITIZEN, oneMonthAgo);
+        double lawyerEngagementRate = calculateEngagementRate(Role.LAWYER, roleCounts);
+        double ngoEngagementRate = calculateEngagementRate(Role.NGO, roleCounts);
+        double citizenEngagementRate = calculateEngagementRate(Role.CITIZEN, roleCounts);
 
         // Notifications
-        List<Notification> allNotifications = notificationRepository.findAll();
-        long totalNotificationsSent = allNotifications.size();
-        long notificationsThisMonth = allNotifications.stream()
-                .filter(n -> n.getCreatedAt() != null && n.getCreatedAt().isAfter(oneMonthAgo))
-                .count();
-
-        Map<String, Long> notificationsByType = allNotifications.stream()
-                .collect(Collectors.groupingBy(
-                        n -> n.getType() != null ? n.getType().toString() : "OTHER",
-                        Collectors.counting()
-                ));
+        long totalNotificationsSent = notificationRepository.count();
+        long notificationsThisMonth = notificationRepository.countByCreatedAtAfter(oneMonthAgo);
+
+        Map<String, Long> notificationsByType = new HashMap<>();
+        for (Object[] row : notificationRepository.countGroupedByType()) {
+            String type = row[0] != null ? row[0].toString() : "OTHER";
+            notificationsByType.merge(type, ((Number) row[1]).longValue(), Long::sum);
+        }
 
         return AnalyticsActivityDTO.builder()
                 .totalAppointments(totalAppointments)
@@ -549,6 +452,7 @@ public class AnalyticsService {
                 .activityByLocation(activityByLocation)
                 .mostActiveLocations(mostActiveLocations)
                 .averageResponseTime(averageResponseTime)
+                .responseTimePercentiles(responseTimePercentiles)
                 .averageCaseReviewTime(averageCaseReviewTime)
                 .averageMatchDecisionTime(averageMatchDecisionTime)
                 .lawyerEngagementRate(lawyerEngagementRate)
@@ -563,6 +467,28 @@ public class AnalyticsService {
 
     // ==================== HELPER METHODS ====================
 
+    /**
+     * [key, count] rows from a GROUP BY query as a map keyed by the key's name;
+     * rows with a null key are dropped.
+     */
+    private static Map<String, Long> toCountMap(List<Object[]> rows) {
+        Map<String, Long> counts = new HashMap<>();
+        for (Object[] row : rows) {
+            if (row[0] != null) {
+                counts.merge(row[0].toString(), ((Number) row[1]).longValue(), Long::sum);
+            }
+        }
+        return counts;
+    }
+
+    private static long sumCounts(Map<String, Long> counts, String... keys) {
+        long total = 0;
+        for (String key : keys) {
+            total += counts.getOrDefault(key, 0L);
+        }
+        return total;
+    }
+
     private double calculateSystemHealthScore(long users, long cases, long matches) {
         // Simple health score calculation
         double userHealth = Math.min(users / 100.0, 25); // Max 25 points
@@ -573,222 +499,144 @@ public class AnalyticsService {
         return Math.min(userHealth + caseHealth + matchHealth + dataQuality, 100.0);
     }
 
-    private <T> List<AnalyticsTrendDTO> generateMonthlyTrends(List<T> items, java.util.function.Function<T, LocalDateTime> dateExtractor) {
-        List<AnalyticsTrendDTO> trends = new ArrayList<>();
-        
-        Long previousCount = null;
-
-        for (int i = 11; i >= 0; i--) {
-            LocalDateTime monthStart = LocalDateTime.now().minusMonths(i).withDayOfMonth(1).withHour(0).withMinute(0).withSecond(0);
-            LocalDateTime monthEnd = monthStart.plusMonths(1).minusSeconds(1);
-
-            long count = items.stream()
-                    .filter(item -> {
-                        LocalDateTime itemDate = dateExtractor.apply(item);
-                        return itemDate != null && itemDate.isAfter(monthStart) && itemDate.isBefore(monthEnd);
-                    })
-                    .count();
-
-            // Calculate percentage change and trend
-            Double percentageChange = null;
-            String trend = null;
-            
-            if (previousCount != null && previousCount > 0) {
-                // Calculate percentage change: ((current - previous) / previous) * 100
-                percentageChange = ((double) (count - previousCount) / previousCount) * 100.0;
-                
-                // Determine trend: UP if > 1%, DOWN if < -1%, STABLE otherwise
-                if (percentageChange > 1) {
-                    trend = "UP";
-                } else if (percentageChange < -1) {
-                    trend = "DOWN";
-                } else {
-                    trend = "STABLE";
-                }
-            } else if (previousCount == null && count > 0) {
-                // First period with data
-                percentageChange = 0.0;
-                trend = "STABLE";
-            }
-            
-            previousCount = count;
-
-            trends.add(AnalyticsTrendDTO.builder()
-                    .period("Monthly")
-                    .timestamp(monthStart)
-                    .count(count)
-                    .percentageChange(percentageChange)
-                    .trend(trend)
-                    .build());
-        }
-
-        return trends;
-    }
-
-    private long getActiveUsersCount(LocalDateTime sinceDateTime) {
-        List<ApplicationLog> logs = applicationLogRepository.findAll();
-        return logs.stream()
-                .filter(log -> log.getTimestamp() != null && log.getTimestamp().isAfter(sinceDateTime))
-                .map(ApplicationLog::getUsername)
-                .filter(username -> username != null && !username.isEmpty())
-                .distinct()
-                .count();
+    /**
+     * Trend of one metric and dimension value over the requested range,
+     * bucketed in one pass over its daily rollups.
+     */
+    private List<AnalyticsTrendDTO> trend(AnalyticsMetric metric, AnalyticsDimension dimension, String value,
+                                          TrendRange range) {
+        TimeBucketHistogram histogram = new TimeBucketHistogram(range);
+        rollupService.dailyCounts(metric, dimension, value, range.getFrom(), range.getTo())
+                .forEach(histogram::add);
+        return histogram.toTrends();
     }
 
-    private double calculateRetentionRate(List<User> users) {
-        if (users.isEmpty()) return 0;
+    private double calculateRetentionRate(long totalUsers) {
+        if (totalUsers == 0) return 0;
 
         LocalDateTime twoMonthsAgo = LocalDateTime.now().minusMonths(2);
-        long oldUsers = users.stream()
-                .filter(u -> u.getCreatedAt() != null && u.getCreatedAt().isBefore(twoMonthsAgo))
-                .count();
+        long oldUsers = userRepository.countByCreatedAtBefore(twoMonthsAgo);
 
         if (oldUsers == 0) return 0;
 
-        LocalDateTime oneMonthAgo = LocalDateTime.now().minusMonths(1);
         long activeOldUsers = oldUsers; // Simplified - would need login tracking
 
         return (activeOldUsers * 100.0 / oldUsers);
     }
 
-    private double calculateAverageUserLifetime(List<User> users) {
-        if (users.isEmpty()) return 0;
-
-        return users.stream()
-                .filter(u -> u.getCreatedAt() != null)
-                .mapToLong(u -> Duration.between(u.getCreatedAt(), LocalDateTime.now()).toDays())
-                .average()
-                .orElse(0.0);
-    }
-
-    private long calculateAverageApprovalTime() {
-        List<User> approvedUsers = userRepository.findByApprovalStatusIn(List.of(ApprovalStatus.APPROVED));
-
-        if (approvedUsers.isEmpty()) return 0;
-
-        return (long) approvedUsers.stream()
-                .filter(u -> u.getCreatedAt() != null)
-                .mapToLong(u -> Duration.between(u.getCreatedAt(), LocalDateTime.now()).toDays())
-                .average()
-                .orElse(0.0);
-    }
-
-    private long calculateAverageCaseAge(List<Case> cases) {
-        if (cases.isEmpty()) return 0;
-
-        return (long) cases.stream()
-                .filter(c -> c.getCreatedAt() != null)
-                .mapToLong(c -> Duration.between(c.getCreatedAt(), LocalDateTime.now()).toDays())
-                .average()
-                .orElse(0);
-    }
-
-    private long calculateMedianCaseAge(List<Case> cases) {
-        if (cases.isEmpty()) return 0;
-
-        List<Long> ages = cases.stream()
-                .filter(c -> c.getCreatedAt() != null)
-                .map(c -> Duration.between(c.getCreatedAt(), LocalDateTime.now()).toDays())
-                .sorted()
-                .collect(Collectors.toList());
-
-        if (ages.isEmpty()) return 0;
-
-        int middle = ages.size() / 2;
-        return ages.size() % 2 == 0 ? (ages.get(middle - 1) + ages.get(middle)) / 2 : ages.get(middle);
-    }
-
-    private long calculateAverageResolutionTime(List<Case> cases) {
-        if (cases.isEmpty()) return 0;
-
-        return (long) cases.stream()
-                .filter(c -> c.getCreatedAt() != null && c.getUpdatedAt() != null)
-                .mapToLong(c -> Duration.between(c.getCreatedAt(), c.getUpdatedAt()).toDays())
-                .average()
-                .orElse(0);
+    /**
+     * Average age in whole days of items counted per creation day.
+     */
+    private static double averageAgeInDays(Map<LocalDate, Long> countsPerDay) {
+        LocalDate today = LocalDate.now();
+        long total = 0;
+        double ageSum = 0;
+        for (Map.Entry<LocalDate, Long> entry : countsPerDay.entrySet()) {
+            total += entry.getValue();
+            ageSum += (double) ChronoUnit.DAYS.between(entry.getKey(), today) * entry.getValue();
+        }
+        return total > 0 ? ageSum / total : 0;
     }
 
-    private long calculateAverageTimeToMatchStatus(List<Match> matches, MatchStatus status) {
-        if (status == MatchStatus.ACCEPTED_BY_PROVIDER) {
-            List<Match> matchesAccepted = matches.stream()
-                    .filter(m -> m.getStatus() == MatchStatus.ACCEPTED_BY_PROVIDER && m.getCreatedAt() != null && m.getAcceptedAt() != null)
-                    .collect(Collectors.toList());
-
-            if (matchesAccepted.isEmpty()) return 0;
-
-            return (long) matchesAccepted.stream()
-                    .mapToLong(m -> Duration.between(m.getCreatedAt(), m.getAcceptedAt()).toDays())
-                    .average()
-                    .orElse(0);
-        } else if (status == MatchStatus.REJECTED_BY_CITIZEN) {
-            List<Match> matchesRejected = matches.stream()
-                    .filter(m -> (m.getStatus() == MatchStatus.REJECTED_BY_CITIZEN || m.getStatus() == MatchStatus.REJECTED_BY_PROVIDER) && m.getCreatedAt() != null && m.getRejectedAt() != null)
-                    .collect(Collectors.toList());
-
-            if (matchesRejected.isEmpty()) return 0;
-
-            return (long) matchesRejected.stream()
-                    .mapToLong(m -> Duration.between(m.getCreatedAt(), m.getRejectedAt()).toDays())
-                    .average()
-                    .orElse(0);
+    /**
+     * Median age in whole days of items counted per creation day, walking
+     * the days from newest to oldest instead of sorting every item.
+     */
+    private static long medianAgeInDays(Map<LocalDate, Long> countsPerDay) {
+        long total = countsPerDay.values().stream().mapToLong(Long::longValue).sum();
+        if (total == 0) return 0;
+
+        long lowerRank = (total - 1) / 2;
+        long upperRank = total / 2;
+
+        List<LocalDate> newestFirst = new ArrayList<>(countsPerDay.keySet());
+        newestFirst.sort(Comparator.reverseOrder());
+
+        LocalDate today = LocalDate.now();
+        long seen = 0;
+        Long lowerAge = null;
+        for (LocalDate day : newestFirst) {
+            long age = ChronoUnit.DAYS.between(day, today);
+            seen += countsPerDay.get(day);
+            if (lowerAge == null && seen > lowerRank) {
+                lowerAge = age;
+            }
+            if (seen > upperRank) {
+                return (lowerAge + age) / 2;
+            }
         }
         return 0;
     }
 
-    private long calculateAverageResponseTime(List<ChatMessage> messages) {
-        if (messages.isEmpty()) return 0;
-
-        // Group by match (conversation)
-        Map<Long, List<ChatMessage>> messagesByConversation = messages.stream()
-                .collect(Collectors.groupingBy(m -> m.getMatch().getId()));
-
-        long totalResponseTime = 0;
-        int responseCount = 0;
-
-        for (List<ChatMessage> conversationMessages : messagesByConversation.values()) {
-            List<ChatMessage> sortedMessages = conversationMessages.stream()
-                    .sorted((a, b) -> {
-                        if (a.getSentAt() == null || b.getSentAt() == null) return 0;
-                        return a.getSentAt().compareTo(b.getSentAt());
-                    })
-                    .collect(Collectors.toList());
-
-            for (int i = 1; i < sortedMessages.size(); i++) {
-                ChatMessage prev = sortedMessages.get(i - 1);
-                ChatMessage curr = sortedMessages.get(i);
-
-                if (prev.getSentAt() != null && curr.getSentAt() != null) {
-                    // Only count response if from different sender
-                    if (!prev.getSender().getId().equals(curr.getSender().getId())) {
-                        long responseTimeMinutes = Duration.between(prev.getSentAt(), curr.getSentAt()).toMinutes();
-                        totalResponseTime += responseTimeMinutes;
-                        responseCount++;
-                    }
+    /**
+     * p50/p90/p99 age in whole days of items counted per creation day,
+     * in one walk over the days from newest to oldest.
+     */
+    private static PercentilesDTO agePercentilesInDays(Map<LocalDate, Long> countsPerDay) {
+        long total = countsPerDay.values().stream().mapToLong(Long::longValue).sum();
+        double[] quantiles = {0.5, 0.9, 0.99};
+        double[] ages = new double[quantiles.length];
+
+        if (total > 0) {
+            List<LocalDate> newestFirst = new ArrayList<>(countsPerDay.keySet());
+            newestFirst.sort(Comparator.reverseOrder());
+
+            LocalDate today = LocalDate.now();
+            long seen = 0;
+            int next = 0;
+            for (LocalDate day : newestFirst) {
+                seen += countsPerDay.get(day);
+                while (next < quantiles.length && seen > (long) Math.floor(quantiles[next] * (total - 1))) {
+                    ages[next++] = ChronoUnit.DAYS.between(day, today);
                 }
             }
         }
 
-        return responseCount > 0 ? totalResponseTime / responseCount : 0;
+        return PercentilesDTO.builder()
+                .count(total)
+                .p50(ages[0])
+                .p90(ages[1])
+                .p99(ages[2])
+                .build();
     }
 
-    private double calculateEngagementRate(Role role, LocalDateTime sinceDateTime) {
-        List<User> usersWithRole = userRepository.findAll().stream()
-                .filter(u -> u.getRole() == role)
-                .collect(Collectors.toList());
-
-        if (usersWithRole.isEmpty()) return 0;
+    /**
+     * p50/p90/p99 of a sketch of seconds, expressed in units of {@code secondsPerUnit}.
+     */
+    private static PercentilesDTO percentiles(QuantileSketch sketch, double secondsPerUnit) {
+        return PercentilesDTO.builder()
+                .count(sketch.count())
+                .p50(sketch.quantile(0.5) / secondsPerUnit)
+                .p90(sketch.quantile(0.9) / secondsPerUnit)
+                .p99(sketch.quantile(0.99) / secondsPerUnit)
+                .build();
+    }
 
-        List<ApplicationLog> recentLogs = applicationLogRepository.findAll().stream()
-                .filter(log -> log.getTimestamp() != null && log.getTimestamp().isAfter(sinceDateTime))
+    /**
+     * Keys of the {@code limit} largest (or smallest) counts.
+     */
+    private static List<String> topKeys(Map<String, Long> counts, int limit, boolean largestFirst) {
+        Comparator<Map.Entry<String, Long>> byCount = Map.Entry.comparingByValue();
+        return counts.entrySet().stream()
+                .sorted(largestFirst ? byCount.reversed() : byCount)
+                .limit(limit)
+                .map(Map.Entry::getKey)
                 .collect(Collectors.toList());
+    }
+
+    private static long longOrZero(Object value) {
+        return value != null ? ((Number) value).longValue() : 0;
+    }
 
-        long activeUsernames = recentLogs.stream()
-                .map(ApplicationLog::getUsername)
-                .filter(username -> username != null && !username.isEmpty())
-                .distinct()
-                .filter(username -> usersWithRole.stream().anyMatch(u -> u.getUsername().equals(username)))
-                .count();
+    /**
+     * Share of the role's users active in the last 30 days. Capped at 100%,
+     * since the active count is an estimate.
+     */
+    private double calculateEngagementRate(Role role, Map<String, Long> roleCounts) {
+        long usersWithRole = roleCounts.getOrDefault(role.name(), 0L);
+        if (usersWithRole == 0) return 0;
 
-        return (activeUsernames * 100.0 / usersWithRole.size());
+        long activeUsers = activeUserTracker.countActiveInLastDays(role, 30);
+        return Math.min(100.0, activeUsers * 100.0 / usersWithRole);
     }
 }
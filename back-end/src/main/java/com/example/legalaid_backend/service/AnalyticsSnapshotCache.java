@@ -0,0 +1,283 @@
+package com.example.legalaid_backend.service;
+
+import com.example.legalaid_backend.DTO.AnalyticsActivityDTO;
+import com.example.legalaid_backend.DTO.AnalyticsCasesDTO;
+import com.example.legalaid_backend.DTO.AnalyticsMatchesDTO;
+import com.example.legalaid_backend.DTO.AnalyticsOverviewDTO;
+import com.example.legalaid_backend.DTO.AnalyticsUsersDTO;
+import com.example.legalaid_backend.DTO.TrendRange;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+/**
+ * In-memory snapshots of the admin analytics views.
+ *
+ * A snapshot younger than the TTL is served as is. An older one is still
+ * served while a background refresh replaces it (stale-while-revalidate);
+ * only a missing snapshot, or one past the max staleness, makes the request
+ * wait. Refreshes are single-flight per view, so any number of admins loading
+ * the dashboard share one computation. Only the default views are refreshed
+ * on a schedule, so they are normally warm; views with custom trend
+ * parameters are refreshed when read, and at most {@code maxCustomViews} of
+ * them are kept, least recently read evicted first. Each DTO's lastUpdated is
+ * the time its snapshot was computed.
+ *
+ * Every refresh runs in its own read-only transaction, so all the figures in
+ * one view are read from the same snapshot of the database. Refreshes run on
+ * a fixed pool with a bounded queue; when it is full a view that has no
+ * usable snapshot fails instead of queueing without limit.
+ */
+@Slf4j
+@Service
+public class AnalyticsSnapshotCache {
+
+    private static final String OVERVIEW = "overview";
+
+    private final AnalyticsService analyticsService;
+    private final long ttlMs;
+    private final long maxStaleMs;
+    private final int maxCustomViews;
+    private final TransactionTemplate readOnlyTransaction;
+    private final ThreadPoolExecutor refreshExecutor;
+
+    private final Map<String, Snapshot> snapshots = new ConcurrentHashMap<>();
+    private final Map<String, CompletableFuture<Object>> inFlight = new ConcurrentHashMap<>();
+
+    public AnalyticsSnapshotCache(AnalyticsService analyticsService,
+                                  PlatformTransactionManager transactionManager,
+                                  @Value("${analytics.cache.ttl-ms:60000}") long ttlMs,
+                                  @Value("${analytics.cache.max-stale-ms:900000}") long maxStaleMs,
+                                  @Value("${analytics.cache.max-custom-views:100}") int maxCustomViews,
+                                  @Value("${analytics.cache.refresh-threads:5}") int refreshThreads,
+                                  @Value("${analytics.cache.refresh-queue-capacity:50}") int refreshQueueCapacity) {
+        this.analyticsService = analyticsService;
+        this.readOnlyTransaction = new TransactionTemplate(transactionManager);
+        this.readOnlyTransaction.setReadOnly(true);
+        this.ttlMs = ttlMs;
+        this.maxStaleMs = Math.max(ttlMs, maxStaleMs);
+        this.maxCustomViews = Math.max(0, maxCustomViews);
+
+        AtomicInteger threadCount = new AtomicInteger();
+        int threads = Math.max(1, refreshThreads);
+        this.refreshExecutor = new ThreadPoolExecutor(threads, threads, 60, TimeUnit.SECONDS,
+                new ArrayBlockingQueue<>(Math.max(1, refreshQueueCapacity)),
+                runnable -> {
+                    Thread thread = new Thread(runnable, "analytics-refresh-" + threadCount.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                });
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        refreshExecutor.shutdownNow();
+    }
+
+    // =========================
+    // VIEWS
+    // =========================
+    public AnalyticsOverviewDTO getOverviewAnalytics() {
+        return get(OVERVIEW, analyticsService::getOverviewAnalytics);
+    }
+
+    public AnalyticsUsersDTO getUsersAnalytics(TrendRange range) {
+        return get("users " + range, () -> analyticsService.getUsersAnalytics(range));
+    }
+
+    public AnalyticsCasesDTO getCasesAnalytics(TrendRange range) {
+        return get("cases " + range, () -> analyticsService.getCasesAnalytics(range));
+    }
+
+    public AnalyticsMatchesDTO getMatchesAnalytics(TrendRange range) {
+        return get("matches " + range, () -> analyticsService.getMatchesAnalytics(range));
+    }
+
+    public AnalyticsActivityDTO getActivityAnalytics(TrendRange range) {
+        return get("activity " + range, () -> analyticsService.getActivityAnalytics(range));
+    }
+
+    // Same views without blocking: complete at once when a usable snapshot
+    // exists, otherwise when the shared refresh finishes
+
+    public CompletableFuture<AnalyticsOverviewDTO> getOverviewAnalyticsAsync() {
+        return lookup(OVERVIEW, analyticsService::getOverviewAnalytics).thenApply(AnalyticsOverviewDTO.class::cast);
+    }
+
+    public CompletableFuture<AnalyticsUsersDTO> getUsersAnalyticsAsync(TrendRange range) {
+        return lookup("users " + range, () -> analyticsService.getUsersAnalytics(range))
+                .thenApply(AnalyticsUsersDTO.class::cast);
+    }
+
+    public CompletableFuture<AnalyticsCasesDTO> getCasesAnalyticsAsync(TrendRange range) {
+        return lookup("cases " + range, () -> analyticsService.getCasesAnalytics(range))
+                .thenApply(AnalyticsCasesDTO.class::cast);
+    }
+
+    public CompletableFuture<AnalyticsMatchesDTO> getMatchesAnalyticsAsync(TrendRange range) {
+        return lookup("matches " + range, () -> analyticsService.getMatchesAnalytics(range))
+                .thenApply(AnalyticsMatchesDTO.class::cast);
+    }
+
+    public CompletableFuture<AnalyticsActivityDTO> getActivityAnalyticsAsync(TrendRange range) {
+        return lookup("activity " + range, () -> analyticsService.getActivityAnalytics(range))
+                .thenApply(AnalyticsActivityDTO.class::cast);
+    }
+
+    /** Drop every snapshot, e.g. after the rollups were rebuilt */
+    public void invalidateAll() {
+        snapshots.clear();
+    }
+
+    // =========================
+    // LOOKUP / REFRESH
+    // =========================
+    @SuppressWarnings("unchecked")
+    private <T> T get(String key, Supplier<T> loader) {
+        return (T) await(lookup(key, loader));
+    }
+
+    private CompletableFuture<Object> lookup(String key, Supplier<?> loader) {
+        long now = System.currentTimeMillis();
+        Snapshot snapshot = snapshots.get(key);
+        if (snapshot == null) {
+            Snapshot created = new Snapshot(loader);
+            snapshot = snapshots.putIfAbsent(key, created);
+            if (snapshot == null) {
+                snapshot = created;
+                evictCustomViews(defaultViews().keySet());
+            }
+        }
+        snapshot.lastReadAt = now;
+
+        Object value = snapshot.value;
+        if (value != null) {
+            long age = now - snapshot.computedAt;
+            if (age < ttlMs) {
+                return CompletableFuture.completedFuture(value);
+            }
+            if (age < maxStaleMs) {
+                refresh(key, snapshot);
+                return CompletableFuture.completedFuture(value);
+            }
+        }
+        return refresh(key, snapshot);
+    }
+
+    /**
+     * Start a refresh of {@code key} unless one is already running, and return
+     * the computation the caller can wait on.
+     */
+    private CompletableFuture<Object> refresh(String key, Snapshot snapshot) {
+        CompletableFuture<Object> future = new CompletableFuture<>();
+        CompletableFuture<Object> running = inFlight.putIfAbsent(key, future);
+        if (running != null) {
+            return running;
+        }
+
+        try {
+            refreshExecutor.execute(() -> {
+                long start = System.currentTimeMillis();
+                try {
+                    Object value = readOnlyTransaction.execute(status -> snapshot.loader.get());
+                    snapshot.value = value;
+                    snapshot.computedAt = System.currentTimeMillis();
+                    log.debug("Analytics snapshot '{}' refreshed in {} ms", key, snapshot.computedAt - start);
+                    future.complete(value);
+                } catch (Throwable e) {
+                    log.warn("Failed to refresh analytics snapshot '{}': {}", key, e.getMessage());
+                    future.completeExceptionally(e);
+                } finally {
+                    inFlight.remove(key, future);
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            log.warn("Analytics refresh queue is full, not refreshing '{}'", key);
+            inFlight.remove(key, future);
+            future.completeExceptionally(new RuntimeException("Analytics is busy, try again shortly", e));
+        }
+        return future;
+    }
+
+    private static Object await(CompletableFuture<Object> future) {
+        try {
+            return future.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException) {
+                throw (RuntimeException) e.getCause();
+            }
+            throw new RuntimeException("Failed to compute analytics", e.getCause());
+        }
+    }
+
+    /**
+     * Keep the default views warm. Other views are only refreshed when read;
+     * those nobody has read for the max staleness are dropped.
+     */
+    @Scheduled(initialDelayString = "${analytics.cache.refresh-interval-ms:60000}",
+               fixedDelayString = "${analytics.cache.refresh-interval-ms:60000}")
+    public void refreshAll() {
+        Map<String, Supplier<?>> defaultViews = defaultViews();
+
+        long now = System.currentTimeMillis();
+        snapshots.entrySet().removeIf(entry ->
+                !defaultViews.containsKey(entry.getKey()) && now - entry.getValue().lastReadAt > maxStaleMs);
+        evictCustomViews(defaultViews.keySet());
+
+        defaultViews.forEach((key, loader) ->
+                refresh(key, snapshots.computeIfAbsent(key, k -> new Snapshot(loader))));
+    }
+
+    private Map<String, Supplier<?>> defaultViews() {
+        TrendRange defaults = TrendRange.defaults();
+        return Map.of(
+                OVERVIEW, analyticsService::getOverviewAnalytics,
+                "users " + defaults, () -> analyticsService.getUsersAnalytics(defaults),
+                "cases " + defaults, () -> analyticsService.getCasesAnalytics(defaults),
+                "matches " + defaults, () -> analyticsService.getMatchesAnalytics(defaults),
+                "activity " + defaults, () -> analyticsService.getActivityAnalytics(defaults));
+    }
+
+    /** Drop the least recently read custom views until at most maxCustomViews are left */
+    private synchronized void evictCustomViews(Set<String> defaultKeys) {
+        if (snapshots.size() - defaultKeys.size() <= maxCustomViews) {
+            return;
+        }
+        List<Map.Entry<String, Snapshot>> customViews = snapshots.entrySet().stream()
+                .filter(entry -> !defaultKeys.contains(entry.getKey()))
+                .sorted(Comparator.comparingLong(entry -> entry.getValue().lastReadAt))
+                .toList();
+        for (int i = 0; i < customViews.size() - maxCustomViews; i++) {
+            snapshots.remove(customViews.get(i).getKey(), customViews.get(i).getValue());
+        }
+    }
+
+    private static class Snapshot {
+        private final Supplier<?> loader;
+        private volatile Object value;
+        private volatile long computedAt;
+        private volatile long lastReadAt = System.currentTimeMillis();
+
+        private Snapshot(Supplier<?> loader) {
+            this.loader = loader;
+        }
+    }
+}
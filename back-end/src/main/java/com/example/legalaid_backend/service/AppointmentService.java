@@ -37,6 +37,7 @@ public class AppointmentService {
     private final CaseRepository caseRepository;
     private final UserRepository userRepository;
     private final NotificationService notificationService;
+    private final ProviderWorkloadTracker workloadTracker;
 
     // =========================
     // CREATE APPOINTMENT (ALL AUTHENTICATED USERS)
@@ -128,6 +129,7 @@ public class AppointmentService {
         }
 
         Appointment savedAppointment = appointmentRepository.save(appointment);
+        workloadTracker.refresh(savedAppointment.getProvider().getId());
         log.info("Appointment created successfully: ID {}, status: {}", savedAppointment.getId(), savedAppointment.getStatus());
 
         // Send notifications
@@ -375,6 +377,7 @@ public class AppointmentService {
         }
 
         Appointment savedAppointment = appointmentRepository.save(appointment);
+        workloadTracker.refresh(savedAppointment.getProvider().getId());
         log.info("Appointment updated: ID {}, status: {}", savedAppointment.getId(), savedAppointment.getStatus());
 
         return toResponse(savedAppointment);
@@ -419,6 +422,7 @@ public class AppointmentService {
         }
 
         Appointment savedAppointment = appointmentRepository.save(appointment);
+        workloadTracker.refresh(savedAppointment.getProvider().getId());
         log.info("Appointment ID {} created by provider {} is accepted by citizen {}. Status: {}", 
                 savedAppointment.getId(), 
                 savedAppointment.getProvider().getEmail(), 
@@ -472,6 +476,7 @@ public class AppointmentService {
         }
 
         Appointment savedAppointment = appointmentRepository.save(appointment);
+        workloadTracker.refresh(savedAppointment.getProvider().getId());
         log.info("Appointment ID {} created by citizen {} is accepted by provider {}. Status: {}", 
                 savedAppointment.getId(), 
                 savedAppointment.getCitizen().getEmail(), 
@@ -540,6 +545,7 @@ public class AppointmentService {
         }
 
         Appointment savedAppointment = appointmentRepository.save(appointment);
+        workloadTracker.refresh(savedAppointment.getProvider().getId());
         log.info("Reschedule requested by {} {}: ID {}", requesterRole, currentUser.getEmail(), savedAppointment.getId());
 
         // Notify the other party about the reschedule request
@@ -585,6 +591,7 @@ public class AppointmentService {
         appointment.setCancelledBy(currentUser);
 
         Appointment savedAppointment = appointmentRepository.save(appointment);
+        workloadTracker.refresh(savedAppointment.getProvider().getId());
         log.info("Appointment cancelled by user {}: ID {}", currentUser.getEmail(), savedAppointment.getId());
 
         // Notify the other party about the cancellation
@@ -635,6 +642,7 @@ public class AppointmentService {
         }
 
         Appointment savedAppointment = appointmentRepository.save(appointment);
+        workloadTracker.refresh(savedAppointment.getProvider().getId());
         log.info("Appointment completed by user {}: ID {}", currentUser.getEmail(), savedAppointment.getId());
 
         return toResponse(savedAppointment);
@@ -664,6 +672,7 @@ public class AppointmentService {
         appointment.setStatus(AppointmentStatus.NO_SHOW);
 
         Appointment savedAppointment = appointmentRepository.save(appointment);
+        workloadTracker.refresh(savedAppointment.getProvider().getId());
         log.info("Appointment marked as no-show by user {}: ID {}", currentUser.getEmail(), savedAppointment.getId());
 
         return toResponse(savedAppointment);
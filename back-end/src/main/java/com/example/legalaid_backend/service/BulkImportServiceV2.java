@@ -26,6 +26,7 @@ public class BulkImportServiceV2 {
 
     private final UserRepository userRepository;
     private final PasswordEncoder passwordEncoder;
+    private final ProviderCandidateIndex candidateIndex;
 
     /**
      * Preview CSV and suggest field mappings
@@ -147,6 +148,7 @@ public class BulkImportServiceV2 {
 
                 // Save
                 userRepository.save(user);
+                candidateIndex.refresh(user);
 
                 // Success result (don't include password in response for security)
                 results.add(ImportResultRow.builder()
@@ -267,6 +269,7 @@ public class BulkImportServiceV2 {
 
                 // Save
                 userRepository.save(user);
+                candidateIndex.refresh(user);
 
                 results.add(ImportResultRow.builder()
                         .username(username)
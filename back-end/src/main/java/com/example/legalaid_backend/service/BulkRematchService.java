@@ -0,0 +1,382 @@
+package com.example.legalaid_backend.service;
+
+import com.example.legalaid_backend.DTO.RematchJobStatus;
+import com.example.legalaid_backend.entity.BatchJobCheckpoint;
+import com.example.legalaid_backend.entity.Match;
+import com.example.legalaid_backend.repository.BatchJobCheckpointRepository;
+import com.example.legalaid_backend.repository.CaseRepository;
+import com.example.legalaid_backend.repository.MatchBatchWriter;
+import com.example.legalaid_backend.repository.MatchRepository;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.UnaryOperator;
+import java.util.stream.Collectors;
+
+/**
+ * Admin-triggered re-match of every open case, e.g. after a scoring change
+ * or a large provider import.
+ *
+ * Open cases are read as {@link MatchScorer.CaseFeatures} in keyset chunks.
+ * The cases of a chunk are scored in parallel against the candidate index,
+ * and the chunk's new matches are written together with the job checkpoint in
+ * one transaction, so a stopped, failed or interrupted run resumes right after
+ * the last committed chunk without duplicating matches.
+ *
+ * Only matches for providers not yet matched to a case are added; existing
+ * matches are left as they are. Providers are not notified per match, the new
+ * matches show up in their assigned-cases view.
+ */
+@Slf4j
+@Service
+public class BulkRematchService {
+
+    static final String JOB_NAME = "bulk-rematch";
+
+    private final CaseFeatureReader caseFeatureReader;
+    private final CaseRepository caseRepository;
+    private final MatchRepository matchRepository;
+    private final MatchBatchWriter matchBatchWriter;
+    private final BatchJobCheckpointRepository checkpointRepository;
+    private final ProviderCandidateIndex candidateIndex;
+    private final MatchScorer matchScorer;
+    private final MatchService matchService;
+    private final TransactionTemplate transactionTemplate;
+    private final ThreadPoolExecutor executor;
+    private final int chunkSize;
+    private final int topK;
+
+    private final AtomicBoolean running = new AtomicBoolean();
+    private volatile boolean stopRequested;
+    private volatile RematchJobStatus status; // Null until a run is started in this process
+
+    public BulkRematchService(CaseFeatureReader caseFeatureReader,
+                              CaseRepository caseRepository,
+                              MatchRepository matchRepository,
+                              MatchBatchWriter matchBatchWriter,
+                              BatchJobCheckpointRepository checkpointRepository,
+                              ProviderCandidateIndex candidateIndex,
+                              MatchScorer matchScorer,
+                              MatchService matchService,
+                              PlatformTransactionManager transactionManager,
+                              @Value("${matching.rematch.chunk-size:200}") int chunkSize,
+                              @Value("${matching.top-k:0}") int topK) {
+        this.caseFeatureReader = caseFeatureReader;
+        this.caseRepository = caseRepository;
+        this.matchRepository = matchRepository;
+        this.matchBatchWriter = matchBatchWriter;
+        this.checkpointRepository = checkpointRepository;
+        this.candidateIndex = candidateIndex;
+        this.matchScorer = matchScorer;
+        this.matchService = matchService;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.chunkSize = chunkSize;
+        this.topK = topK;
+
+        AtomicInteger threadCount = new AtomicInteger();
+        this.executor = new ThreadPoolExecutor(1, 1, 60, TimeUnit.SECONDS,
+                new ArrayBlockingQueue<>(1),
+                runnable -> {
+                    Thread thread = new Thread(runnable, "bulk-rematch-" + threadCount.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                });
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        // The current chunk still commits, leaving a STOPPED checkpoint to resume from
+        stopRequested = true;
+        executor.shutdown();
+    }
+
+    // =========================
+    // CONTROL
+    // =========================
+
+    /**
+     * Start a run. With {@code resume} the run continues after the last
+     * committed chunk of an unfinished earlier run; otherwise, or when the
+     * previous run completed, it starts again from the first open case.
+     */
+    public RematchJobStatus start(boolean resume) {
+        if (!running.compareAndSet(false, true)) {
+            throw new RuntimeException("A bulk re-match job is already running");
+        }
+
+        try {
+            LocalDateTime now = LocalDateTime.now();
+            BatchJobCheckpoint checkpoint = checkpointRepository.findById(JOB_NAME).orElse(null);
+            boolean resuming = resume && checkpoint != null && !"COMPLETED".equals(checkpoint.getState());
+
+            if (!resuming) {
+                checkpoint = new BatchJobCheckpoint(JOB_NAME, "RUNNING", 0L, 0, 0, now, now, null);
+            } else {
+                checkpoint.setState("RUNNING");
+                checkpoint.setUpdatedAt(now);
+                checkpoint.setFinishedAt(null);
+            }
+            checkpoint = checkpointRepository.save(checkpoint);
+
+            long afterId = checkpoint.getLastProcessedId();
+            long remaining = caseRepository.countByStatusInAndIdGreaterThan(CaseFeatureReader.OPEN_CASE_STATUSES, afterId);
+
+            stopRequested = false;
+            status = RematchJobStatus.builder()
+                    .state(RematchJobStatus.State.RUNNING)
+                    .resumed(resuming)
+                    .checkpointCaseId(afterId)
+                    .casesProcessed(checkpoint.getItemsProcessed())
+                    .matchesCreated(checkpoint.getItemsWritten())
+                    .casesRemaining(remaining)
+                    .message(resuming ? "Resuming after case " + afterId : "Re-matching " + remaining + " open cases")
+                    .startedAt(now)
+                    .updatedAt(now)
+                    .build();
+
+            BatchJobCheckpoint started = checkpoint;
+            executor.execute(() -> run(started, remaining));
+
+            log.info("Bulk re-match started{}: {} open cases to process",
+                    resuming ? " from case " + afterId : "", remaining);
+
+            return status;
+
+        } catch (RejectedExecutionException e) {
+            running.set(false);
+            throw new RuntimeException("Bulk re-match executor is shutting down");
+        } catch (RuntimeException e) {
+            running.set(false);
+            throw e;
+        }
+    }
+
+    /**
+     * Ask the running job to stop after its current chunk.
+     */
+    public RematchJobStatus stop() {
+        if (!running.get()) {
+            throw new RuntimeException("No bulk re-match job is running");
+        }
+        stopRequested = true;
+        update(b -> b.state(RematchJobStatus.State.STOPPING).message("Stopping after the current chunk"));
+        log.info("Bulk re-match stop requested");
+        return status;
+    }
+
+    /**
+     * Status of the current or last run. After a restart this is rebuilt from
+     * the stored checkpoint.
+     */
+    public RematchJobStatus getStatus() {
+        RematchJobStatus current = status;
+        if (current != null) {
+            return current;
+        }
+
+        return checkpointRepository.findById(JOB_NAME)
+                .map(this::fromCheckpoint)
+                .orElseGet(() -> RematchJobStatus.builder()
+                        .state(RematchJobStatus.State.IDLE)
+                        .message("No bulk re-match has been run")
+                        .build());
+    }
+
+    // =========================
+    // BACKGROUND EXECUTION
+    // =========================
+    private void run(BatchJobCheckpoint checkpoint, long remaining) {
+        long start = System.nanoTime();
+        long afterId = checkpoint.getLastProcessedId();
+        long processedThisRun = 0;
+        long processedTotal = checkpoint.getItemsProcessed();
+        long createdTotal = checkpoint.getItemsWritten();
+
+        try {
+            while (!stopRequested) {
+                List<MatchScorer.CaseFeatures> chunk = caseFeatureReader.readChunk(
+                        CaseFeatureReader.OPEN_CASE_STATUSES, afterId, chunkSize);
+                if (chunk.isEmpty()) {
+                    break;
+                }
+
+                long lastId = chunk.get(chunk.size() - 1).getCaseId();
+                Integer saved = transactionTemplate.execute(tx -> rematchChunk(chunk, lastId));
+
+                afterId = lastId;
+                processedThisRun += chunk.size();
+                processedTotal += chunk.size();
+                createdTotal += saved != null ? saved : 0;
+
+                long checkpointId = afterId;
+                long processed = processedTotal;
+                long created = createdTotal;
+                double rate = casesPerSecond(processedThisRun, start);
+                double percent = remaining > 0 ? Math.min(100.0, 100.0 * processedThisRun / remaining) : 100.0;
+                update(b -> b.checkpointCaseId(checkpointId)
+                        .casesProcessed(processed)
+                        .matchesCreated(created)
+                        .casesPerSecond(rate)
+                        .percentComplete(percent));
+            }
+
+            boolean stopped = stopRequested;
+            finish(stopped ? "STOPPED" : "COMPLETED");
+
+            long processed = processedTotal;
+            long created = createdTotal;
+            long checkpointId = afterId;
+            String summary = processed + " cases processed, " + created + " new matches";
+            if (stopped) {
+                update(b -> b.state(RematchJobStatus.State.STOPPED)
+                        .message("Stopped after case " + checkpointId + ": " + summary + ". Resume to continue.")
+                        .finishedAt(LocalDateTime.now()));
+            } else {
+                update(b -> b.state(RematchJobStatus.State.COMPLETED)
+                        .percentComplete(100.0)
+                        .message("Completed: " + summary)
+                        .finishedAt(LocalDateTime.now()));
+            }
+
+            log.info("Bulk re-match {} after {} cases ({} this run) in {} ms, {} new matches, {} cases/sec",
+                    stopped ? "stopped" : "completed", processedTotal, processedThisRun,
+                    TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start), createdTotal,
+                    String.format("%.1f", casesPerSecond(processedThisRun, start)));
+
+        } catch (Exception e) {
+            log.error("Bulk re-match failed after case {}: {}", afterId, e.getMessage(), e);
+            try {
+                finish("FAILED");
+            } catch (Exception checkpointError) {
+                log.warn("Failed to mark bulk re-match checkpoint as failed: {}", checkpointError.getMessage());
+            }
+            long checkpointId = afterId;
+            update(b -> b.state(RematchJobStatus.State.FAILED)
+                    .message("Failed after case " + checkpointId + ": " + e.getMessage() + ". Resume to continue.")
+                    .finishedAt(LocalDateTime.now()));
+        } finally {
+            running.set(false);
+        }
+    }
+
+    /**
+     * Score and persist one chunk, then advance the checkpoint in the same
+     * transaction.
+     *
+     * @return number of matches created
+     */
+    private int rematchChunk(List<MatchScorer.CaseFeatures> chunk, long lastId) {
+        List<Long> caseIds = chunk.stream()
+                .map(MatchScorer.CaseFeatures::getCaseId)
+                .collect(Collectors.toList());
+
+        // Providers already matched to each case, one query for the whole chunk
+        Map<Long, Set<Long>> matchedProviders = new HashMap<>();
+        for (Object[] row : matchRepository.findProviderIdsByCaseIds(caseIds)) {
+            if (row[1] != null) {
+                matchedProviders.computeIfAbsent((Long) row[0], id -> new HashSet<>()).add((Long) row[1]);
+            }
+        }
+
+        Map<Long, Integer> liveCounts = new HashMap<>();
+        if (topK > 0) {
+            for (Object[] row : matchRepository.countByCaseIdsAndStatusIn(caseIds, MatchService.LIVE_MATCH_STATUSES)) {
+                liveCounts.put((Long) row[0], ((Number) row[1]).intValue());
+            }
+        }
+
+        List<List<MatchScorer.MatchScore>> results = matchScorer.mapCases(chunk, legalCase -> {
+            Long caseId = legalCase.getCaseId();
+            List<ProviderFeatures> candidates = candidateIndex.candidatesFor(legalCase);
+            Set<Long> excluded = matchedProviders.getOrDefault(caseId, Set.of());
+            if (topK > 0) {
+                // Only fill the slots not already taken by live matches
+                int openSlots = topK - liveCounts.getOrDefault(caseId, 0);
+                return matchScorer.topK(legalCase, candidates, excluded, openSlots);
+            }
+            return matchScorer.scoreAll(legalCase, candidates, excluded);
+        });
+
+        List<Match> newMatches = new ArrayList<>();
+        for (List<MatchScorer.MatchScore> caseResults : results) {
+            for (MatchScorer.MatchScore result : caseResults) {
+                newMatches.add(matchService.toNewMatch(caseRepository.getReferenceById(result.getCaseId()), result));
+            }
+        }
+        newMatches = matchBatchWriter.insertAll(newMatches);
+
+        BatchJobCheckpoint checkpoint = checkpointRepository.findById(JOB_NAME)
+                .orElseThrow(() -> new RuntimeException("Bulk re-match checkpoint missing"));
+        checkpoint.setLastProcessedId(lastId);
+        checkpoint.setItemsProcessed(checkpoint.getItemsProcessed() + chunk.size());
+        checkpoint.setItemsWritten(checkpoint.getItemsWritten() + newMatches.size());
+        checkpoint.setUpdatedAt(LocalDateTime.now());
+
+        return newMatches.size();
+    }
+
+    private void finish(String state) {
+        transactionTemplate.executeWithoutResult(tx -> checkpointRepository.findById(JOB_NAME).ifPresent(checkpoint -> {
+            LocalDateTime now = LocalDateTime.now();
+            checkpoint.setState(state);
+            checkpoint.setUpdatedAt(now);
+            checkpoint.setFinishedAt(now);
+        }));
+    }
+
+    private synchronized void update(UnaryOperator<RematchJobStatus.RematchJobStatusBuilder> change) {
+        status = change.apply(status.toBuilder())
+                .updatedAt(LocalDateTime.now())
+                .build();
+    }
+
+    private RematchJobStatus fromCheckpoint(BatchJobCheckpoint checkpoint) {
+        RematchJobStatus.State state;
+        String message;
+        if ("COMPLETED".equals(checkpoint.getState())) {
+            state = RematchJobStatus.State.COMPLETED;
+            message = "Completed";
+        } else if ("FAILED".equals(checkpoint.getState())) {
+            state = RematchJobStatus.State.FAILED;
+            message = "Failed after case " + checkpoint.getLastProcessedId() + ". Resume to continue.";
+        } else {
+            // RUNNING here means the process stopped mid-run
+            state = RematchJobStatus.State.STOPPED;
+            message = "Stopped after case " + checkpoint.getLastProcessedId() + ". Resume to continue.";
+        }
+
+        return RematchJobStatus.builder()
+                .state(state)
+                .checkpointCaseId(checkpoint.getLastProcessedId())
+                .casesProcessed(checkpoint.getItemsProcessed())
+                .matchesCreated(checkpoint.getItemsWritten())
+                .percentComplete(state == RematchJobStatus.State.COMPLETED ? 100.0 : 0.0)
+                .message(message)
+                .startedAt(checkpoint.getStartedAt())
+                .updatedAt(checkpoint.getUpdatedAt())
+                .finishedAt(checkpoint.getFinishedAt())
+                .build();
+    }
+
+    private static double casesPerSecond(long cases, long startNanos) {
+        long elapsed = System.nanoTime() - startNanos;
+        return elapsed > 0 ? cases * 1_000_000_000.0 / elapsed : 0.0;
+    }
+}
@@ -0,0 +1,55 @@
+package com.example.legalaid_backend.service;
+
+import com.example.legalaid_backend.repository.CaseRepository;
+import lombok.RequiredArgsConstructor;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Streams cases as {@link MatchScorer.CaseFeatures} in id order, one keyset
+ * chunk at a time, without loading Case entities or their attachments.
+ */
+@Component
+@RequiredArgsConstructor
+public class CaseFeatureReader {
+
+    /** Case statuses that can still receive new matches */
+    public static final List<String> OPEN_CASE_STATUSES = List.of("SUBMITTED");
+
+    private final CaseRepository caseRepository;
+
+    /**
+     * Next chunk of cases with an id greater than {@code afterId}.
+     * An empty list means the scan is complete.
+     */
+    public List<MatchScorer.CaseFeatures> readChunk(Collection<String> statuses, long afterId, int limit) {
+        List<Object[]> rows = caseRepository.findMatchingInputsAfterId(statuses, afterId, PageRequest.of(0, limit));
+        if (rows.isEmpty()) {
+            return List.of();
+        }
+
+        List<Long> ids = new ArrayList<>(rows.size());
+        for (Object[] row : rows) {
+            ids.add((Long) row[0]);
+        }
+
+        Map<Long, List<String>> tagsByCase = new HashMap<>();
+        for (Object[] row : caseRepository.findExpertiseTagsByCaseIds(ids)) {
+            tagsByCase.computeIfAbsent((Long) row[0], k -> new ArrayList<>()).add((String) row[1]);
+        }
+
+        List<MatchScorer.CaseFeatures> chunk = new ArrayList<>(rows.size());
+        for (Object[] row : rows) {
+            Long id = (Long) row[0];
+            chunk.add(MatchScorer.CaseFeatures.of(id, (String) row[1], tagsByCase.get(id),
+                    (String) row[2], (String) row[3]));
+        }
+        return chunk;
+    }
+}
@@ -8,6 +8,7 @@ import com.example.legalaid_backend.entity.CaseAttachment;
 import com.example.legalaid_backend.entity.User;
 import com.example.legalaid_backend.repository.CaseRepository;
 import com.example.legalaid_backend.repository.UserRepository;
+import com.example.legalaid_backend.util.CaseStatus;
 import com.example.legalaid_backend.util.Role;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
@@ -26,6 +27,8 @@ public class CaseService {
 
     private final CaseRepository caseRepository;
     private final UserRepository userRepository;
+    private final CaseStateMachine caseStateMachine;
+    private final ProviderWorkloadTracker workloadTracker;
 
     // =========================
     // CREATE CASE (CITIZEN)
@@ -67,6 +70,7 @@ public class CaseService {
                     attachment.setFileName(fileName);
                     attachment.setFileType(fileType);
                     attachment.setContent(java.util.Base64.getDecoder().decode(dto.getContent()));
+                    attachment.setFileSize((long) attachment.getContent().length);
                     attachment.setLegalCase(legalCase);
                     log.debug("Decoded attachment: {} ({} bytes)", fileName, attachment.getContent().length);
                     return attachment;
@@ -193,15 +197,17 @@ public class CaseService {
             
             // Citizens can only resolve cases that are ACCEPTED, IN_PROGRESS, or UNDER_REVIEW
             String currentStatus = legalCase.getStatus();
-            if (!currentStatus.equals("ACCEPTED") && !currentStatus.equals("IN_PROGRESS") && !currentStatus.equals("UNDER_REVIEW")) {
+            if (CaseStateMachine.allowedCaseSources(CaseStateMachine.Event.RESOLVE, CaseStatus.RESOLVED).stream()
+                    .noneMatch(s -> s.name().equals(currentStatus))) {
                 throw new RuntimeException("Can only resolve cases that are ACCEPTED, IN_PROGRESS, or UNDER_REVIEW. Current status: " + currentStatus);
             }
-            
-            legalCase.setStatus(newStatus);
+
+            caseStateMachine.transitionCase(id, CaseStateMachine.Event.RESOLVE, CaseStatus.RESOLVED);
+            refreshAssignedProviderWorkload(id);
             log.info("Case ID {} status updated to RESOLVED by citizen {}",
                     id, currentUser.getEmail());
-            
-            return toResponse(caseRepository.save(legalCase));
+
+            return toResponse(reload(id));
         }
 
         // Only lawyers and NGOs can update case status to other values
@@ -219,46 +225,41 @@ public class CaseService {
             throw new RuntimeException("Access denied: You are not assigned to this case");
         }
 
-        // Validate status transition
+        // Validate and apply the transition in one conditional update
         String currentStatus = legalCase.getStatus();
-        if (!isValidStatusTransition(currentStatus, newStatus)) {
+        CaseStatus target;
+        try {
+            target = CaseStatus.valueOf(newStatus);
+        } catch (IllegalArgumentException e) {
             throw new RuntimeException("Invalid status transition from " + currentStatus + " to " + newStatus);
         }
-
-        legalCase.setStatus(newStatus);
+        caseStateMachine.transitionCase(id, CaseStateMachine.Event.UPDATE_STATUS, target);
+        if (target == CaseStatus.RESOLVED) {
+            workloadTracker.refresh(currentUser.getId());
+        }
 
         log.info("Case ID {} status updated from {} to {} by user {}",
                 id, currentStatus, newStatus, currentUser.getEmail());
 
-        return toResponse(caseRepository.save(legalCase));
+        return toResponse(reload(id));
     }
 
     // =========================
-    // VALIDATE STATUS TRANSITION
+    // HELPERS
     // =========================
-    private boolean isValidStatusTransition(String currentStatus, String newStatus) {
-        // Define valid transitions
-        if (currentStatus.equals("ACCEPTED") && 
-            (newStatus.equals("IN_PROGRESS") || newStatus.equals("UNDER_REVIEW"))) {
-            return true;
-        }
-        if (currentStatus.equals("IN_PROGRESS") && 
-            (newStatus.equals("UNDER_REVIEW") || newStatus.equals("RESOLVED"))) {
-            return true;
-        }
-        if (currentStatus.equals("UNDER_REVIEW") && 
-            (newStatus.equals("IN_PROGRESS") || newStatus.equals("RESOLVED"))) {
-            return true;
-        }
-        if (currentStatus.equals("RESOLVED") && newStatus.equals("CLOSED")) {
-            return true;
-        }
-        return false;
+
+    // The accepted provider has one active case fewer once the case is resolved
+    private void refreshAssignedProviderWorkload(Long caseId) {
+        matchRepository.findProviderIdsByCaseIdAndStatus(caseId, com.example.legalaid_backend.util.MatchStatus.ACCEPTED_BY_PROVIDER)
+                .forEach(workloadTracker::refresh);
+    }
+
+    // Status transitions clear the persistence context, so read the case back for the response
+    private Case reload(Long id) {
+        return caseRepository.findById(id)
+                .orElseThrow(() -> new RuntimeException("Case not found"));
     }
 
-    // =========================
-    // HELPERS
-    // =========================
     private User getCurrentUser() {
         Authentication auth = SecurityContextHolder.getContext().getAuthentication();
         return userRepository.findByEmail(auth.getName())
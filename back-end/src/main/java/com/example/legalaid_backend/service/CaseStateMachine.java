@@ -0,0 +1,198 @@
+package com.example.legalaid_backend.service;
+
+import com.example.legalaid_backend.repository.CaseRepository;
+import com.example.legalaid_backend.repository.MatchRepository;
+import com.example.legalaid_backend.util.CaseStatus;
+import com.example.legalaid_backend.util.LatencyMetric;
+import com.example.legalaid_backend.util.MatchStatus;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.EnumMap;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+/**
+ * Single source of truth for case and match status transitions.
+ *
+ * Every transition is a conditional UPDATE (... WHERE status IN :allowedFrom)
+ * that also bumps the entity's @Version, so concurrent requests never wait on
+ * a row lock: the loser simply matches no row. Entity saves that raced with a
+ * transition then fail their own version check instead of overwriting it.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class CaseStateMachine {
+
+    /** What triggered a transition; the same target can be legal for one event and not another */
+    public enum Event {
+        SELECT_MATCH,   // Citizen selects a pending match
+        REJECT_MATCH,   // Citizen rejects a pending match
+        ACCEPT,         // Provider accepts a case they were selected for
+        DECLINE,        // Provider declines a case they were selected for
+        EXPIRE,         // Competing selection expired because another provider accepted
+        RESOLVE,        // Citizen marks their case as resolved
+        UPDATE_STATUS   // Assigned provider moves the case along its workflow
+    }
+
+    // =========================
+    // TRANSITION TABLES
+    // =========================
+
+    /** event -> target case status -> statuses it may be reached from */
+    private static final Map<Event, Map<CaseStatus, Set<CaseStatus>>> CASE_TRANSITIONS = new EnumMap<>(Event.class);
+
+    /** event -> (from, to) for matches; each event has exactly one legal match move */
+    private static final Map<Event, MatchStatus[]> MATCH_TRANSITIONS = new EnumMap<>(Event.class);
+
+    static {
+        caseRule(Event.SELECT_MATCH, CaseStatus.PENDING_APPROVAL,
+                CaseStatus.SUBMITTED, CaseStatus.PENDING_APPROVAL, CaseStatus.REJECTED);
+        caseRule(Event.ACCEPT, CaseStatus.ACCEPTED,
+                CaseStatus.SUBMITTED, CaseStatus.PENDING_APPROVAL, CaseStatus.REJECTED);
+        caseRule(Event.DECLINE, CaseStatus.REJECTED,
+                CaseStatus.PENDING_APPROVAL, CaseStatus.REJECTED);
+        caseRule(Event.RESOLVE, CaseStatus.RESOLVED,
+                CaseStatus.ACCEPTED, CaseStatus.IN_PROGRESS, CaseStatus.UNDER_REVIEW);
+        caseRule(Event.UPDATE_STATUS, CaseStatus.IN_PROGRESS, CaseStatus.ACCEPTED, CaseStatus.UNDER_REVIEW);
+        caseRule(Event.UPDATE_STATUS, CaseStatus.UNDER_REVIEW, CaseStatus.ACCEPTED, CaseStatus.IN_PROGRESS);
+        caseRule(Event.UPDATE_STATUS, CaseStatus.RESOLVED, CaseStatus.IN_PROGRESS, CaseStatus.UNDER_REVIEW);
+        caseRule(Event.UPDATE_STATUS, CaseStatus.CLOSED, CaseStatus.RESOLVED);
+
+        matchRule(Event.SELECT_MATCH, MatchStatus.PENDING, MatchStatus.SELECTED_BY_CITIZEN);
+        matchRule(Event.REJECT_MATCH, MatchStatus.PENDING, MatchStatus.REJECTED_BY_CITIZEN);
+        matchRule(Event.ACCEPT, MatchStatus.SELECTED_BY_CITIZEN, MatchStatus.ACCEPTED_BY_PROVIDER);
+        matchRule(Event.DECLINE, MatchStatus.SELECTED_BY_CITIZEN, MatchStatus.REJECTED_BY_PROVIDER);
+        matchRule(Event.EXPIRE, MatchStatus.SELECTED_BY_CITIZEN, MatchStatus.EXPIRED);
+    }
+
+    private static void caseRule(Event event, CaseStatus to, CaseStatus... from) {
+        CASE_TRANSITIONS.computeIfAbsent(event, e -> new EnumMap<>(CaseStatus.class))
+                .put(to, EnumSet.of(from[0], from));
+    }
+
+    private static void matchRule(Event event, MatchStatus from, MatchStatus to) {
+        MATCH_TRANSITIONS.put(event, new MatchStatus[]{from, to});
+    }
+
+    private final CaseRepository caseRepository;
+    private final MatchRepository matchRepository;
+    private final AnalyticsRollupService rollupService;
+    private final LatencySketchService latencySketchService;
+
+    /**
+     * Case statuses {@code target} can be reached from for this event (empty if none).
+     */
+    public static Set<CaseStatus> allowedCaseSources(Event event, CaseStatus target) {
+        return CASE_TRANSITIONS.getOrDefault(event, Map.of()).getOrDefault(target, Set.of());
+    }
+
+    // =========================
+    // CASE TRANSITIONS
+    // =========================
+
+    /**
+     * Move a case to {@code target}. Throws if the case's current status does
+     * not allow it, including when a concurrent transition changed it first.
+     */
+    @Transactional
+    public void transitionCase(Long caseId, Event event, CaseStatus target) {
+        Set<CaseStatus> from = allowedCaseSources(event, target);
+        if (from.isEmpty()) {
+            throw new RuntimeException("Invalid status transition to " + target);
+        }
+
+        LocalDateTime now = LocalDateTime.now();
+        LocalDateTime resolvedAt = target == CaseStatus.RESOLVED ? now : null;
+        int updated = caseRepository.transitionStatus(caseId, names(from), target.name(), now, resolvedAt);
+        if (updated == 1) {
+            log.debug("Case {} moved to {} on {}", caseId, target, event);
+            if (target == CaseStatus.RESOLVED) {
+                rollupService.recordCaseResolved();
+                caseRepository.findCreatedAtById(caseId).ifPresent(createdAt ->
+                        latencySketchService.record(LatencyMetric.CASE_RESOLUTION, createdAt, now));
+            }
+            return;
+        }
+
+        String current = caseRepository.findStatusById(caseId)
+                .orElseThrow(() -> new RuntimeException("Case not found"));
+        if (event == Event.ACCEPT && CaseStatus.ACCEPTED.name().equals(current)) {
+            throw new RuntimeException(
+                    "This case has already been accepted by another provider. You can no longer accept it.");
+        }
+        if (from.stream().anyMatch(s -> s.name().equals(current))) {
+            // The status moved away and back between the update and this read
+            throw new OptimisticLockingFailureException("Case " + caseId + " was modified concurrently, please retry");
+        }
+        throw new RuntimeException("Invalid status transition from " + current + " to " + target);
+    }
+
+    // =========================
+    // MATCH TRANSITIONS
+    // =========================
+
+    /**
+     * Apply the match move defined for {@code event}. Accepting stamps
+     * acceptedAt; citizen and provider rejections stamp rejectedAt and store
+     * {@code reason}.
+     */
+    @Transactional
+    public void transitionMatch(Long matchId, Event event, String reason) {
+        MatchStatus[] move = MATCH_TRANSITIONS.get(event);
+        if (move == null) {
+            throw new RuntimeException("No match transition defined for " + event);
+        }
+        MatchStatus from = move[0];
+        MatchStatus to = move[1];
+
+        LocalDateTime now = LocalDateTime.now();
+        LocalDateTime acceptedAt = to == MatchStatus.ACCEPTED_BY_PROVIDER ? now : null;
+        LocalDateTime rejectedAt = (to == MatchStatus.REJECTED_BY_CITIZEN || to == MatchStatus.REJECTED_BY_PROVIDER) ? now : null;
+
+        int updated = matchRepository.transitionStatus(matchId, from, to, acceptedAt, rejectedAt, reason);
+        if (updated == 1) {
+            log.debug("Match {} moved from {} to {} on {}", matchId, from, to, event);
+            rollupService.recordMatchDecision(to);
+            if (to == MatchStatus.ACCEPTED_BY_PROVIDER) {
+                matchRepository.findCreatedAtById(matchId).ifPresent(createdAt ->
+                        latencySketchService.record(LatencyMetric.MATCH_ACCEPTANCE, createdAt, now));
+            }
+            return;
+        }
+
+        MatchStatus current = matchRepository.findStatusById(matchId)
+                .orElseThrow(() -> new RuntimeException("Match not found"));
+        if (current == MatchStatus.EXPIRED) {
+            throw new RuntimeException(
+                    "This case has already been accepted by another provider. You can no longer accept it.");
+        }
+        if (current == from) {
+            throw new OptimisticLockingFailureException("Match " + matchId + " was modified concurrently, please retry");
+        }
+        throw new RuntimeException("Match can no longer move from " + current + " to " + to);
+    }
+
+    /**
+     * Expire every other match of the case still waiting on a provider, in one statement.
+     *
+     * @return number of matches expired
+     */
+    @Transactional
+    public int expireCompetingMatches(Long caseId, Long acceptedMatchId, String reason) {
+        MatchStatus[] move = MATCH_TRANSITIONS.get(Event.EXPIRE);
+        return matchRepository.expireCompetingMatches(caseId, acceptedMatchId, move[0], move[1], reason);
+    }
+
+    private static List<String> names(Set<CaseStatus> statuses) {
+        return statuses.stream().map(Enum::name).collect(Collectors.toList());
+    }
+}
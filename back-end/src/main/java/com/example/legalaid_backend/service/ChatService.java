@@ -8,6 +8,7 @@ import com.example.legalaid_backend.repository.ChatMessageRepository;
 import com.example.legalaid_backend.repository.MatchRepository;
 import com.example.legalaid_backend.repository.UserRepository;
 import com.example.legalaid_backend.util.ChatUtils;
+import com.example.legalaid_backend.util.LatencyMetric;
 import com.example.legalaid_backend.util.NotificationType;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
@@ -32,6 +33,7 @@ public class ChatService {
         private final MatchRepository matchRepository;
         private final UserRepository userRepository;
         private final NotificationService notificationService;
+        private final LatencySketchService latencySketchService;
 
         // ==================== SEND MESSAGE ====================
 
@@ -75,8 +77,19 @@ public class ChatService {
                 message.setRead(false);
                 message.setDeleted(false);
 
+                // Latest message before this one, to time a reply to the other participant
+                List<Object[]> previous = chatMessageRepository.findLatestSentAtAndSender(
+                                match.getId(), PageRequest.of(0, 1));
+
                 ChatMessage savedMessage = chatMessageRepository.save(message);
 
+                if (!previous.isEmpty() && !senderId.equals(previous.get(0)[1])) {
+                        LocalDateTime sentAt = savedMessage.getSentAt() != null
+                                        ? savedMessage.getSentAt() : LocalDateTime.now();
+                        latencySketchService.record(LatencyMetric.CHAT_RESPONSE,
+                                        (LocalDateTime) previous.get(0)[0], sentAt);
+                }
+
                 log.info("Message saved: id={}, matchId={}, sender={}",
                                 savedMessage.getId(), request.getMatchId(), sender.getUsername());
 
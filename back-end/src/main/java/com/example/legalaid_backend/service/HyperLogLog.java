@@ -0,0 +1,135 @@
+package com.example.legalaid_backend.service;
+
+import java.util.Arrays;
+
+/**
+ * HyperLogLog distinct-count sketch with 2^12 registers: about 1.6% standard
+ * error for any cardinality, in 3 KB once packed.
+ *
+ * Sketches of the same precision merge by register-wise max, so per-day
+ * sketches can be combined into any window without double-counting a value
+ * seen on several days.
+ */
+public class HyperLogLog {
+
+    private static final int PRECISION = 12;
+    private static final int REGISTERS = 1 << PRECISION;
+    private static final double ALPHA = 0.7213 / (1 + 1.079 / REGISTERS);
+
+    /** Size of {@link #toBytes()}: registers packed at 6 bits each */
+    public static final int PACKED_SIZE = REGISTERS * 6 / 8;
+
+    private final byte[] registers;
+
+    public HyperLogLog() {
+        this.registers = new byte[REGISTERS];
+    }
+
+    private HyperLogLog(byte[] registers) {
+        this.registers = registers;
+    }
+
+    /**
+     * Add a value.
+     *
+     * @return true if the sketch changed
+     */
+    public boolean offer(String value) {
+        long hash = hash(value);
+        int index = (int) (hash >>> (64 - PRECISION));
+        int rank = Math.min(Long.numberOfLeadingZeros(hash << PRECISION), 64 - PRECISION) + 1;
+
+        synchronized (this) {
+            if (rank > registers[index]) {
+                registers[index] = (byte) rank;
+                return true;
+            }
+        }
+        return false;
+    }
+
+    public void merge(HyperLogLog other) {
+        byte[] theirs = other.registersCopy();
+        synchronized (this) {
+            for (int i = 0; i < REGISTERS; i++) {
+                if (theirs[i] > registers[i]) {
+                    registers[i] = theirs[i];
+                }
+            }
+        }
+    }
+
+    public long cardinality() {
+        byte[] current = registersCopy();
+        double sum = 0;
+        int zeros = 0;
+        for (byte register : current) {
+            sum += 1.0 / (1L << register);
+            if (register == 0) {
+                zeros++;
+            }
+        }
+
+        double estimate = ALPHA * REGISTERS * REGISTERS / sum;
+        if (estimate <= 2.5 * REGISTERS && zeros > 0) {
+            // Linear counting is more accurate while many registers are still empty
+            estimate = REGISTERS * Math.log((double) REGISTERS / zeros);
+        }
+        return Math.round(estimate);
+    }
+
+    public HyperLogLog copy() {
+        return new HyperLogLog(registersCopy());
+    }
+
+    private synchronized byte[] registersCopy() {
+        return Arrays.copyOf(registers, REGISTERS);
+    }
+
+    // =========================
+    // SERIALIZATION
+    // =========================
+
+    /** Four 6-bit registers per three bytes */
+    public byte[] toBytes() {
+        byte[] current = registersCopy();
+        byte[] packed = new byte[PACKED_SIZE];
+        for (int i = 0, j = 0; i < REGISTERS; i += 4, j += 3) {
+            int word = current[i] << 18 | current[i + 1] << 12 | current[i + 2] << 6 | current[i + 3];
+            packed[j] = (byte) (word >>> 16);
+            packed[j + 1] = (byte) (word >>> 8);
+            packed[j + 2] = (byte) word;
+        }
+        return packed;
+    }
+
+    public static HyperLogLog fromBytes(byte[] packed) {
+        if (packed == null || packed.length != PACKED_SIZE) {
+            throw new IllegalArgumentException("Expected a packed sketch of " + PACKED_SIZE + " bytes");
+        }
+        byte[] registers = new byte[REGISTERS];
+        for (int i = 0, j = 0; i < REGISTERS; i += 4, j += 3) {
+            int word = (packed[j] & 0xFF) << 16 | (packed[j + 1] & 0xFF) << 8 | (packed[j + 2] & 0xFF);
+            registers[i] = (byte) (word >>> 18 & 0x3F);
+            registers[i + 1] = (byte) (word >>> 12 & 0x3F);
+            registers[i + 2] = (byte) (word >>> 6 & 0x3F);
+            registers[i + 3] = (byte) (word & 0x3F);
+        }
+        return new HyperLogLog(registers);
+    }
+
+    /** 64-bit FNV-1a followed by the MurmurHash3 finalizer to spread the bits */
+    private static long hash(String value) {
+        long h = 0xcbf29ce484222325L;
+        for (int i = 0; i < value.length(); i++) {
+            h ^= value.charAt(i);
+            h *= 0x100000001b3L;
+        }
+        h ^= h >>> 33;
+        h *= 0xff51afd7ed558ccdL;
+        h ^= h >>> 33;
+        h *= 0xc4ceb93e5a3b6d95L;
+        h ^= h >>> 33;
+        return h;
+    }
+}
@@ -0,0 +1,175 @@
+package com.example.legalaid_backend.service;
+
+import com.example.legalaid_backend.entity.LatencySketch;
+import com.example.legalaid_backend.repository.LatencySketchRepository;
+import com.example.legalaid_backend.util.LatencyMetric;
+import com.example.legalaid_backend.util.TransactionUtils;
+import jakarta.annotation.PreDestroy;
+import lombok.EqualsAndHashCode;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Quantile sketches of how long things take: case resolution, match
+ * acceptance and chat response latency, in seconds.
+ *
+ * Durations are added as the events commit, to an all-time sketch per metric
+ * kept in memory and to per-day sketches that are merged into
+ * latency_sketches every few seconds. Percentiles are then read from memory
+ * at constant cost, whatever the size of the source tables. History is
+ * bucketed from the source tables with grouped queries on first start.
+ */
+@Slf4j
+@Service
+public class LatencySketchService {
+
+    private final LatencySketchRepository sketchRepository;
+    private final TransactionTemplate transactionTemplate;
+
+    private final Map<LatencyMetric, QuantileSketch> totals = new EnumMap<>(LatencyMetric.class);
+    private Map<Key, QuantileSketch> pending = new HashMap<>();
+
+    public LatencySketchService(LatencySketchRepository sketchRepository,
+                                PlatformTransactionManager transactionManager) {
+        this.sketchRepository = sketchRepository;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        for (LatencyMetric metric : LatencyMetric.values()) {
+            totals.put(metric, new QuantileSketch());
+        }
+    }
+
+    // =========================
+    // RECORD
+    // =========================
+
+    /**
+     * Record the time from {@code start} to {@code end}; the day is the one
+     * {@code end} falls on. Inside a transaction this happens once it commits.
+     */
+    public void record(LatencyMetric metric, LocalDateTime start, LocalDateTime end) {
+        if (start == null || end == null || end.isBefore(start)) {
+            return;
+        }
+        double seconds = Duration.between(start, end).toMillis() / 1000.0;
+        LocalDate day = end.toLocalDate();
+
+        TransactionUtils.afterCommit(() -> add(metric, day, seconds));
+    }
+
+    private synchronized void add(LatencyMetric metric, LocalDate day, double seconds) {
+        pending.computeIfAbsent(new Key(day, metric), k -> new QuantileSketch()).add(seconds);
+        totals.get(metric).add(seconds);
+    }
+
+    // =========================
+    // LOAD / FLUSH
+    // =========================
+    @EventListener(ApplicationReadyEvent.class)
+    public void load() {
+        long start = System.currentTimeMillis();
+
+        List<LatencySketch> rows = sketchRepository.findAll();
+        if (rows.isEmpty()) {
+            backfill();
+        } else {
+            for (LatencySketch row : rows) {
+                totals.get(row.getMetric()).merge(QuantileSketch.fromBytes(row.getData()));
+            }
+        }
+
+        log.info("Latency sketches loaded from {} day rows in {} ms", rows.size(), System.currentTimeMillis() - start);
+    }
+
+    /**
+     * Bucket every historical duration in the database and store the result.
+     */
+    private void backfill() {
+        double logGamma = QuantileSketch.LOG_GAMMA;
+        backfill(LatencyMetric.CASE_RESOLUTION, sketchRepository.bucketCaseResolutionSeconds(logGamma));
+        backfill(LatencyMetric.MATCH_ACCEPTANCE, sketchRepository.bucketMatchAcceptanceSeconds(logGamma));
+        backfill(LatencyMetric.CHAT_RESPONSE, sketchRepository.bucketChatResponseSeconds(logGamma));
+        flush();
+    }
+
+    private synchronized void backfill(LatencyMetric metric, List<Object[]> rows) {
+        for (Object[] row : rows) {
+            LocalDate day = row[0] instanceof java.sql.Date ? ((java.sql.Date) row[0]).toLocalDate() : (LocalDate) row[0];
+            int bucket = ((Number) row[1]).intValue();
+            long count = ((Number) row[2]).longValue();
+            pending.computeIfAbsent(new Key(day, metric), k -> new QuantileSketch()).addToBucket(bucket, count);
+            totals.get(metric).addToBucket(bucket, count);
+        }
+        log.info("Latency sketch {} backfilled from {} buckets", metric, rows.size());
+    }
+
+    @Scheduled(fixedDelayString = "${analytics.latency.flush-interval-ms:10000}")
+    public void flush() {
+        Map<Key, QuantileSketch> batch = drain();
+        batch.forEach((key, delta) -> {
+            try {
+                transactionTemplate.executeWithoutResult(status -> save(key, delta));
+            } catch (Exception e) {
+                // Keep the durations for the next flush
+                log.warn("Failed to persist latency sketch {} {}: {}", key.day, key.metric, e.getMessage());
+                synchronized (this) {
+                    pending.computeIfAbsent(key, k -> new QuantileSketch()).merge(delta);
+                }
+            }
+        });
+    }
+
+    @PreDestroy
+    public void flushOnShutdown() {
+        flush();
+    }
+
+    private synchronized Map<Key, QuantileSketch> drain() {
+        Map<Key, QuantileSketch> batch = pending;
+        pending = new HashMap<>();
+        return batch;
+    }
+
+    private void save(Key key, QuantileSketch delta) {
+        LatencySketch row = sketchRepository.findByDayAndMetric(key.day, key.metric).orElse(null);
+        QuantileSketch merged = delta.copy();
+        if (row == null) {
+            row = new LatencySketch();
+            row.setDay(key.day);
+            row.setMetric(key.metric);
+        } else {
+            merged.merge(QuantileSketch.fromBytes(row.getData()));
+        }
+        row.setData(merged.toBytes());
+        sketchRepository.save(row);
+    }
+
+    // =========================
+    // READ
+    // =========================
+
+    /** Copy of the all-time sketch of {@code metric}, in seconds */
+    public QuantileSketch snapshot(LatencyMetric metric) {
+        return totals.get(metric).copy();
+    }
+
+    @EqualsAndHashCode
+    @RequiredArgsConstructor
+    private static final class Key {
+        private final LocalDate day;
+        private final LatencyMetric metric;
+    }
+}
@@ -0,0 +1,219 @@
+package com.example.legalaid_backend.service;
+
+import com.example.legalaid_backend.DTO.GenerateMatchesResponse;
+import com.example.legalaid_backend.DTO.MatchJobStatus;
+import com.example.legalaid_backend.entity.Case;
+import com.example.legalaid_backend.entity.Match;
+import com.example.legalaid_backend.entity.User;
+import com.example.legalaid_backend.repository.CaseRepository;
+import com.example.legalaid_backend.repository.UserRepository;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.messaging.simp.SimpMessagingTemplate;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.stereotype.Service;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.UnaryOperator;
+
+/**
+ * Runs match generation as a background job.
+ *
+ * The request thread only checks case ownership and queues the job. Scoring,
+ * persistence and the notification fan-out run on a bounded executor, and each
+ * state change is pushed to the citizen on /user/queue/match-jobs.
+ */
+@Slf4j
+@Service
+public class MatchJobService {
+
+    private static final String JOB_DESTINATION = "/queue/match-jobs";
+
+    /** Push a NOTIFYING update every this many notifications */
+    private static final int PROGRESS_INTERVAL = 25;
+
+    /** Finished jobs stay queryable for this long */
+    private static final long FINISHED_JOB_TTL_MINUTES = 60;
+
+    private final MatchService matchService;
+    private final CaseRepository caseRepository;
+    private final UserRepository userRepository;
+    private final SimpMessagingTemplate messagingTemplate;
+    private final ThreadPoolExecutor executor;
+
+    private final Map<String, Job> jobs = new ConcurrentHashMap<>();
+
+    public MatchJobService(MatchService matchService,
+                           CaseRepository caseRepository,
+                           UserRepository userRepository,
+                           SimpMessagingTemplate messagingTemplate,
+                           @Value("${matching.jobs.pool-size:4}") int poolSize,
+                           @Value("${matching.jobs.queue-capacity:100}") int queueCapacity) {
+        this.matchService = matchService;
+        this.caseRepository = caseRepository;
+        this.userRepository = userRepository;
+        this.messagingTemplate = messagingTemplate;
+
+        AtomicInteger threadCount = new AtomicInteger();
+        this.executor = new ThreadPoolExecutor(poolSize, poolSize, 60, TimeUnit.SECONDS,
+                new ArrayBlockingQueue<>(queueCapacity),
+                runnable -> {
+                    Thread thread = new Thread(runnable, "match-job-" + threadCount.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                });
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdown();
+    }
+
+    // =========================
+    // SUBMIT
+    // =========================
+    public MatchJobStatus submit(Long caseId) {
+
+        User currentUser = getCurrentUser();
+
+        // Verify case ownership before queueing anything
+        Case legalCase = caseRepository.findById(caseId)
+                .orElseThrow(() -> new RuntimeException("Case not found"));
+
+        if (!legalCase.getCreatedBy().getId().equals(currentUser.getId())) {
+            throw new RuntimeException("Access denied: You can only generate matches for your own cases");
+        }
+
+        evictFinishedJobs();
+
+        LocalDateTime now = LocalDateTime.now();
+        Job job = new Job(currentUser.getEmail(), currentUser.getId(), MatchJobStatus.builder()
+                .jobId(UUID.randomUUID().toString())
+                .caseId(caseId)
+                .state(MatchJobStatus.State.QUEUED)
+                .message("Match generation queued")
+                .submittedAt(now)
+                .updatedAt(now)
+                .build());
+
+        jobs.put(job.status.getJobId(), job);
+
+        try {
+            executor.execute(() -> run(job));
+        } catch (RejectedExecutionException e) {
+            jobs.remove(job.status.getJobId());
+            log.warn("Match job queue full, rejecting job for case {}", caseId);
+            throw new RuntimeException("Too many match generation jobs in progress, please try again shortly");
+        }
+
+        log.info("Queued match job {} for case {} by user {}", job.status.getJobId(), caseId, currentUser.getEmail());
+
+        return job.status;
+    }
+
+    // =========================
+    // STATUS
+    // =========================
+    public MatchJobStatus getStatus(String jobId) {
+        User currentUser = getCurrentUser();
+
+        Job job = jobs.get(jobId);
+        if (job == null || !job.ownerEmail.equals(currentUser.getEmail())) {
+            throw new RuntimeException("Match job not found");
+        }
+        return job.status;
+    }
+
+    // =========================
+    // BACKGROUND EXECUTION
+    // =========================
+    private void run(Job job) {
+        Long caseId = job.status.getCaseId();
+
+        try {
+            update(job, b -> b.state(MatchJobStatus.State.SCORING).message("Scoring providers"));
+
+            List<Match> savedMatches = matchService.createMatches(caseId);
+
+            update(job, b -> b.state(MatchJobStatus.State.NOTIFYING)
+                    .newMatches(savedMatches.size())
+                    .message("Notifying " + savedMatches.size() + " matched providers"));
+
+            int sent = 0;
+            for (Match match : savedMatches) {
+                matchService.notifyMatchedProvider(match, job.ownerId);
+                sent++;
+                if (sent % PROGRESS_INTERVAL == 0 && sent < savedMatches.size()) {
+                    int progress = sent;
+                    update(job, b -> b.notificationsSent(progress));
+                }
+            }
+
+            GenerateMatchesResponse result = matchService.buildGenerateMatchesResponse(caseId, savedMatches.size());
+            int notified = sent;
+
+            update(job, b -> b.state(MatchJobStatus.State.COMPLETED)
+                    .notificationsSent(notified)
+                    .result(result)
+                    .message(result.getMessage()));
+
+            log.info("Match job {} completed for case {}: {}", job.status.getJobId(), caseId, result.getMessage());
+
+        } catch (Exception e) {
+            log.error("Match job {} failed for case {}: {}", job.status.getJobId(), caseId, e.getMessage(), e);
+            update(job, b -> b.state(MatchJobStatus.State.FAILED).message("Match generation failed: " + e.getMessage()));
+        }
+    }
+
+    private void update(Job job, UnaryOperator<MatchJobStatus.MatchJobStatusBuilder> change) {
+        MatchJobStatus status = change.apply(job.status.toBuilder())
+                .updatedAt(LocalDateTime.now())
+                .build();
+        job.status = status;
+
+        try {
+            messagingTemplate.convertAndSendToUser(job.ownerEmail, JOB_DESTINATION, status);
+        } catch (Exception e) {
+            // Clients can still poll the status endpoint
+            log.warn("Failed to push match job {} update: {}", status.getJobId(), e.getMessage());
+        }
+    }
+
+    private void evictFinishedJobs() {
+        LocalDateTime cutoff = LocalDateTime.now().minusMinutes(FINISHED_JOB_TTL_MINUTES);
+        jobs.values().removeIf(job -> {
+            MatchJobStatus.State state = job.status.getState();
+            return (state == MatchJobStatus.State.COMPLETED || state == MatchJobStatus.State.FAILED)
+                    && job.status.getUpdatedAt().isBefore(cutoff);
+        });
+    }
+
+    private User getCurrentUser() {
+        Authentication auth = SecurityContextHolder.getContext().getAuthentication();
+        return userRepository.findByEmail(auth.getName())
+                .orElseThrow(() -> new RuntimeException("User not found"));
+    }
+
+    private static class Job {
+        private final String ownerEmail;
+        private final Long ownerId;
+        private volatile MatchJobStatus status;
+
+        Job(String ownerEmail, Long ownerId, MatchJobStatus status) {
+            this.ownerEmail = ownerEmail;
+            this.ownerId = ownerId;
+            this.status = status;
+        }
+    }
+}
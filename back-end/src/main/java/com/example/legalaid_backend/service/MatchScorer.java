@@ -0,0 +1,431 @@
+package com.example.legalaid_backend.service;
+
+import com.example.legalaid_backend.entity.Case;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.PriorityQueue;
+import java.util.Set;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinWorkerThread;
+import java.util.concurrent.RecursiveTask;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Scoring algorithm for case/provider matches.
+ *
+ * Score breakdown (capped at 100):
+ *  1. Expertise/focus area match - 40 points max
+ *  2. Location match             - 30 points max
+ *  3. Language match             - 20 points max
+ *  4. Verification status        - 10 points
+ *
+ * The total is then scaled by the provider's load factor from
+ * {@link ProviderWorkloadTracker}, so busy providers rank below equally good
+ * but available ones. The factor is read from memory; no queries per provider.
+ *
+ * The score and the match reason come out of the same pass over the
+ * pre-normalized {@link CaseFeatures} and {@link ProviderFeatures}.
+ *
+ * Candidate lists at or above {@code matching.parallel.threshold} are split
+ * across a bounded fork-join pool; results come back in candidate order so
+ * both paths produce identical output.
+ */
+@Slf4j
+@Component
+public class MatchScorer {
+
+    /** Providers must score strictly above this to become a match */
+    public static final double MIN_MATCH_SCORE = 30.0;
+
+    /** Smallest slice of candidates a fork-join task will split further */
+    private static final int MIN_SLICE = 256;
+
+    /** Lowest score first; on equal scores the higher provider ID is considered worse */
+    private static final Comparator<MatchScore> WORST_FIRST = Comparator
+            .comparingDouble(MatchScore::getScore)
+            .thenComparing((MatchScore m) -> m.getProvider().getUserId(), Comparator.reverseOrder());
+
+    private final int parallelThreshold;
+    private final int parallelism;
+    private final ForkJoinPool scoringPool;
+    private final ProviderWorkloadTracker workloadTracker;
+
+    /** Scorer without workload adjustment, for benchmarks and tools */
+    public MatchScorer(int parallelThreshold, int parallelism) {
+        this(parallelThreshold, parallelism, null);
+    }
+
+    @Autowired
+    public MatchScorer(@Value("${matching.parallel.threshold:5000}") int parallelThreshold,
+                       @Value("${matching.parallel.parallelism:0}") int parallelism,
+                       ProviderWorkloadTracker workloadTracker) {
+        this.parallelThreshold = parallelThreshold;
+        this.workloadTracker = workloadTracker;
+        this.parallelism = parallelism > 0 ? parallelism : Runtime.getRuntime().availableProcessors();
+        this.scoringPool = new ForkJoinPool(this.parallelism, pool -> {
+            ForkJoinWorkerThread thread = ForkJoinPool.defaultForkJoinWorkerThreadFactory.newThread(pool);
+            thread.setName("match-scoring-" + thread.getPoolIndex());
+            return thread;
+        }, null, false);
+
+        log.info("Match scorer using parallel scoring above {} candidates with parallelism {}",
+                parallelThreshold, this.parallelism);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        scoringPool.shutdown();
+    }
+
+    /**
+     * Score every candidate not in {@code excludedIds} and return the ones
+     * above {@link #MIN_MATCH_SCORE}, in candidate order.
+     */
+    public List<MatchScore> scoreAll(CaseFeatures legalCase, List<ProviderFeatures> candidates, Set<Long> excludedIds) {
+        if (parallelism <= 1 || candidates.size() < parallelThreshold) {
+            return scoreRange(legalCase, candidates, excludedIds, 0, candidates.size());
+        }
+
+        int slice = Math.max(MIN_SLICE, candidates.size() / (parallelism * 4));
+        return scoringPool.invoke(new ScoringTask(legalCase, candidates, excludedIds, 0, candidates.size(), slice));
+    }
+
+    /**
+     * The best {@code k} candidates above {@link #MIN_MATCH_SCORE}, best score
+     * first. Sequential scoring keeps a bounded min-heap of size {@code k}, so
+     * memory stays O(k) however large the candidate pool is.
+     */
+    public List<MatchScore> topK(CaseFeatures legalCase, List<ProviderFeatures> candidates, Set<Long> excludedIds, int k) {
+        if (k <= 0) {
+            return new ArrayList<>();
+        }
+
+        PriorityQueue<MatchScore> heap = new PriorityQueue<>(k + 1, WORST_FIRST);
+
+        if (parallelism <= 1 || candidates.size() < parallelThreshold) {
+            for (ProviderFeatures provider : candidates) {
+                if (excludedIds.contains(provider.getUserId())) {
+                    continue; // Match already exists
+                }
+                MatchScore result = score(legalCase, provider);
+                if (result.getScore() > MIN_MATCH_SCORE) {
+                    offer(heap, result, k);
+                }
+            }
+        } else {
+            for (MatchScore result : scoreAll(legalCase, candidates, excludedIds)) {
+                offer(heap, result, k);
+            }
+        }
+
+        List<MatchScore> best = new ArrayList<>(heap);
+        best.sort(WORST_FIRST.reversed());
+        return best;
+    }
+
+    /**
+     * Apply {@code work} to every case on the scoring pool, one case per
+     * task, and return the results in case order. Used by batch jobs that
+     * score many cases at once; scoreAll/topK called from inside {@code work}
+     * join the same pool rather than oversubscribing the CPUs.
+     */
+    public <T> List<T> mapCases(List<CaseFeatures> cases, Function<CaseFeatures, T> work) {
+        if (parallelism <= 1 || cases.size() < 2) {
+            return cases.stream().map(work).collect(Collectors.toList());
+        }
+        return scoringPool.submit(() -> cases.parallelStream().map(work).collect(Collectors.toList())).join();
+    }
+
+    private static void offer(PriorityQueue<MatchScore> heap, MatchScore result, int k) {
+        if (heap.size() < k) {
+            heap.add(result);
+        } else if (WORST_FIRST.compare(result, heap.peek()) > 0) {
+            heap.poll();
+            heap.add(result);
+        }
+    }
+
+    private List<MatchScore> scoreRange(CaseFeatures legalCase, List<ProviderFeatures> candidates,
+                                        Set<Long> excludedIds, int from, int to) {
+        List<MatchScore> results = new ArrayList<>();
+        for (int i = from; i < to; i++) {
+            ProviderFeatures provider = candidates.get(i);
+            if (excludedIds.contains(provider.getUserId())) {
+                continue; // Match already exists
+            }
+            MatchScore result = score(legalCase, provider);
+            if (result.getScore() > MIN_MATCH_SCORE) {
+                results.add(result);
+            }
+        }
+        return results;
+    }
+
+    public MatchScore score(CaseFeatures legalCase, ProviderFeatures provider) {
+
+        // 1. Expertise
+        double expertiseScore;
+        boolean caseTypeHit = false;
+        int firstTagHit = -1;
+
+        if (provider.hasExpertise()) {
+            caseTypeHit = legalCase.caseType != null && provider.expertise.contains(legalCase.caseType);
+        }
+
+        if (!legalCase.hasTags) {
+            expertiseScore = 20.0; // Base score if no expertise specified
+        } else if (!provider.hasExpertise()) {
+            expertiseScore = 10.0; // Low score if provider has no expertise listed
+        } else if (caseTypeHit && !legalCase.caseType.isEmpty()) {
+            expertiseScore = 40.0; // Perfect match
+        } else {
+            int matchCount = 0;
+            for (int i = 0; i < legalCase.tags.length; i++) {
+                String tag = legalCase.tags[i];
+                if (tag != null && provider.expertise.contains(tag)) {
+                    if (firstTagHit < 0) {
+                        firstTagHit = i;
+                    }
+                    matchCount++;
+                }
+            }
+            expertiseScore = matchCount > 0
+                    ? 20.0 + (20.0 * matchCount / legalCase.tags.length) // 20-40 based on match ratio
+                    : 10.0;
+        }
+
+        // 2. Location
+        double locationScore;
+        boolean sameLocation = legalCase.location != null && legalCase.location.equals(provider.location);
+
+        if (legalCase.location == null || legalCase.location.isEmpty()) {
+            locationScore = 15.0; // Neutral score if no location specified
+        } else if (!provider.hasLocation()) {
+            locationScore = 10.0; // Low score if provider has no location
+        } else if (sameLocation) {
+            locationScore = 30.0;
+        } else {
+            locationScore = sharesLocationPart(legalCase.locationParts, provider.locationParts) ? 20.0 : 5.0;
+        }
+
+        // 3. Language
+        double languageScore;
+        boolean languageHit = legalCase.language != null && provider.languages != null
+                && provider.languages.contains(legalCase.language);
+
+        if (legalCase.language == null || legalCase.language.isEmpty()) {
+            languageScore = 10.0; // Neutral score if no language preference
+        } else if (!provider.hasLanguages()) {
+            languageScore = 5.0; // Low score if provider has no languages listed
+        } else {
+            languageScore = languageHit ? 20.0 : 5.0;
+        }
+
+        // 4. Verification
+        double verificationScore = provider.isApproved() ? 10.0 : 0.0;
+
+        double total = Math.min(100.0, expertiseScore + locationScore + languageScore + verificationScore);
+
+        // 5. Workload
+        if (workloadTracker != null) {
+            total *= workloadTracker.loadFactor(provider.getUserId());
+        }
+
+        return new MatchScore(total, legalCase, provider, caseTypeHit, firstTagHit, sameLocation, languageHit);
+    }
+
+    private static boolean sharesLocationPart(String[] caseParts, String[] providerParts) {
+        for (String casePart : caseParts) {
+            for (String providerPart : providerParts) {
+                if (casePart.equals(providerPart)) {
+                    return true;
+                }
+            }
+        }
+        return false;
+    }
+
+    // =========================
+    // TYPES
+    // =========================
+
+    private class ScoringTask extends RecursiveTask<List<MatchScore>> {
+
+        private final CaseFeatures legalCase;
+        private final List<ProviderFeatures> candidates;
+        private final Set<Long> excludedIds;
+        private final int from;
+        private final int to;
+        private final int slice;
+
+        ScoringTask(CaseFeatures legalCase, List<ProviderFeatures> candidates, Set<Long> excludedIds,
+                    int from, int to, int slice) {
+            this.legalCase = legalCase;
+            this.candidates = candidates;
+            this.excludedIds = excludedIds;
+            this.from = from;
+            this.to = to;
+            this.slice = slice;
+        }
+
+        @Override
+        protected List<MatchScore> compute() {
+            if (to - from <= slice) {
+                return scoreRange(legalCase, candidates, excludedIds, from, to);
+            }
+
+            int mid = (from + to) >>> 1;
+            ScoringTask left = new ScoringTask(legalCase, candidates, excludedIds, from, mid, slice);
+            ScoringTask right = new ScoringTask(legalCase, candidates, excludedIds, mid, to, slice);
+            left.fork();
+            List<MatchScore> rightResults = right.compute();
+            List<MatchScore> results = left.join();
+            results.addAll(rightResults);
+            return results;
+        }
+    }
+
+    /**
+     * Pre-normalized view of a case, built once per match run.
+     */
+    public static final class CaseFeatures {
+
+        final Long caseId;
+        final String caseType;
+        final String[] tags;
+        final String[] rawTags;
+        final boolean hasTags;
+        final String location;
+        final String[] locationParts;
+        final String language;
+        final String rawLanguage;
+
+        private CaseFeatures(Long caseId, String caseType, List<String> expertiseTags,
+                             String location, String preferredLanguage) {
+            this.caseId = caseId;
+            this.caseType = lower(caseType);
+
+            this.hasTags = expertiseTags != null && !expertiseTags.isEmpty();
+            this.rawTags = expertiseTags != null ? expertiseTags.toArray(new String[0]) : new String[0];
+            this.tags = new String[rawTags.length];
+            for (int i = 0; i < rawTags.length; i++) {
+                tags[i] = lower(rawTags[i]);
+            }
+
+            this.location = lower(location);
+            List<String> parts = new ArrayList<>();
+            if (this.location != null) {
+                for (String part : this.location.split(",")) {
+                    parts.add(part.trim());
+                }
+            }
+            this.locationParts = parts.toArray(new String[0]);
+
+            this.rawLanguage = preferredLanguage;
+            this.language = lower(preferredLanguage);
+        }
+
+        public static CaseFeatures of(Case legalCase) {
+            return new CaseFeatures(legalCase.getId(), legalCase.getCaseType(), legalCase.getExpertiseTags(),
+                    legalCase.getLocation(), legalCase.getPreferredLanguage());
+        }
+
+        /**
+         * Build features from scalar columns, for scans that never load Case entities.
+         */
+        public static CaseFeatures of(Long caseId, String caseType, List<String> expertiseTags,
+                                      String location, String preferredLanguage) {
+            return new CaseFeatures(caseId, caseType, expertiseTags, location, preferredLanguage);
+        }
+
+        public Long getCaseId() {
+            return caseId;
+        }
+
+        private static String lower(String value) {
+            return value != null ? value.toLowerCase() : null;
+        }
+    }
+
+    /**
+     * Score of one provider for one case. The human-readable reason is only
+     * assembled when asked for, from flags recorded while scoring.
+     */
+    public static final class MatchScore {
+
+        private final double score;
+        private final CaseFeatures legalCase;
+        private final ProviderFeatures provider;
+        private final boolean caseTypeHit;
+        private final int firstTagHit;
+        private final boolean sameLocation;
+        private final boolean languageHit;
+
+        private MatchScore(double score, CaseFeatures legalCase, ProviderFeatures provider,
+                           boolean caseTypeHit, int firstTagHit, boolean sameLocation, boolean languageHit) {
+            this.score = score;
+            this.legalCase = legalCase;
+            this.provider = provider;
+            this.caseTypeHit = caseTypeHit;
+            this.firstTagHit = firstTagHit;
+            this.sameLocation = sameLocation;
+            this.languageHit = languageHit;
+        }
+
+        public double getScore() {
+            return score;
+        }
+
+        public ProviderFeatures getProvider() {
+            return provider;
+        }
+
+        public Long getCaseId() {
+            return legalCase.caseId;
+        }
+
+        public String getReason() {
+            List<String> reasons = new ArrayList<>(4);
+
+            // Expertise match
+            if (provider.hasExpertise()) {
+                if (caseTypeHit) {
+                    reasons.add("Expertise matches case type");
+                } else if (firstTagHit >= 0) {
+                    // Tags are only scanned when the case type did not match
+                    reasons.add("Expertise in " + legalCase.rawTags[firstTagHit]);
+                }
+            }
+
+            // Location match
+            if (legalCase.location != null && provider.location != null) {
+                if (sameLocation) {
+                    reasons.add("Same location");
+                } else if (legalCase.location.contains(provider.location)
+                        || provider.location.contains(legalCase.location)) {
+                    reasons.add("Nearby location");
+                }
+            }
+
+            // Language match
+            if (languageHit) {
+                reasons.add("Language: " + legalCase.rawLanguage);
+            }
+
+            // Verification
+            if (provider.isApproved()) {
+                reasons.add("Verified provider");
+            }
+
+            return reasons.isEmpty() ? "General match" : String.join(", ", reasons);
+        }
+    }
+}
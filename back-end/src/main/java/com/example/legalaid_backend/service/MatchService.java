@@ -2,29 +2,42 @@ package com.example.legalaid_backend.service;
 
 import com.example.legalaid_backend.DTO.AttachmentDTO;
 import com.example.legalaid_backend.DTO.GenerateMatchesResponse;
+import com.example.legalaid_backend.DTO.MatchFeedResponse;
 import com.example.legalaid_backend.DTO.MatchResponse;
 import com.example.legalaid_backend.DTO.MatchResultDTO;
+import com.example.legalaid_backend.DTO.MatchRowDTO;
 import com.example.legalaid_backend.entity.Case;
 import com.example.legalaid_backend.entity.Match;
 import com.example.legalaid_backend.entity.User;
+import com.example.legalaid_backend.repository.AttachmentRepository;
 import com.example.legalaid_backend.repository.CaseRepository;
+import com.example.legalaid_backend.repository.MatchBatchWriter;
 import com.example.legalaid_backend.repository.MatchRepository;
 import com.example.legalaid_backend.repository.UserRepository;
 import com.example.legalaid_backend.util.ApprovalStatus;
+import com.example.legalaid_backend.util.CaseStatus;
 import com.example.legalaid_backend.util.MatchStatus;
 import com.example.legalaid_backend.util.NotificationType;
 import com.example.legalaid_backend.util.Role;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
 import org.springframework.security.core.Authentication;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.nio.charset.StandardCharsets;
 import java.time.LocalDateTime;
 import java.util.ArrayList;
+import java.util.Base64;
 import java.util.Comparator;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
 import java.util.stream.Collectors;
 
 @Slf4j
@@ -32,10 +45,27 @@ import java.util.stream.Collectors;
 @RequiredArgsConstructor
 public class MatchService {
 
+    /** Matches that still count against a case's top-K budget */
+    public static final List<MatchStatus> LIVE_MATCH_STATUSES = List.of(
+            MatchStatus.PENDING, MatchStatus.SELECTED_BY_CITIZEN, MatchStatus.ACCEPTED_BY_PROVIDER);
+
+    /** Largest page the citizen match feed will return */
+    private static final int MAX_FEED_PAGE_SIZE = 100;
+
     private final CaseRepository caseRepository;
     private final MatchRepository matchRepository;
+    private final AttachmentRepository attachmentRepository;
+    private final MatchBatchWriter matchBatchWriter;
     private final UserRepository userRepository;
     private final NotificationService notificationService;
+    private final ProviderCandidateIndex candidateIndex;
+    private final MatchScorer matchScorer;
+    private final CaseStateMachine caseStateMachine;
+    private final ProviderWorkloadTracker workloadTracker;
+
+    /** Keep at most this many live matches per case; 0 keeps every provider above the threshold */
+    @Value("${matching.top-k:0}")
+    private int topK;
 
     // =========================
     // GENERATE MATCHES FOR A CASE
@@ -55,93 +85,89 @@ public class MatchService {
 
         log.info("Generating matches for case ID: {} by user: {}", caseId, currentUser.getEmail());
 
-        // Get approved lawyers and NGOs
-        List<User> lawyers = userRepository.findByRoleAndApprovalStatus(Role.LAWYER, ApprovalStatus.APPROVED);
-        List<User> ngos = userRepository.findByRoleAndApprovalStatus(Role.NGO, ApprovalStatus.APPROVED);
+        List<Match> savedMatches = createMatches(legalCase);
 
-        log.info("Found {} approved lawyers and {} approved NGOs", lawyers.size(), ngos.size());
-
-        List<Match> newMatches = new ArrayList<>();
+        // Send notifications to matched providers
+        for (Match match : savedMatches) {
+            notifyMatchedProvider(match, currentUser.getId());
+        }
 
-        // Match with lawyers
-        for (User lawyer : lawyers) {
-            if (lawyer.getLawyerProfile() == null)
-                continue;
+        return buildGenerateMatchesResponse(caseId, savedMatches.size());
+    }
 
-            // Check if match already exists
-            if (matchRepository.findByLegalCaseIdAndLawyerId(caseId, lawyer.getId()).isPresent()) {
-                log.debug("Match already exists for case {} and lawyer {}", caseId, lawyer.getId());
-                continue;
-            }
+    /**
+     * Score and persist new matches for a case without notifying anyone.
+     * Used by background match-generation jobs, which fan out notifications
+     * separately so they can report progress.
+     */
+    @Transactional
+    public List<Match> createMatches(Long caseId) {
+        Case legalCase = caseRepository.findById(caseId)
+                .orElseThrow(() -> new RuntimeException("Case not found"));
+        return createMatches(legalCase);
+    }
 
-            double score = calculateMatchScore(legalCase, lawyer, Role.LAWYER);
+    private List<Match> createMatches(Case legalCase) {
+        Long caseId = legalCase.getId();
 
-            if (score > 30) { // Only create matches with positive scores
-                Match match = new Match();
-                match.setLegalCase(legalCase);
-                match.setLawyer(lawyer);
-                match.setMatchScore(score);
-                match.setMatchReason(generateMatchReason(legalCase, lawyer, Role.LAWYER));
-                match.setStatus(MatchStatus.PENDING);
-                newMatches.add(match);
-            }
-        }
+        // Score the candidate lawyers and NGOs returned by the index
+        MatchScorer.CaseFeatures caseFeatures = MatchScorer.CaseFeatures.of(legalCase);
+        List<ProviderFeatures> candidates = candidateIndex.candidatesFor(caseFeatures);
 
-        // Match with NGOs
-        for (User ngo : ngos) {
-            if (ngo.getNgoProfile() == null)
-                continue;
+        log.info("Scoring {} candidate providers for case {}", candidates.size(), caseId);
 
-            // Check if match already exists
-            if (matchRepository.findByLegalCaseIdAndNgoId(caseId, ngo.getId()).isPresent()) {
-                log.debug("Match already exists for case {} and NGO {}", caseId, ngo.getId());
-                continue;
-            }
+        // Providers already matched to this case, loaded once instead of per provider
+        Set<Long> matchedProviderIds = matchRepository.findProviderIdsByCaseId(caseId);
 
-            double score = calculateMatchScore(legalCase, ngo, Role.NGO);
+        List<MatchScorer.MatchScore> results;
+        if (topK > 0) {
+            // Only fill the slots not already taken by live matches
+            int openSlots = topK - (int) matchRepository.countByLegalCaseIdAndStatusIn(caseId, LIVE_MATCH_STATUSES);
+            results = matchScorer.topK(caseFeatures, candidates, matchedProviderIds, openSlots);
+        } else {
+            results = matchScorer.scoreAll(caseFeatures, candidates, matchedProviderIds);
+        }
 
-            if (score > 30) { // Only create matches with positive scores
-                Match match = new Match();
-                match.setLegalCase(legalCase);
-                match.setNgo(ngo);
-                match.setMatchScore(score);
-                match.setMatchReason(generateMatchReason(legalCase, ngo, Role.NGO));
-                match.setStatus(MatchStatus.PENDING);
-                newMatches.add(match);
-            }
+        List<Match> newMatches = new ArrayList<>();
+        for (MatchScorer.MatchScore result : results) {
+            newMatches.add(toNewMatch(legalCase, result));
         }
 
-        // Save all new matches
-        List<Match> savedMatches = matchRepository.saveAll(newMatches);
+        // Save all new matches in JDBC batches
+        List<Match> savedMatches = matchBatchWriter.insertAll(newMatches);
 
         log.info("Created {} new matches for case {}", savedMatches.size(), caseId);
 
-        // Send notifications to matched providers
-        for (Match match : savedMatches) {
-            User provider = match.getLawyer() != null ? match.getLawyer() : match.getNgo();
-            String providerRole = match.getLawyer() != null ? "Lawyer" : "NGO";
-            String title = "New Case Match Found";
-            String message = "A new case \"" + legalCase.getTitle() + "\" has been matched with you. Score: " + 
-                            String.format("%.1f", match.getMatchScore()) + "%";
-            notificationService.createNotificationWithMetadata(
-                    provider, NotificationType.MATCH_FOUND, title, message,
-                    match.getId(), null, caseId, null, currentUser.getId(),
-                    "/dashboard/assigned-cases"
-            );
-        }
-
-        // Get all matches for this case (including existing ones)
-        List<Match> allMatches = matchRepository.findByLegalCaseId(caseId);
-
-        List<MatchResponse> matchResponses = allMatches.stream()
-                .map(this::toMatchResponse)
-                .sorted(Comparator.comparing(MatchResponse::getMatchScore).reversed())
-                .collect(Collectors.toList());
+        return savedMatches;
+    }
+
+    /**
+     * Send the MATCH_FOUND notification for a newly created match.
+     */
+    public void notifyMatchedProvider(Match match, Long requesterId) {
+        Case legalCase = match.getLegalCase();
+        User provider = match.getLawyer() != null ? match.getLawyer() : match.getNgo();
+        String title = "New Case Match Found";
+        String message = "A new case \"" + legalCase.getTitle() + "\" has been matched with you. Score: " +
+                        String.format("%.1f", match.getMatchScore()) + "%";
+        notificationService.createNotificationWithMetadata(
+                provider, NotificationType.MATCH_FOUND, title, message,
+                match.getId(), null, legalCase.getId(), null, requesterId,
+                "/dashboard/assigned-cases"
+        );
+    }
+
+    /**
+     * All matches for a case (including existing ones), best score first.
+     */
+    @Transactional(readOnly = true)
+    public GenerateMatchesResponse buildGenerateMatchesResponse(Long caseId, int newMatchCount) {
+        List<MatchResponse> matchResponses = toMatchResponses(matchRepository.findRowsByCaseId(caseId));
 
         GenerateMatchesResponse response = new GenerateMatchesResponse();
         response.setTotalMatches(matchResponses.size());
         response.setMatches(matchResponses);
-        response.setMessage(savedMatches.size() + " new matches generated. Total matches: " + allMatches.size());
+        response.setMessage(newMatchCount + " new matches generated. Total matches: " + matchResponses.size());
 
         return response;
     }
@@ -196,14 +222,10 @@ public class MatchService {
             throw new RuntimeException("Only pending matches can be selected");
         }
 
-        match.setStatus(MatchStatus.SELECTED_BY_CITIZEN);
-
-        Match updatedMatch = matchRepository.save(match);
-        
-        // Update case status to PENDING_APPROVAL
-        Case legalCase = match.getLegalCase();
-        legalCase.setStatus("PENDING_APPROVAL");
-        caseRepository.save(legalCase);
+        // Conditional transitions: a concurrent select/reject of the same match fails here
+        caseStateMachine.transitionMatch(matchId, CaseStateMachine.Event.SELECT_MATCH, null);
+        caseStateMachine.transitionCase(match.getLegalCase().getId(),
+                CaseStateMachine.Event.SELECT_MATCH, CaseStatus.PENDING_APPROVAL);
 
         // Notify the provider that they were selected
         User provider = match.getLawyer() != null ? match.getLawyer() : match.getNgo();
@@ -212,13 +234,13 @@ public class MatchService {
         String message = "Your match has been selected for the case \"" + match.getLegalCase().getTitle() + "\". Please review and respond.";
         notificationService.createNotificationWithMetadata(
                 provider, NotificationType.MATCH_SELECTED, title, message,
-                updatedMatch.getId(), null, match.getLegalCase().getId(), null, currentUser.getId(),
+                matchId, null, match.getLegalCase().getId(), null, currentUser.getId(),
                 "/dashboard/assigned-cases"
         );
 
         log.info("Match {} selected by citizen {}", matchId, currentUser.getEmail());
 
-        return toMatchResponse(updatedMatch);
+        return toMatchResponse(matchId);
     }
 
     // =========================
@@ -245,45 +267,57 @@ public class MatchService {
             throw new RuntimeException("Only pending matches can be rejected");
         }
 
-        match.setStatus(MatchStatus.REJECTED_BY_CITIZEN);
-        match.setRejectedAt(LocalDateTime.now());
-        match.setRejectionReason(reason != null ? reason : "Not interested");
-
-        Match updatedMatch = matchRepository.save(match);
+        caseStateMachine.transitionMatch(matchId, CaseStateMachine.Event.REJECT_MATCH,
+                reason != null ? reason : "Not interested");
 
         log.info("Match {} rejected by citizen {}", matchId, currentUser.getEmail());
 
-        return toMatchResponse(updatedMatch);
+        return toMatchResponse(matchId);
     }
 
     // ========================= // GET MY MATCHES (For Citizens)
     // =========================
-    public List<MatchResponse> getMyMatches() {
+
+    /**
+     * One page of matches across all of the citizen's cases, newest first.
+     * Pages are keyset-paginated on (createdAt, id), so each page costs the
+     * same however far into the feed the cursor points.
+     */
+    public MatchFeedResponse getMyMatches(String cursor, int size) {
         User currentUser = getCurrentUser();
 
         if (currentUser.getRole() != Role.CITIZEN) {
             throw new RuntimeException("Only citizens can view their matches");
         }
 
-        log.info("Fetching all matches for citizen: {}", currentUser.getId());
+        int pageSize = Math.max(1, Math.min(size, MAX_FEED_PAGE_SIZE));
+        // Fetch one extra row to know whether another page exists
+        Pageable limit = PageRequest.of(0, pageSize + 1);
 
-        // Get all cases created by this citizen
-        List<Case> myCases = caseRepository.findByCreatedBy(currentUser);
+        List<MatchRowDTO> rows;
+        if (cursor == null || cursor.isBlank()) {
+            rows = matchRepository.findRowsByCitizenId(currentUser.getId(), limit);
+        } else {
+            FeedCursor after = FeedCursor.decode(cursor);
+            rows = matchRepository.findRowsByCitizenIdBefore(currentUser.getId(), after.createdAt, after.id, limit);
+        }
 
-        // Get all matches for these cases
-        List<Match> allMatches = new ArrayList<>();
-        for (Case legalCase : myCases) {
-            List<Match> caseMatches = matchRepository.findByLegalCaseId(legalCase.getId());
-            allMatches.addAll(caseMatches);
+        boolean hasMore = rows.size() > pageSize;
+        if (hasMore) {
+            rows = rows.subList(0, pageSize);
         }
 
-        log.info("Found {} total matches across {} cases", allMatches.size(), myCases.size());
+        String nextCursor = null;
+        if (hasMore) {
+            MatchRowDTO last = rows.get(rows.size() - 1);
+            nextCursor = new FeedCursor(last.getCreatedAt(), last.getId()).encode();
+        }
 
-        // Convert to response DTOs
-        return allMatches.stream()
-                .map(this::toMatchResponse)
-                .sorted(Comparator.comparing(MatchResponse::getCreatedAt).reversed())
-                .collect(Collectors.toList());
+        log.info("Returning {} matches for citizen {} (hasMore={})", rows.size(), currentUser.getId(), hasMore);
+
+        long totalMatches = matchRepository.countByCitizenId(currentUser.getId());
+
+        return new MatchFeedResponse(totalMatches, toMatchResponses(rows), nextCursor, hasMore);
     }
 
     // ========================= // GET ASSIGNED CASES (Lawyer/NGO)
@@ -296,17 +330,9 @@ public class MatchService {
             throw new RuntimeException("Only lawyers and NGOs can view assigned cases");
         }
 
-        // Get matches where citizen has selected this provider
-        List<Match> matches = matchRepository.findByProviderId(currentUser.getId());
-
-        // Filter to only show matches that are SELECTED_BY_CITIZEN or
-        // ACCEPTED_BY_PROVIDER
-        return matches.stream()
-                .filter(m -> m.getStatus() == MatchStatus.SELECTED_BY_CITIZEN ||
-                        m.getStatus() == MatchStatus.ACCEPTED_BY_PROVIDER)
-                .map(this::toMatchResponse)
-                .sorted(Comparator.comparing(MatchResponse::getCreatedAt).reversed())
-                .collect(Collectors.toList());
+        // Matches where a citizen has selected this provider, newest first
+        return toMatchResponses(matchRepository.findRowsByProviderIdAndStatusIn(currentUser.getId(),
+                List.of(MatchStatus.SELECTED_BY_CITIZEN, MatchStatus.ACCEPTED_BY_PROVIDER)));
     }
 
     // =========================
@@ -321,8 +347,7 @@ public class MatchService {
             throw new RuntimeException("Only lawyers and NGOs can accept case assignments");
         }
 
-        // Use pessimistic lock to prevent race conditions
-        Match match = matchRepository.findByIdWithLock(matchId)
+        Match match = matchRepository.findById(matchId)
                 .orElseThrow(() -> new RuntimeException("Match not found"));
 
         // Verify the user is the matched provider
@@ -344,28 +369,21 @@ public class MatchService {
                     "Only cases selected by citizens can be accepted. Current status: " + match.getStatus());
         }
 
-        // Double-check if another provider has already accepted this case
         Long caseId = match.getLegalCase().getId();
-        long acceptedCount = matchRepository.countAcceptedMatchesForCase(caseId);
-        if (acceptedCount > 0) {
-            // Mark this match as expired since another provider already accepted
-            match.setStatus(MatchStatus.EXPIRED);
-            match.setRejectionReason("Another provider has accepted this case");
-            matchRepository.save(match);
-            throw new RuntimeException(
-                    "This case has already been accepted by another provider. You can no longer accept it.");
-        }
 
-        // Accept the case
-        match.setStatus(MatchStatus.ACCEPTED_BY_PROVIDER);
-        match.setAcceptedAt(LocalDateTime.now());
+        // Claim the case first with a conditional UPDATE. Of two providers accepting
+        // at the same time the second one matches no row and loses the race.
+        caseStateMachine.transitionCase(caseId, CaseStateMachine.Event.ACCEPT, CaseStatus.ACCEPTED);
 
-        Match updatedMatch = matchRepository.save(match);
-        
-        // Update case status to ACCEPTED
-        Case legalCase = match.getLegalCase();
-        legalCase.setStatus("ACCEPTED");
-        caseRepository.save(legalCase);
+        // Throwing here rolls the case claim back as well
+        caseStateMachine.transitionMatch(matchId, CaseStateMachine.Event.ACCEPT, null);
+
+        // Expire all other SELECTED_BY_CITIZEN matches for this case in one statement
+        int expired = caseStateMachine.expireCompetingMatches(caseId, matchId, "Another provider has accepted this case");
+        if (expired > 0) {
+            log.info("Expired {} competing matches because provider {} accepted case {}",
+                    expired, currentUser.getEmail(), caseId);
+        }
 
         // Notify the citizen that their selected match has been accepted
         User citizen = match.getLegalCase().getCreatedBy();
@@ -375,26 +393,15 @@ public class MatchService {
         String message = "Your selected " + providerRole + " \"" + providerName + "\" has accepted to take your case!";
         notificationService.createNotificationWithMetadata(
                 citizen, NotificationType.MATCH_ACCEPTED, title, message,
-                updatedMatch.getId(), null, match.getLegalCase().getId(), null, currentUser.getId(),
+                matchId, null, caseId, null, currentUser.getId(),
                 "/dashboard/matches"
         );
 
-        // Expire all other SELECTED_BY_CITIZEN matches for this case
-        List<Match> otherSelectedMatches = matchRepository.findByCaseIdAndStatus(caseId,
-                MatchStatus.SELECTED_BY_CITIZEN);
-        for (Match otherMatch : otherSelectedMatches) {
-            if (!otherMatch.getId().equals(matchId)) {
-                otherMatch.setStatus(MatchStatus.EXPIRED);
-                otherMatch.setRejectionReason("Another provider has accepted this case");
-                matchRepository.save(otherMatch);
-                log.info("Match {} expired because provider {} accepted case {}",
-                        otherMatch.getId(), currentUser.getEmail(), caseId);
-            }
-        }
+        workloadTracker.refresh(currentUser.getId());
 
         log.info("Case assignment {} accepted by provider {}", matchId, currentUser.getEmail());
 
-        return toMatchResponse(updatedMatch);
+        return toMatchResponse(matchId);
     }
 
     // =========================
@@ -424,16 +431,12 @@ public class MatchService {
             throw new RuntimeException("Only cases selected by citizens can be declined");
         }
 
-        match.setStatus(MatchStatus.REJECTED_BY_PROVIDER);
-        match.setRejectedAt(LocalDateTime.now());
-        match.setRejectionReason(reason != null ? reason : "Unable to take this case");
+        caseStateMachine.transitionMatch(matchId, CaseStateMachine.Event.DECLINE,
+                reason != null ? reason : "Unable to take this case");
 
-        Match updatedMatch = matchRepository.save(match);
-        
         // Update case status to REJECTED since provider declined
         Case legalCase = match.getLegalCase();
-        legalCase.setStatus("REJECTED");
-        caseRepository.save(legalCase);
+        caseStateMachine.transitionCase(legalCase.getId(), CaseStateMachine.Event.DECLINE, CaseStatus.REJECTED);
 
         // Notify the citizen that their selected match was rejected
         User citizen = match.getLegalCase().getCreatedBy();
@@ -445,283 +448,129 @@ public class MatchService {
                         "Please go to your cases and select another legal professional from your available matches.";
         notificationService.createNotificationWithMetadata(
                 citizen, NotificationType.MATCH_REJECTED, title, message,
-                updatedMatch.getId(), null, match.getLegalCase().getId(), null, currentUser.getId(),
+                matchId, null, match.getLegalCase().getId(), null, currentUser.getId(),
                 "/dashboard/cases"
         );
 
         log.info("Case assignment {} declined by provider {}", matchId, currentUser.getEmail());
 
-        return toMatchResponse(updatedMatch);
-    }
-
-    // =========================
-    // SCORING ALGORITHM
-    // =========================
-    private double calculateMatchScore(Case legalCase, User provider, Role providerRole) {
-
-        double score = 0.0;
-        int factors = 0;
-
-        // 1. Expertise/Focus Area Match (40 points max)
-        double expertiseScore = calculateExpertiseScore(legalCase, provider, providerRole);
-        score += expertiseScore;
-        factors++;
-
-        // 2. Location Match (30 points max)
-        double locationScore = calculateLocationScore(legalCase, provider);
-        score += locationScore;
-        factors++;
-
-        // 3. Language Match (20 points max)
-        double languageScore = calculateLanguageScore(legalCase, provider, providerRole);
-        score += languageScore;
-        factors++;
-
-        // 4. Verification Status (10 points)
-        if (provider.getApprovalStatus() == ApprovalStatus.APPROVED) {
-            score += 10.0;
-        }
-        factors++;
-
-        log.debug("Match score for {} ({}): Expertise={}, Location={}, Language={}, Total={}",
-                provider.getUsername(), providerRole, expertiseScore, locationScore, languageScore, score);
-
-        return Math.min(100.0, score); // Cap at 100
-    }
-
-    private double calculateExpertiseScore(Case legalCase, User provider, Role providerRole) {
-
-        if (legalCase.getExpertiseTags() == null || legalCase.getExpertiseTags().isEmpty()) {
-            return 20.0; // Base score if no expertise specified
-        }
-
-        String providerExpertise = "";
-
-        if (providerRole == Role.LAWYER && provider.getLawyerProfile() != null) {
-            providerExpertise = provider.getLawyerProfile().getSpecialization();
-        } else if (providerRole == Role.NGO && provider.getNgoProfile() != null) {
-            providerExpertise = provider.getNgoProfile().getFocusArea();
-        }
-
-        if (providerExpertise == null || providerExpertise.isEmpty()) {
-            return 10.0; // Low score if provider has no expertise listed
-        }
-
-        String lowerProviderExpertise = providerExpertise.toLowerCase();
-        String caseType = legalCase.getCaseType() != null ? legalCase.getCaseType().toLowerCase() : "";
-
-        int matchCount = 0;
-        int totalTags = legalCase.getExpertiseTags().size();
-
-        // Check if case type matches
-        if (!caseType.isEmpty() && lowerProviderExpertise.contains(caseType)) {
-            return 40.0; // Perfect match
-        }
-
-        // Check expertise tags
-        for (String tag : legalCase.getExpertiseTags()) {
-            if (lowerProviderExpertise.contains(tag.toLowerCase())) {
-                matchCount++;
+        // In top-K mode the declined slot goes to the next-best provider
+        if (topK > 0) {
+            // Reload the case: the transitions above cleared the persistence context
+            List<Match> backfilled = createMatches(legalCase.getId());
+            for (Match backfill : backfilled) {
+                notifyMatchedProvider(backfill, citizen.getId());
             }
-        }
-
-        if (matchCount > 0) {
-            return 20.0 + (20.0 * matchCount / totalTags); // 20-40 based on match ratio
-        }
-
-        return 10.0; // Minimal score
-    }
-
-    private double calculateLocationScore(Case legalCase, User provider) {
-
-        if (legalCase.getLocation() == null || legalCase.getLocation().isEmpty()) {
-            return 15.0; // Neutral score if no location specified
-        }
-
-        String caseLocation = legalCase.getLocation().toLowerCase();
-        String providerLocation = provider.getLocation() != null ? provider.getLocation().toLowerCase() : "";
-
-        if (providerLocation.isEmpty()) {
-            return 10.0; // Low score if provider has no location
-        }
-
-        // Exact match
-        if (caseLocation.equals(providerLocation)) {
-            return 30.0;
-        }
-
-        // Partial match (city or state)
-        String[] caseParts = caseLocation.split(",");
-        String[] providerParts = providerLocation.split(",");
-
-        for (String casePart : caseParts) {
-            for (String providerPart : providerParts) {
-                if (casePart.trim().equals(providerPart.trim())) {
-                    return 20.0; // Partial match
-                }
+            if (!backfilled.isEmpty()) {
+                log.info("Backfilled {} matches for case {} after decline", backfilled.size(), legalCase.getId());
             }
         }
 
-        return 5.0; // No match
+        return toMatchResponse(matchId);
     }
 
-    private double calculateLanguageScore(Case legalCase, User provider, Role providerRole) {
-
-        if (legalCase.getPreferredLanguage() == null || legalCase.getPreferredLanguage().isEmpty()) {
-            return 10.0; // Neutral score if no language preference
-        }
-
-        String preferredLang = legalCase.getPreferredLanguage().toLowerCase();
-        String providerLanguages = "";
-
-        if (providerRole == Role.LAWYER && provider.getLawyerProfile() != null) {
-            providerLanguages = provider.getLawyerProfile().getLanguages();
-        } else if (providerRole == Role.NGO && provider.getNgoProfile() != null) {
-            providerLanguages = provider.getNgoProfile().getLanguages();
-        }
-
-        if (providerLanguages == null || providerLanguages.isEmpty()) {
-            return 5.0; // Low score if provider has no languages listed
-        }
-
-        String lowerProviderLanguages = providerLanguages.toLowerCase();
-
-        if (lowerProviderLanguages.contains(preferredLang)) {
-            return 20.0; // Perfect match
-        }
-
-        return 5.0; // No match
-    }
-
-    private String generateMatchReason(Case legalCase, User provider, Role providerRole) {
-
-        List<String> reasons = new ArrayList<>();
-
-        // Expertise match
-        String providerExpertise = "";
-        if (providerRole == Role.LAWYER && provider.getLawyerProfile() != null) {
-            providerExpertise = provider.getLawyerProfile().getSpecialization();
-        } else if (providerRole == Role.NGO && provider.getNgoProfile() != null) {
-            providerExpertise = provider.getNgoProfile().getFocusArea();
-        }
-
-        if (providerExpertise != null && !providerExpertise.isEmpty()) {
-            if (legalCase.getCaseType() != null &&
-                    providerExpertise.toLowerCase().contains(legalCase.getCaseType().toLowerCase())) {
-                reasons.add("Expertise matches case type");
-            } else if (legalCase.getExpertiseTags() != null) {
-                for (String tag : legalCase.getExpertiseTags()) {
-                    if (providerExpertise.toLowerCase().contains(tag.toLowerCase())) {
-                        reasons.add("Expertise in " + tag);
-                        break;
-                    }
-                }
-            }
-        }
-
-        // Location match
-        if (legalCase.getLocation() != null && provider.getLocation() != null) {
-            if (legalCase.getLocation().equalsIgnoreCase(provider.getLocation())) {
-                reasons.add("Same location");
-            } else if (legalCase.getLocation().toLowerCase().contains(provider.getLocation().toLowerCase()) ||
-                    provider.getLocation().toLowerCase().contains(legalCase.getLocation().toLowerCase())) {
-                reasons.add("Nearby location");
-            }
-        }
-
-        // Language match
-        String providerLanguages = "";
-        if (providerRole == Role.LAWYER && provider.getLawyerProfile() != null) {
-            providerLanguages = provider.getLawyerProfile().getLanguages();
-        } else if (providerRole == Role.NGO && provider.getNgoProfile() != null) {
-            providerLanguages = provider.getNgoProfile().getLanguages();
-        }
-
-        if (legalCase.getPreferredLanguage() != null && providerLanguages != null) {
-            if (providerLanguages.toLowerCase().contains(legalCase.getPreferredLanguage().toLowerCase())) {
-                reasons.add("Language: " + legalCase.getPreferredLanguage());
-            }
-        }
-
-        // Verification
-        if (provider.getApprovalStatus() == ApprovalStatus.APPROVED) {
-            reasons.add("Verified provider");
-        }
-
-        return reasons.isEmpty() ? "General match" : String.join(", ", reasons);
+    /**
+     * Unsaved PENDING match for a scored provider.
+     */
+    public Match toNewMatch(Case legalCase, MatchScorer.MatchScore result) {
+        ProviderFeatures provider = result.getProvider();
+        // Only the foreign key is needed, so avoid loading the provider row
+        User providerRef = userRepository.getReferenceById(provider.getUserId());
+
+        Match match = new Match();
+        match.setLegalCase(legalCase);
+        if (provider.getRole() == Role.LAWYER) {
+            match.setLawyer(providerRef);
+        } else {
+            match.setNgo(providerRef);
+        }
+        match.setMatchScore(result.getScore());
+        match.setMatchReason(result.getReason());
+        match.setStatus(MatchStatus.PENDING);
+        return match;
     }
 
     // =========================
     // CONVERSION METHODS
     // =========================
-    private MatchResponse toMatchResponse(Match match) {
-
-        MatchResponse response = new MatchResponse();
-        response.setId(match.getId());
-        response.setCaseId(match.getLegalCase().getId());
-        response.setCaseNumber(match.getLegalCase().getCaseNumber());
-        response.setCaseTitle(match.getLegalCase().getTitle());
-        response.setCaseType(match.getLegalCase().getCaseType());
-        response.setCaseLocation(match.getLegalCase().getLocation());
-        response.setCaseDescription(match.getLegalCase().getDescription());
-        response.setCasePriority(
-                match.getLegalCase().getPriority() != null ? match.getLegalCase().getPriority().toString() : null);
-        response.setPreferredLanguage(match.getLegalCase().getPreferredLanguage());
-        response.setExpertiseTags(match.getLegalCase().getExpertiseTags());
-        response.setStatus(match.getStatus().toString());
-        response.setMatchScore(match.getMatchScore());
-        response.setMatchReason(match.getMatchReason());
-        response.setRejectionReason(match.getRejectionReason());
-        response.setCreatedAt(match.getCreatedAt());
-        response.setAcceptedAt(match.getAcceptedAt());
-        response.setRejectedAt(match.getRejectedAt());
-
-        // Add citizen information
-        User citizen = match.getLegalCase().getCreatedBy();
-        if (citizen != null) {
-            response.setCitizenName(citizen.getUsername());
-            response.setCitizenEmail(citizen.getEmail());
-            // Note: Phone is not stored in User entity - field will be null
-        }
+    private MatchResponse toMatchResponse(Long matchId) {
+        MatchRowDTO row = matchRepository.findRowById(matchId)
+                .orElseThrow(() -> new RuntimeException("Match not found"));
+        return toMatchResponses(List.of(row)).get(0);
+    }
 
-        // Add attachments with proper metadata for downloads
-        if (match.getLegalCase().getAttachments() != null) {
-            response.setAttachments(
-                match.getLegalCase().getAttachments().stream()
-                    .map(att -> {
-                        AttachmentDTO dto = new AttachmentDTO();
-                        dto.setId(att.getId());
-                        dto.setFileName(att.getFileName());
-                        dto.setFileType(att.getFileType());
-                        dto.setFileSize(att.getContent() != null ? (long) att.getContent().length : 0L);
-                        // Don't include content here - use download endpoint instead
-                        return dto;
-                    })
-                    .collect(java.util.stream.Collectors.toList())
-            );
-        }
+    /**
+     * Assemble responses from projected rows. Expertise tags and attachment
+     * metadata for all of the rows' cases are loaded with one query each;
+     * attachment sizes come from the stored size, never from the content.
+     */
+    private List<MatchResponse> toMatchResponses(List<MatchRowDTO> rows) {
+        if (rows.isEmpty()) {
+            return new ArrayList<>();
+        }
+
+        Set<Long> caseIds = rows.stream().map(MatchRowDTO::getCaseId).collect(Collectors.toSet());
+
+        Map<Long, List<String>> tagsByCase = new HashMap<>();
+        for (Object[] row : caseRepository.findExpertiseTagsByCaseIds(caseIds)) {
+            tagsByCase.computeIfAbsent((Long) row[0], k -> new ArrayList<>()).add((String) row[1]);
+        }
+
+        Map<Long, List<AttachmentDTO>> attachmentsByCase = new HashMap<>();
+        for (Object[] row : attachmentRepository.findMetadataByCaseIds(caseIds)) {
+            AttachmentDTO dto = new AttachmentDTO();
+            dto.setId((Long) row[1]);
+            dto.setFileName((String) row[2]);
+            dto.setFileType((String) row[3]);
+            dto.setFileSize(row[4] != null ? ((Number) row[4]).longValue() : 0L);
+            // Don't include content here - use download endpoint instead
+            attachmentsByCase.computeIfAbsent((Long) row[0], k -> new ArrayList<>()).add(dto);
+        }
+
+        List<MatchResponse> responses = new ArrayList<>(rows.size());
+        for (MatchRowDTO row : rows) {
+            MatchResponse response = new MatchResponse();
+            response.setId(row.getId());
+            response.setCaseId(row.getCaseId());
+            response.setCaseNumber(row.getCaseNumber());
+            response.setCaseTitle(row.getCaseTitle());
+            response.setCaseType(row.getCaseType());
+            response.setCaseLocation(row.getCaseLocation());
+            response.setCaseDescription(row.getCaseDescription());
+            response.setCasePriority(row.getCasePriority());
+            response.setPreferredLanguage(row.getPreferredLanguage());
+            response.setExpertiseTags(tagsByCase.getOrDefault(row.getCaseId(), new ArrayList<>()));
+            response.setStatus(row.getStatus().toString());
+            response.setMatchScore(row.getMatchScore());
+            response.setMatchReason(row.getMatchReason());
+            response.setRejectionReason(row.getRejectionReason());
+            response.setCreatedAt(row.getCreatedAt());
+            response.setAcceptedAt(row.getAcceptedAt());
+            response.setRejectedAt(row.getRejectedAt());
 
-        if (match.getLawyer() != null) {
-            User lawyer = match.getLawyer();
-            response.setProviderId(lawyer.getId());
-            response.setProviderName(lawyer.getUsername());
-            response.setProviderType("LAWYER");
-            response.setProviderLocation(lawyer.getLocation());
-            if (lawyer.getLawyerProfile() != null) {
-                response.setProviderSpecialization(lawyer.getLawyerProfile().getSpecialization());
-            }
-        } else if (match.getNgo() != null) {
-            User ngo = match.getNgo();
-            response.setProviderId(ngo.getId());
-            response.setProviderName(ngo.getUsername());
-            response.setProviderType("NGO");
-            response.setProviderLocation(ngo.getLocation());
-            if (ngo.getNgoProfile() != null) {
-                response.setProviderSpecialization(ngo.getNgoProfile().getFocusArea());
+            // Note: Phone is not stored in User entity - field will be null
+            response.setCitizenName(row.getCitizenName());
+            response.setCitizenEmail(row.getCitizenEmail());
+
+            response.setAttachments(attachmentsByCase.getOrDefault(row.getCaseId(), new ArrayList<>()));
+
+            if (row.getLawyerId() != null) {
+                response.setProviderId(row.getLawyerId());
+                response.setProviderName(row.getLawyerName());
+                response.setProviderType("LAWYER");
+                response.setProviderLocation(row.getLawyerLocation());
+                response.setProviderSpecialization(row.getLawyerSpecialization());
+            } else if (row.getNgoId() != null) {
+                response.setProviderId(row.getNgoId());
+                response.setProviderName(row.getNgoName());
+                response.setProviderType("NGO");
+                response.setProviderLocation(row.getNgoLocation());
+                response.setProviderSpecialization(row.getNgoFocusArea());
             }
-        }
 
-        return response;
+            responses.add(response);
+        }
+        return responses;
     }
 
     private MatchResultDTO toMatchResultDTO(Match match) {
@@ -761,4 +610,33 @@ public class MatchService {
         return userRepository.findByEmail(auth.getName())
                 .orElseThrow(() -> new RuntimeException("User not found"));
     }
+
+    /**
+     * Opaque feed cursor: the (createdAt, id) of the last match on a page,
+     * Base64url-encoded.
+     */
+    private static final class FeedCursor {
+        private final LocalDateTime createdAt;
+        private final Long id;
+
+        FeedCursor(LocalDateTime createdAt, Long id) {
+            this.createdAt = createdAt;
+            this.id = id;
+        }
+
+        String encode() {
+            String raw = createdAt + "|" + id;
+            return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+        }
+
+        static FeedCursor decode(String cursor) {
+            try {
+                String raw = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+                int sep = raw.indexOf('|');
+                return new FeedCursor(LocalDateTime.parse(raw.substring(0, sep)), Long.parseLong(raw.substring(sep + 1)));
+            } catch (RuntimeException e) {
+                throw new IllegalArgumentException("Invalid cursor");
+            }
+        }
+    }
 }
@@ -29,6 +29,7 @@ public class ProfileService {
     private final UserRepository userRepository;
     private final LawyerProfileRepository lawyerProfileRepository;
     private final NgoProfileRepository ngoProfileRepository;
+    private final ProviderCandidateIndex candidateIndex;
 
     // ============================
     // GET CURRENT USER
@@ -147,6 +148,7 @@ public class ProfileService {
         }
 
         userRepository.save(user);
+        candidateIndex.refresh(user);
         logger.info("Profile update complete for user ID {}", user.getId());
 
         return getProfile();
@@ -0,0 +1,294 @@
+package com.example.legalaid_backend.service;
+
+import com.example.legalaid_backend.entity.User;
+import com.example.legalaid_backend.repository.UserRepository;
+import com.example.legalaid_backend.util.ApprovalStatus;
+import com.example.legalaid_backend.util.Role;
+import com.example.legalaid_backend.util.TransactionUtils;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Collectors;
+
+/**
+ * In-memory inverted index of APPROVED lawyers and NGOs used to narrow the
+ * provider pool before scoring a case. It doubles as the {@link ProviderFeatures}
+ * cache, keyed by user ID, that the scoring algorithm runs against.
+ *
+ * Keys are the normalized (lower-cased) specialization/focus area and language
+ * values plus the trimmed location parts of each provider. Expertise and
+ * language scoring use substring matching, so lookups walk the distinct key
+ * vocabulary (tens of values) instead of the provider pool (thousands of rows).
+ * The index only ever returns a superset of the providers able to clear the
+ * match threshold; the caller still scores every candidate.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class ProviderCandidateIndex {
+
+    private final UserRepository userRepository;
+    private final ApplicationEventPublisher eventPublisher;
+
+    private final Map<String, Set<Long>> expertiseIndex = new ConcurrentHashMap<>();
+    private final Map<String, Set<Long>> languageIndex = new ConcurrentHashMap<>();
+    private final Map<String, Set<Long>> locationIndex = new ConcurrentHashMap<>();
+    private final Set<Long> unlocatedProviders = ConcurrentHashMap.newKeySet();
+    private final Map<Long, ProviderFeatures> features = new ConcurrentHashMap<>();
+
+    private volatile boolean ready = false;
+
+    // Updates applied while a rebuild is loading providers, replayed over the fresh load; guarded by this
+    private boolean rebuilding = false;
+    private final Map<Long, ProviderFeatures> appliedDuringRebuild = new HashMap<>();
+
+    // =========================
+    // BUILD / MAINTAIN
+    // =========================
+    @EventListener(ApplicationReadyEvent.class)
+    @Transactional(readOnly = true)
+    public void rebuild() {
+        long start = System.currentTimeMillis();
+
+        synchronized (this) {
+            rebuilding = true;
+            appliedDuringRebuild.clear();
+        }
+
+        List<ProviderFeatures> providers;
+        try {
+            providers = loadApprovedProviders();
+        } catch (RuntimeException e) {
+            synchronized (this) {
+                rebuilding = false;
+                appliedDuringRebuild.clear();
+            }
+            throw e;
+        }
+
+        synchronized (this) {
+            expertiseIndex.clear();
+            languageIndex.clear();
+            locationIndex.clear();
+            unlocatedProviders.clear();
+            features.clear();
+
+            providers.forEach(this::add);
+
+            // The load may predate approvals or profile edits that committed while it ran
+            appliedDuringRebuild.forEach(this::replace);
+            appliedDuringRebuild.clear();
+            rebuilding = false;
+            ready = true;
+        }
+
+        log.info("Provider candidate index built with {} providers in {} ms",
+                features.size(), System.currentTimeMillis() - start);
+    }
+
+    /**
+     * Re-index a provider after its approval status or profile changed.
+     * Inside a transaction the update is applied only once it commits.
+     */
+    public void refresh(User user) {
+        if (user == null || user.getId() == null
+                || (user.getRole() != Role.LAWYER && user.getRole() != Role.NGO)) {
+            return;
+        }
+
+        Long userId = user.getId();
+        ProviderFeatures updated = user.getApprovalStatus() == ApprovalStatus.APPROVED
+                ? ProviderFeatures.of(user)
+                : null;
+        TransactionUtils.afterCommit(() -> apply(userId, updated));
+    }
+
+    /**
+     * Drop a deleted user from the index. Inside a transaction this happens
+     * only once it commits.
+     */
+    public void evict(Long userId) {
+        if (userId == null) {
+            return;
+        }
+        TransactionUtils.afterCommit(() -> apply(userId, null));
+    }
+
+    private void apply(Long userId, ProviderFeatures updated) {
+        ProviderFeatures previous;
+        synchronized (this) {
+            previous = replace(userId, updated);
+            if (rebuilding) {
+                appliedDuringRebuild.put(userId, updated);
+            }
+        }
+        log.debug("Provider candidate index refreshed for user {} (indexed={})", userId, updated != null);
+
+        // Let reverse matching score the provider against open cases
+        if (updated != null && !updated.sameScoringInputs(previous)) {
+            eventPublisher.publishEvent(new ProviderFeaturesChangedEvent(updated));
+        }
+    }
+
+    /** Swap a provider's entry for {@code updated} (null removes it) and return the old one */
+    private ProviderFeatures replace(Long userId, ProviderFeatures updated) {
+        ProviderFeatures previous = features.remove(userId);
+        if (previous != null) {
+            remove(previous);
+        }
+        if (updated != null) {
+            add(updated);
+        }
+        return previous;
+    }
+
+    private void add(ProviderFeatures provider) {
+        Long id = provider.getUserId();
+        features.put(id, provider);
+
+        if (provider.hasExpertise()) {
+            expertiseIndex.computeIfAbsent(provider.expertise, k -> ConcurrentHashMap.newKeySet()).add(id);
+        }
+        if (provider.hasLanguages()) {
+            languageIndex.computeIfAbsent(provider.languages, k -> ConcurrentHashMap.newKeySet()).add(id);
+        }
+        if (!provider.hasLocation()) {
+            unlocatedProviders.add(id);
+            return;
+        }
+        locationIndex.computeIfAbsent(provider.location, k -> ConcurrentHashMap.newKeySet()).add(id);
+        for (String part : provider.locationParts) {
+            locationIndex.computeIfAbsent(part, k -> ConcurrentHashMap.newKeySet()).add(id);
+        }
+    }
+
+    private void remove(ProviderFeatures provider) {
+        Long id = provider.getUserId();
+
+        removeFrom(expertiseIndex, provider.expertise, id);
+        removeFrom(languageIndex, provider.languages, id);
+        unlocatedProviders.remove(id);
+        removeFrom(locationIndex, provider.location, id);
+        for (String part : provider.locationParts) {
+            removeFrom(locationIndex, part, id);
+        }
+    }
+
+    private static void removeFrom(Map<String, Set<Long>> index, String key, Long userId) {
+        if (key == null) {
+            return;
+        }
+        index.computeIfPresent(key, (k, ids) -> {
+            ids.remove(userId);
+            return ids.isEmpty() ? null : ids;
+        });
+    }
+
+    // =========================
+    // LOOKUP
+    // =========================
+
+    /**
+     * Candidate providers for a case. When the case leaves enough fields blank
+     * that a provider with no overlap at all could still clear the threshold,
+     * every indexed provider is returned.
+     */
+    public List<ProviderFeatures> candidatesFor(MatchScorer.CaseFeatures legalCase) {
+        if (!ready) {
+            log.warn("Provider candidate index not built yet, loading providers from the database");
+            return loadApprovedProviders();
+        }
+
+        // Best score a provider sharing nothing with the case can reach
+        double noOverlapScore = (legalCase.hasTags ? 10.0 : 20.0)
+                + (isBlank(legalCase.location) ? 15.0 : 5.0)
+                + (isBlank(legalCase.language) ? 10.0 : 5.0)
+                + 10.0;
+
+        if (noOverlapScore > MatchScorer.MIN_MATCH_SCORE) {
+            return new ArrayList<>(features.values());
+        }
+
+        Set<Long> ids = new HashSet<>();
+
+        for (Map.Entry<String, Set<Long>> e : expertiseIndex.entrySet()) {
+            String key = e.getKey();
+            boolean hit = legalCase.caseType != null && !legalCase.caseType.isEmpty() && key.contains(legalCase.caseType);
+            for (int i = 0; !hit && i < legalCase.tags.length; i++) {
+                hit = legalCase.tags[i] != null && key.contains(legalCase.tags[i]);
+            }
+            if (hit) {
+                ids.addAll(e.getValue());
+            }
+        }
+
+        // Providers without a location score above those with a mismatching one
+        ids.addAll(unlocatedProviders);
+        addAll(ids, locationIndex.get(legalCase.location));
+        for (String part : legalCase.locationParts) {
+            addAll(ids, locationIndex.get(part));
+        }
+
+        for (Map.Entry<String, Set<Long>> e : languageIndex.entrySet()) {
+            if (e.getKey().contains(legalCase.language)) {
+                ids.addAll(e.getValue());
+            }
+        }
+
+        List<ProviderFeatures> candidates = new ArrayList<>(ids.size());
+        for (Long id : ids) {
+            ProviderFeatures provider = features.get(id);
+            if (provider != null) {
+                candidates.add(provider);
+            }
+        }
+
+        log.debug("Candidate index narrowed case {} to {} out of {} providers",
+                legalCase.getCaseId(), candidates.size(), features.size());
+
+        return candidates;
+    }
+
+    /**
+     * Cached features of an approved provider, or null if it is not indexed.
+     */
+    public ProviderFeatures get(Long userId) {
+        return features.get(userId);
+    }
+
+    public int size() {
+        return features.size();
+    }
+
+    private List<ProviderFeatures> loadApprovedProviders() {
+        return userRepository.findByRoleInAndApprovalStatusWithProfiles(
+                        List.of(Role.LAWYER, Role.NGO), ApprovalStatus.APPROVED)
+                .stream()
+                .map(ProviderFeatures::of)
+                .filter(Objects::nonNull)
+                .collect(Collectors.toList());
+    }
+
+    private static void addAll(Set<Long> target, Set<Long> source) {
+        if (source != null) {
+            target.addAll(source);
+        }
+    }
+
+    private static boolean isBlank(String value) {
+        return value == null || value.isEmpty();
+    }
+}
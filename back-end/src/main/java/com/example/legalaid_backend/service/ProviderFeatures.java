@@ -0,0 +1,118 @@
+package com.example.legalaid_backend.service;
+
+import com.example.legalaid_backend.entity.User;
+import com.example.legalaid_backend.util.ApprovalStatus;
+import com.example.legalaid_backend.util.Role;
+
+import java.util.Arrays;
+import java.util.Objects;
+
+/**
+ * Immutable, pre-normalized view of a provider used by the scoring algorithm.
+ *
+ * All text is lower-cased once when the provider is indexed so scoring a case
+ * never has to call toLowerCase() or split() on provider data again.
+ * Null means the field is not set; an empty string is kept as-is because the
+ * scoring rules treat the two slightly differently.
+ */
+public final class ProviderFeatures {
+
+    private static final String[] NO_PARTS = new String[0];
+
+    private final Long userId;
+    private final Role role;
+    private final boolean approved;
+
+    final String expertise;
+    final String languages;
+    final String location;
+    final String[] locationParts;
+
+    private ProviderFeatures(Long userId, Role role, boolean approved,
+                             String expertise, String languages, String location, String[] locationParts) {
+        this.userId = userId;
+        this.role = role;
+        this.approved = approved;
+        this.expertise = expertise;
+        this.languages = languages;
+        this.location = location;
+        this.locationParts = locationParts;
+    }
+
+    /**
+     * Build features for a LAWYER or NGO user, or null when the user has no
+     * profile for its role.
+     */
+    public static ProviderFeatures of(User user) {
+        String expertise;
+        String languages;
+
+        if (user.getRole() == Role.LAWYER && user.getLawyerProfile() != null) {
+            expertise = user.getLawyerProfile().getSpecialization();
+            languages = user.getLawyerProfile().getLanguages();
+        } else if (user.getRole() == Role.NGO && user.getNgoProfile() != null) {
+            expertise = user.getNgoProfile().getFocusArea();
+            languages = user.getNgoProfile().getLanguages();
+        } else {
+            return null;
+        }
+
+        String location = lower(user.getLocation());
+        String[] locationParts = NO_PARTS;
+        if (location != null && !location.isEmpty()) {
+            locationParts = Arrays.stream(location.split(","))
+                    .map(String::trim)
+                    .distinct()
+                    .toArray(String[]::new);
+        }
+
+        return new ProviderFeatures(
+                user.getId(),
+                user.getRole(),
+                user.getApprovalStatus() == ApprovalStatus.APPROVED,
+                lower(expertise),
+                lower(languages),
+                location,
+                locationParts);
+    }
+
+    public Long getUserId() {
+        return userId;
+    }
+
+    public Role getRole() {
+        return role;
+    }
+
+    public boolean isApproved() {
+        return approved;
+    }
+
+    /**
+     * True when both describe the provider identically for scoring purposes.
+     */
+    public boolean sameScoringInputs(ProviderFeatures other) {
+        return other != null
+                && role == other.role
+                && approved == other.approved
+                && Objects.equals(expertise, other.expertise)
+                && Objects.equals(languages, other.languages)
+                && Objects.equals(location, other.location);
+    }
+
+    boolean hasExpertise() {
+        return expertise != null && !expertise.isEmpty();
+    }
+
+    boolean hasLanguages() {
+        return languages != null && !languages.isEmpty();
+    }
+
+    boolean hasLocation() {
+        return location != null && !location.isEmpty();
+    }
+
+    private static String lower(String value) {
+        return value != null ? value.toLowerCase() : null;
+    }
+}
@@ -0,0 +1,15 @@
+package com.example.legalaid_backend.service;
+
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+
+/**
+ * Published by {@link ProviderCandidateIndex} after a provider becomes
+ * matchable or one of its scoring inputs changes (once the change commits).
+ */
+@Getter
+@RequiredArgsConstructor
+public class ProviderFeaturesChangedEvent {
+
+    private final ProviderFeatures provider;
+}
@@ -0,0 +1,173 @@
+package com.example.legalaid_backend.service;
+
+import com.example.legalaid_backend.repository.AppointmentRepository;
+import com.example.legalaid_backend.repository.MatchRepository;
+import com.example.legalaid_backend.util.AppointmentStatus;
+import com.example.legalaid_backend.util.CaseStatus;
+import com.example.legalaid_backend.util.MatchStatus;
+import com.example.legalaid_backend.util.TransactionUtils;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDateTime;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * In-memory count of each provider's current workload: accepted cases that
+ * are not yet resolved, plus upcoming appointments.
+ *
+ * Seeded with two grouped queries at startup and re-counted per provider
+ * whenever one of its matches or appointments changes state, so scoring reads
+ * the load from memory without touching the database. A periodic full reseed
+ * catches appointments that have simply moved into the past.
+ */
+@Slf4j
+@Component
+public class ProviderWorkloadTracker {
+
+    /** Accepted matches on cases in these statuses no longer count as active work */
+    static final List<String> FINISHED_CASE_STATUSES = List.of(
+            CaseStatus.RESOLVED.name(), CaseStatus.CLOSED.name(), CaseStatus.CANCELLED.name());
+
+    /** Appointments in these statuses still take up the provider's time */
+    static final List<AppointmentStatus> UPCOMING_APPOINTMENT_STATUSES = List.of(
+            AppointmentStatus.PENDING_CITIZEN_APPROVAL, AppointmentStatus.PENDING_PROVIDER_APPROVAL,
+            AppointmentStatus.SCHEDULED, AppointmentStatus.CONFIRMED,
+            AppointmentStatus.RESCHEDULED, AppointmentStatus.RESCHEDULE_REQUESTED);
+
+    private final MatchRepository matchRepository;
+    private final AppointmentRepository appointmentRepository;
+
+    /** Load (active cases + weighted appointments) at which the full penalty applies */
+    private final double capacity;
+    /** Largest fraction of the score taken off a fully loaded provider */
+    private final double maxPenalty;
+    /** How much one upcoming appointment weighs relative to one active case */
+    private final double appointmentWeight;
+
+    private final Map<Long, Workload> workloads = new ConcurrentHashMap<>();
+    /** System.nanoTime() at which each provider's last recount started, so a reseed never overwrites it */
+    private final Map<Long, Long> recountStartedAt = new ConcurrentHashMap<>();
+
+    public ProviderWorkloadTracker(MatchRepository matchRepository,
+                                   AppointmentRepository appointmentRepository,
+                                   @Value("${matching.workload.capacity:10}") double capacity,
+                                   @Value("${matching.workload.max-penalty:0.3}") double maxPenalty,
+                                   @Value("${matching.workload.appointment-weight:0.5}") double appointmentWeight) {
+        this.matchRepository = matchRepository;
+        this.appointmentRepository = appointmentRepository;
+        this.capacity = capacity;
+        this.maxPenalty = maxPenalty;
+        this.appointmentWeight = appointmentWeight;
+    }
+
+    // =========================
+    // SEED / REFRESH
+    // =========================
+    @EventListener(ApplicationReadyEvent.class)
+    @Scheduled(initialDelayString = "${matching.workload.reseed-interval-ms:900000}",
+               fixedDelayString = "${matching.workload.reseed-interval-ms:900000}")
+    public void reseed() {
+        long start = System.currentTimeMillis();
+        long startNanos = System.nanoTime();
+
+        Map<Long, Workload> seeded = new HashMap<>();
+        for (Object[] row : matchRepository.countByProviderAndStatus(MatchStatus.ACCEPTED_BY_PROVIDER, FINISHED_CASE_STATUSES)) {
+            if (row[0] != null) {
+                seeded.computeIfAbsent((Long) row[0], id -> new Workload()).activeCases = ((Number) row[1]).intValue();
+            }
+        }
+        for (Object[] row : appointmentRepository.countUpcomingByProvider(UPCOMING_APPOINTMENT_STATUSES, LocalDateTime.now())) {
+            if (row[0] != null) {
+                seeded.computeIfAbsent((Long) row[0], id -> new Workload()).upcomingAppointments = ((Number) row[1]).intValue();
+            }
+        }
+
+        // Providers recounted while the queries ran already hold fresher figures
+        workloads.keySet().removeIf(id -> !seeded.containsKey(id) && !recountedSince(id, startNanos));
+        seeded.forEach((id, workload) -> {
+            if (!recountedSince(id, startNanos)) {
+                workloads.put(id, workload);
+            }
+        });
+        recountStartedAt.values().removeIf(startedAt -> startedAt - startNanos < 0);
+
+        log.info("Provider workload tracker seeded for {} providers in {} ms",
+                seeded.size(), System.currentTimeMillis() - start);
+    }
+
+    /**
+     * Re-count one provider's workload after one of its matches or
+     * appointments changed. Inside a transaction this runs once it commits.
+     */
+    public void refresh(Long providerId) {
+        if (providerId == null) {
+            return;
+        }
+        TransactionUtils.afterCommit(() -> recount(providerId));
+    }
+
+    private boolean recountedSince(Long providerId, long nanos) {
+        Long startedAt = recountStartedAt.get(providerId);
+        return startedAt != null && startedAt - nanos >= 0;
+    }
+
+    private void recount(Long providerId) {
+        recountStartedAt.put(providerId, System.nanoTime());
+        try {
+            Workload workload = new Workload();
+            workload.activeCases = (int) matchRepository.countForProviderAndStatus(
+                    providerId, MatchStatus.ACCEPTED_BY_PROVIDER, FINISHED_CASE_STATUSES);
+            workload.upcomingAppointments = (int) appointmentRepository.countUpcomingForProvider(
+                    providerId, UPCOMING_APPOINTMENT_STATUSES, LocalDateTime.now());
+
+            if (workload.activeCases == 0 && workload.upcomingAppointments == 0) {
+                workloads.remove(providerId);
+            } else {
+                workloads.put(providerId, workload);
+            }
+        } catch (Exception e) {
+            // The periodic reseed will correct the counters
+            log.warn("Failed to refresh workload for provider {}: {}", providerId, e.getMessage());
+        }
+    }
+
+    // =========================
+    // LOOKUP
+    // =========================
+
+    /**
+     * Multiplier in [1 - maxPenalty, 1] applied to a provider's match score;
+     * 1.0 for a provider with no active work.
+     */
+    public double loadFactor(Long providerId) {
+        Workload workload = workloads.get(providerId);
+        if (workload == null || capacity <= 0) {
+            return 1.0;
+        }
+        double load = workload.activeCases + appointmentWeight * workload.upcomingAppointments;
+        return 1.0 - maxPenalty * Math.min(1.0, load / capacity);
+    }
+
+    public int getActiveCases(Long providerId) {
+        Workload workload = workloads.get(providerId);
+        return workload != null ? workload.activeCases : 0;
+    }
+
+    public int getUpcomingAppointments(Long providerId) {
+        Workload workload = workloads.get(providerId);
+        return workload != null ? workload.upcomingAppointments : 0;
+    }
+
+    private static class Workload {
+        private volatile int activeCases;
+        private volatile int upcomingAppointments;
+    }
+}
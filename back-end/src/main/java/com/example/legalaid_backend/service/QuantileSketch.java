@@ -0,0 +1,170 @@
+package com.example.legalaid_backend.service;
+
+import java.nio.ByteBuffer;
+
+/**
+ * Mergeable quantile sketch over non-negative values with 1% relative
+ * accuracy (the DDSketch scheme).
+ *
+ * Values fall into logarithmic buckets, bucket i holding (GAMMA^(i-1),
+ * GAMMA^i], so any quantile is answered within 1% of the true value however
+ * many values were added. Sketches merge exactly by adding bucket counts,
+ * which lets per-day sketches be combined into any window. Values below 1
+ * share one zero bucket.
+ */
+public class QuantileSketch {
+
+    public static final double RELATIVE_ACCURACY = 0.01;
+    private static final double GAMMA = (1 + RELATIVE_ACCURACY) / (1 - RELATIVE_ACCURACY);
+
+    /** ln(GAMMA); bucket index of a value v >= 1 is ceil(ln(v) / LOG_GAMMA) */
+    public static final double LOG_GAMMA = Math.log(GAMMA);
+
+    /** Enough buckets for values up to ~10^17 */
+    private static final int BUCKETS = 2048;
+
+    /** Index of the bucket holding values below 1 */
+    public static final int ZERO_BUCKET = -1;
+
+    private final long[] counts = new long[BUCKETS];
+    private long zeroCount;
+    private long count;
+
+    public synchronized void add(double value) {
+        if (Double.isNaN(value) || value < 0) {
+            return;
+        }
+        addToBucket(bucketIndex(value), 1);
+    }
+
+    /**
+     * Add {@code n} values to one bucket, e.g. from a grouped SQL backfill that
+     * computed the bucket index with {@link #LOG_GAMMA}.
+     */
+    public synchronized void addToBucket(int index, long n) {
+        if (n <= 0) {
+            return;
+        }
+        if (index < 0) {
+            zeroCount += n;
+        } else {
+            counts[Math.min(index, BUCKETS - 1)] += n;
+        }
+        count += n;
+    }
+
+    public void merge(QuantileSketch other) {
+        long[] theirCounts;
+        long theirZeroCount;
+        synchronized (other) {
+            theirCounts = other.counts.clone();
+            theirZeroCount = other.zeroCount;
+        }
+        synchronized (this) {
+            for (int i = 0; i < BUCKETS; i++) {
+                counts[i] += theirCounts[i];
+                count += theirCounts[i];
+            }
+            zeroCount += theirZeroCount;
+            count += theirZeroCount;
+        }
+    }
+
+    public QuantileSketch copy() {
+        QuantileSketch copy = new QuantileSketch();
+        copy.merge(this);
+        return copy;
+    }
+
+    // =========================
+    // QUERY
+    // =========================
+    public synchronized long count() {
+        return count;
+    }
+
+    /**
+     * Value at quantile {@code q} (0..1), or 0 when the sketch is empty.
+     */
+    public synchronized double quantile(double q) {
+        if (count == 0) {
+            return 0;
+        }
+        long rank = (long) Math.floor(Math.max(0, Math.min(1, q)) * (count - 1));
+
+        long seen = zeroCount;
+        if (seen > rank) {
+            return 0;
+        }
+        for (int i = 0; i < BUCKETS; i++) {
+            seen += counts[i];
+            if (seen > rank) {
+                return representative(i);
+            }
+        }
+        return representative(BUCKETS - 1);
+    }
+
+    /** Mean of the values, each taken at its bucket's representative value */
+    public synchronized double mean() {
+        if (count == 0) {
+            return 0;
+        }
+        double sum = 0;
+        for (int i = 0; i < BUCKETS; i++) {
+            if (counts[i] > 0) {
+                sum += counts[i] * representative(i);
+            }
+        }
+        return sum / count;
+    }
+
+    private static int bucketIndex(double value) {
+        if (value < 1) {
+            return ZERO_BUCKET;
+        }
+        return (int) Math.min(BUCKETS - 1, Math.ceil(Math.log(value) / LOG_GAMMA));
+    }
+
+    /** Value within RELATIVE_ACCURACY of everything in bucket i */
+    private static double representative(int index) {
+        return 2 * Math.pow(GAMMA, index) / (GAMMA + 1);
+    }
+
+    // =========================
+    // SERIALIZATION
+    // =========================
+
+    /** Zero count, then (index, count) for non-empty buckets only */
+    public synchronized byte[] toBytes() {
+        int nonEmpty = 0;
+        for (long bucketCount : counts) {
+            if (bucketCount > 0) {
+                nonEmpty++;
+            }
+        }
+
+        ByteBuffer buffer = ByteBuffer.allocate(Long.BYTES + Integer.BYTES + nonEmpty * (Short.BYTES + Long.BYTES));
+        buffer.putLong(zeroCount);
+        buffer.putInt(nonEmpty);
+        for (int i = 0; i < BUCKETS; i++) {
+            if (counts[i] > 0) {
+                buffer.putShort((short) i);
+                buffer.putLong(counts[i]);
+            }
+        }
+        return buffer.array();
+    }
+
+    public static QuantileSketch fromBytes(byte[] bytes) {
+        QuantileSketch sketch = new QuantileSketch();
+        ByteBuffer buffer = ByteBuffer.wrap(bytes);
+        sketch.addToBucket(ZERO_BUCKET, buffer.getLong());
+        int nonEmpty = buffer.getInt();
+        for (int i = 0; i < nonEmpty; i++) {
+            int index = buffer.getShort();
+            sketch.addToBucket(index, buffer.getLong());
+        }
+        return sketch;
+    }
+}
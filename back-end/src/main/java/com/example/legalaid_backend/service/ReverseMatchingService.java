@@ -0,0 +1,184 @@
+package com.example.legalaid_backend.service;
+
+import com.example.legalaid_backend.entity.Match;
+import com.example.legalaid_backend.repository.CaseRepository;
+import com.example.legalaid_backend.repository.MatchBatchWriter;
+import com.example.legalaid_backend.repository.MatchRepository;
+import com.example.legalaid_backend.repository.UserRepository;
+import com.example.legalaid_backend.util.NotificationType;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
+
+/**
+ * Reverse matching: scores one provider against every open case when the
+ * provider is approved or changes its expertise, languages or location.
+ *
+ * Runs off the request thread on a small bounded executor. Open cases are read
+ * as {@link MatchScorer.CaseFeatures} in keyset chunks, each chunk is scored
+ * and persisted in its own short transaction, and the provider gets a single
+ * summary notification at the end instead of one per case.
+ */
+@Slf4j
+@Service
+public class ReverseMatchingService {
+
+    private final CaseFeatureReader caseFeatureReader;
+    private final CaseRepository caseRepository;
+    private final MatchRepository matchRepository;
+    private final MatchBatchWriter matchBatchWriter;
+    private final UserRepository userRepository;
+    private final MatchScorer matchScorer;
+    private final MatchService matchService;
+    private final NotificationService notificationService;
+    private final TransactionTemplate transactionTemplate;
+    private final ThreadPoolExecutor executor;
+    private final int chunkSize;
+    private final int topK;
+
+    public ReverseMatchingService(CaseFeatureReader caseFeatureReader,
+                                  CaseRepository caseRepository,
+                                  MatchRepository matchRepository,
+                                  MatchBatchWriter matchBatchWriter,
+                                  UserRepository userRepository,
+                                  MatchScorer matchScorer,
+                                  MatchService matchService,
+                                  NotificationService notificationService,
+                                  PlatformTransactionManager transactionManager,
+                                  @Value("${matching.reverse.chunk-size:500}") int chunkSize,
+                                  @Value("${matching.reverse.queue-capacity:1000}") int queueCapacity,
+                                  @Value("${matching.top-k:0}") int topK) {
+        this.caseFeatureReader = caseFeatureReader;
+        this.caseRepository = caseRepository;
+        this.matchRepository = matchRepository;
+        this.matchBatchWriter = matchBatchWriter;
+        this.userRepository = userRepository;
+        this.matchScorer = matchScorer;
+        this.matchService = matchService;
+        this.notificationService = notificationService;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.chunkSize = chunkSize;
+        this.topK = topK;
+
+        // A single worker keeps two runs for the same provider from racing each other
+        AtomicInteger threadCount = new AtomicInteger();
+        this.executor = new ThreadPoolExecutor(1, 1, 60, TimeUnit.SECONDS,
+                new ArrayBlockingQueue<>(queueCapacity),
+                runnable -> {
+                    Thread thread = new Thread(runnable, "reverse-match-" + threadCount.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                });
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdown();
+    }
+
+    @EventListener
+    public void onProviderChanged(ProviderFeaturesChangedEvent event) {
+        ProviderFeatures provider = event.getProvider();
+        if (!provider.isApproved()) {
+            return;
+        }
+        try {
+            executor.execute(() -> matchProvider(provider));
+        } catch (RejectedExecutionException e) {
+            log.warn("Reverse matching queue full, skipping provider {}", provider.getUserId());
+        }
+    }
+
+    /**
+     * Score a provider against all open cases and persist new matches.
+     *
+     * @return number of matches created
+     */
+    public int matchProvider(ProviderFeatures provider) {
+        long start = System.currentTimeMillis();
+        long afterId = 0;
+        int scanned = 0;
+        int created = 0;
+
+        try {
+            while (true) {
+                List<MatchScorer.CaseFeatures> chunk = caseFeatureReader.readChunk(
+                        CaseFeatureReader.OPEN_CASE_STATUSES, afterId, chunkSize);
+                if (chunk.isEmpty()) {
+                    break;
+                }
+
+                Integer saved = transactionTemplate.execute(status -> matchChunk(provider, chunk));
+                created += saved != null ? saved : 0;
+                scanned += chunk.size();
+                afterId = chunk.get(chunk.size() - 1).getCaseId();
+            }
+
+            if (created > 0) {
+                notifyProvider(provider, created);
+            }
+
+            log.info("Reverse matching for provider {}: {} new matches across {} open cases in {} ms",
+                    provider.getUserId(), created, scanned, System.currentTimeMillis() - start);
+
+        } catch (Exception e) {
+            log.error("Reverse matching failed for provider {} after {} cases: {}",
+                    provider.getUserId(), scanned, e.getMessage(), e);
+        }
+
+        return created;
+    }
+
+    private int matchChunk(ProviderFeatures provider, List<MatchScorer.CaseFeatures> chunk) {
+        Set<Long> caseIds = chunk.stream()
+                .map(MatchScorer.CaseFeatures::getCaseId)
+                .collect(Collectors.toSet());
+
+        // Never duplicate a match that already exists for this provider
+        Set<Long> alreadyMatched = matchRepository.findMatchedCaseIds(provider.getUserId(), caseIds);
+
+        // In top-K mode cases with a full set of live matches are left alone
+        Set<Long> fullCases = topK > 0
+                ? matchRepository.findCaseIdsWithMatchCountAtLeast(caseIds, MatchService.LIVE_MATCH_STATUSES, topK)
+                : Set.of();
+
+        List<Match> newMatches = new ArrayList<>();
+        for (MatchScorer.CaseFeatures legalCase : chunk) {
+            if (alreadyMatched.contains(legalCase.getCaseId()) || fullCases.contains(legalCase.getCaseId())) {
+                continue;
+            }
+            MatchScorer.MatchScore result = matchScorer.score(legalCase, provider);
+            if (result.getScore() > MatchScorer.MIN_MATCH_SCORE) {
+                newMatches.add(matchService.toNewMatch(
+                        caseRepository.getReferenceById(legalCase.getCaseId()), result));
+            }
+        }
+
+        return matchBatchWriter.insertAll(newMatches).size();
+    }
+
+    private void notifyProvider(ProviderFeatures provider, int created) {
+        String message = created == 1
+                ? "1 open case has been matched with you."
+                : created + " open cases have been matched with you.";
+        transactionTemplate.executeWithoutResult(status -> notificationService.createNotificationWithMetadata(
+                userRepository.getReferenceById(provider.getUserId()),
+                NotificationType.MATCH_FOUND, "New Case Matches Found", message,
+                null, null, null, null, null,
+                "/dashboard/assigned-cases"));
+    }
+}
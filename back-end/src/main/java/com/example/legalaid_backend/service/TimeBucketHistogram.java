@@ -0,0 +1,114 @@
+package com.example.legalaid_backend.service;
+
+import com.example.legalaid_backend.DTO.AnalyticsTrendDTO;
+import com.example.legalaid_backend.DTO.TrendRange;
+import com.example.legalaid_backend.util.TrendGranularity;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Histogram of events over day, week or month buckets, built in one pass.
+ *
+ * Each event's bucket is computed from its date, and counts live in a long[]
+ * sized to the range, so a trend costs one pass over its input whatever the
+ * granularity. Days outside [from, to] are ignored, which makes the first and
+ * last buckets partial when the range does not start or end on a boundary.
+ */
+public class TimeBucketHistogram {
+
+    private final TrendGranularity granularity;
+    private final LocalDate from;
+    private final LocalDate to;
+    private final LocalDate firstBucket;
+    private final long[] counts;
+
+    public TimeBucketHistogram(TrendRange range) {
+        this(range.getGranularity(), range.getFrom(), range.getTo());
+    }
+
+    public TimeBucketHistogram(TrendGranularity granularity, LocalDate from, LocalDate to) {
+        if (from.isAfter(to)) {
+            throw new IllegalArgumentException("'from' must not be after 'to'");
+        }
+        this.granularity = granularity;
+        this.from = from;
+        this.to = to;
+        this.firstBucket = granularity.bucketStart(from);
+        this.counts = new long[granularity.bucketIndex(firstBucket, to) + 1];
+    }
+
+    // =========================
+    // ADD
+    // =========================
+    public void add(LocalDate day, long count) {
+        if (day == null || day.isBefore(from) || day.isAfter(to)) {
+            return;
+        }
+        counts[granularity.bucketIndex(firstBucket, day)] += count;
+    }
+
+    public void add(LocalDate day) {
+        add(day, 1);
+    }
+
+    // =========================
+    // READ
+    // =========================
+    public int size() {
+        return counts.length;
+    }
+
+    public long count(int index) {
+        return counts[index];
+    }
+
+    public LocalDate bucketStart(int index) {
+        return granularity.plusBuckets(firstBucket, index);
+    }
+
+    /**
+     * One trend point per bucket, oldest first. percentageChange compares with
+     * the previous bucket; the trend is UP above +1%, DOWN below -1% and
+     * STABLE otherwise. The first bucket with data is 0% / STABLE, and
+     * buckets following an empty one carry no change.
+     */
+    public List<AnalyticsTrendDTO> toTrends() {
+        List<AnalyticsTrendDTO> trends = new ArrayList<>(counts.length);
+        String period = granularity.getLabel();
+
+        for (int i = 0; i < counts.length; i++) {
+            long count = counts[i];
+
+            Double percentageChange = null;
+            String trend = null;
+
+            if (i > 0 && counts[i - 1] > 0) {
+                long previousCount = counts[i - 1];
+                percentageChange = ((double) (count - previousCount) / previousCount) * 100.0;
+
+                if (percentageChange > 1) {
+                    trend = "UP";
+                } else if (percentageChange < -1) {
+                    trend = "DOWN";
+                } else {
+                    trend = "STABLE";
+                }
+            } else if (i == 0 && count > 0) {
+                percentageChange = 0.0;
+                trend = "STABLE";
+            }
+
+            trends.add(AnalyticsTrendDTO.builder()
+                    .period(period)
+                    .timestamp(bucketStart(i).atStartOfDay())
+                    .count(count)
+                    .percentageChange(percentageChange)
+                    .trend(trend)
+                    .build());
+        }
+
+        return trends;
+    }
+}
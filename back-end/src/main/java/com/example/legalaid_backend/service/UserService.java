@@ -30,6 +30,7 @@ public class UserService {
     private final UserRepository userRepository;
     private final LawyerProfileRepository lawyerProfileRepository;
     private final NgoProfileRepository ngoProfileRepository;
+    private final ProviderCandidateIndex candidateIndex;
 
     // ======================================
     // REGISTER USER
@@ -149,6 +150,7 @@ public class UserService {
         }
 
         userRepository.deleteById(id);
+        candidateIndex.evict(id);
         logger.info("User with ID {} deleted successfully", id);
     }
 
@@ -0,0 +1,11 @@
+package com.example.legalaid_backend.util;
+
+public enum AnalyticsDimension {
+    ALL,                        // Single total per day, dimension value is ""
+    ROLE,                       // User role
+    STATUS,                     // Status the item moved to
+    CASE_TYPE,                  // Case type
+    LOCATION,                   // User or case location
+    EXPERTISE_TAG,              // Case expertise tag
+    TYPE                        // Notification type
+}
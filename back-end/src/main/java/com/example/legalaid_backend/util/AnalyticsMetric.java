@@ -0,0 +1,13 @@
+package com.example.legalaid_backend.util;
+
+public enum AnalyticsMetric {
+    USER_CREATED,               // User registered or was imported
+    CASE_CREATED,               // Citizen submitted a case
+    CASE_RESOLVED,              // Case reached RESOLVED
+    MATCH_CREATED,              // Match generated for a case
+    MATCH_ACCEPTED,             // Provider accepted a match
+    MATCH_REJECTED,             // Citizen or provider rejected a match
+    APPOINTMENT_BOOKED,         // Appointment created
+    CHAT_MESSAGE_SENT,          // Chat message sent
+    NOTIFICATION_SENT           // Notification created
+}
@@ -0,0 +1,7 @@
+package com.example.legalaid_backend.util;
+
+public enum LatencyMetric {
+    CASE_RESOLUTION,            // Case creation to RESOLVED
+    MATCH_ACCEPTANCE,           // Match creation to provider acceptance
+    CHAT_RESPONSE               // Chat message to the other participant's next message
+}
@@ -0,0 +1,9 @@
+package com.example.legalaid_backend.util;
+
+public enum LiveMetric {
+    NEW_USERS,                  // User registered or was imported
+    NEW_CASES,                  // Citizen submitted a case
+    NEW_MATCHES,                // Match generated for a case
+    NEW_APPOINTMENTS,           // Appointment created
+    ERROR_LOGS                  // ERROR entry written to the application log
+}
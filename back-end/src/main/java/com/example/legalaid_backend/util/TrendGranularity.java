@@ -0,0 +1,63 @@
+package com.example.legalaid_backend.util;
+
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.time.temporal.TemporalAdjusters;
+
+public enum TrendGranularity {
+    DAY("Daily"),
+    WEEK("Weekly"),             // ISO weeks, starting on Monday
+    MONTH("Monthly");
+
+    private final String label;
+
+    TrendGranularity(String label) {
+        this.label = label;
+    }
+
+    public String getLabel() {
+        return label;
+    }
+
+    /**
+     * Accepts the enum name or its label, case-insensitively ("week", "Weekly").
+     */
+    public static TrendGranularity parse(String value) {
+        for (TrendGranularity granularity : values()) {
+            if (granularity.name().equalsIgnoreCase(value) || granularity.label.equalsIgnoreCase(value)) {
+                return granularity;
+            }
+        }
+        throw new IllegalArgumentException("Unknown granularity: " + value + " (expected DAY, WEEK or MONTH)");
+    }
+
+    /** First day of the bucket containing {@code day} */
+    public LocalDate bucketStart(LocalDate day) {
+        if (this == DAY) {
+            return day;
+        } else if (this == WEEK) {
+            return day.with(TemporalAdjusters.previousOrSame(DayOfWeek.MONDAY));
+        }
+        return day.withDayOfMonth(1);
+    }
+
+    /** Bucket offset of {@code day} from the bucket starting at {@code firstBucket} */
+    public int bucketIndex(LocalDate firstBucket, LocalDate day) {
+        if (this == DAY) {
+            return (int) (day.toEpochDay() - firstBucket.toEpochDay());
+        } else if (this == WEEK) {
+            return (int) Math.floorDiv(day.toEpochDay() - firstBucket.toEpochDay(), 7);
+        }
+        return (day.getYear() - firstBucket.getYear()) * 12 + day.getMonthValue() - firstBucket.getMonthValue();
+    }
+
+    /** First day of the bucket {@code index} buckets after {@code firstBucket} */
+    public LocalDate plusBuckets(LocalDate firstBucket, int index) {
+        if (this == DAY) {
+            return firstBucket.plusDays(index);
+        } else if (this == WEEK) {
+            return firstBucket.plusWeeks(index);
+        }
+        return firstBucket.plusMonths(index);
+    }
+}
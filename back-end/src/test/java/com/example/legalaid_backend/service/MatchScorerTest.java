@@ -0,0 +1,90 @@
+package com.example.legalaid_backend.service;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.Comparator;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class MatchScorerTest {
+
+    private static final int PROVIDER_COUNT = 5_000;
+
+    /** Best score first; on equal scores the lower provider ID first */
+    private static final Comparator<MatchScorer.MatchScore> BEST_FIRST = Comparator
+            .comparingDouble(MatchScorer.MatchScore::getScore).reversed()
+            .thenComparing(m -> m.getProvider().getUserId());
+
+    private MatchScorer sequentialScorer;
+    private MatchScorer parallelScorer;
+    private MatchScorer.CaseFeatures legalCase;
+    private List<ProviderFeatures> providers;
+
+    @BeforeEach
+    void setUp() {
+        sequentialScorer = new MatchScorer(Integer.MAX_VALUE, 4);
+        parallelScorer = new MatchScorer(1, 4);
+        legalCase = MatchScorer.CaseFeatures.of(ScoringFixtures.sampleCase());
+        providers = ScoringFixtures.providerFeatures(PROVIDER_COUNT, new Random(42));
+    }
+
+    @AfterEach
+    void tearDown() {
+        sequentialScorer.shutdown();
+        parallelScorer.shutdown();
+    }
+
+    @Test
+    void parallelScoringMatchesSequential() {
+        List<String> expected = describe(sequentialScorer.scoreAll(legalCase, providers, Set.of()));
+
+        assertThat(expected).isNotEmpty();
+        assertThat(describe(parallelScorer.scoreAll(legalCase, providers, Set.of()))).isEqualTo(expected);
+    }
+
+    @Test
+    void parallelScoringSkipsExcludedProviders() {
+        Set<Long> excluded = providers.stream()
+                .map(ProviderFeatures::getUserId)
+                .filter(id -> id % 3 == 0)
+                .collect(Collectors.toSet());
+
+        List<MatchScorer.MatchScore> sequential = sequentialScorer.scoreAll(legalCase, providers, excluded);
+
+        assertThat(sequential).noneMatch(m -> excluded.contains(m.getProvider().getUserId()));
+        assertThat(describe(parallelScorer.scoreAll(legalCase, providers, excluded))).isEqualTo(describe(sequential));
+    }
+
+    @Test
+    void topKMatchesFullSortIncludingTies() {
+        List<MatchScorer.MatchScore> all = sequentialScorer.scoreAll(legalCase, providers, Set.of());
+        long distinctScores = all.stream().mapToDouble(MatchScorer.MatchScore::getScore).distinct().count();
+        assertThat(distinctScores).as("fixture should produce tied scores").isLessThan(all.size());
+
+        for (int k : new int[]{1, 10, 100, all.size() + 10}) {
+            List<String> expected = describe(all.stream().sorted(BEST_FIRST).limit(k).toList());
+
+            assertThat(describe(sequentialScorer.topK(legalCase, providers, Set.of(), k))).as("sequential k=%d", k)
+                    .isEqualTo(expected);
+            assertThat(describe(parallelScorer.topK(legalCase, providers, Set.of(), k))).as("parallel k=%d", k)
+                    .isEqualTo(expected);
+        }
+    }
+
+    @Test
+    void topKOfZeroIsEmpty() {
+        assertThat(sequentialScorer.topK(legalCase, providers, Set.of(), 0)).isEmpty();
+    }
+
+    private static List<String> describe(List<MatchScorer.MatchScore> scores) {
+        return scores.stream()
+                .map(m -> m.getProvider().getUserId() + " " + m.getScore() + " " + m.getReason())
+                .toList();
+    }
+}
@@ -0,0 +1,91 @@
+package com.example.legalaid_backend.service;
+
+import com.example.legalaid_backend.entity.Case;
+import com.example.legalaid_backend.entity.LawyerProfile;
+import com.example.legalaid_backend.entity.NgoProfile;
+import com.example.legalaid_backend.entity.User;
+import com.example.legalaid_backend.util.ApprovalStatus;
+import com.example.legalaid_backend.util.Role;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * Synthetic cases and provider populations shared by the scoring benchmarks.
+ * Roughly one provider in four is an NGO; the rest are lawyers.
+ */
+final class ScoringFixtures {
+
+    private static final String[] SPECIALIZATIONS = {
+            "family law", "criminal law", "property law", "labour law", "consumer protection",
+            "civil rights", "immigration", "tax law", "corporate law", "cyber law"
+    };
+    private static final String[] CITIES = {
+            "Mumbai, Maharashtra", "Pune, Maharashtra", "Delhi", "Bengaluru, Karnataka",
+            "Chennai, Tamil Nadu", "Kolkata, West Bengal", "Jaipur, Rajasthan", "Lucknow, Uttar Pradesh"
+    };
+    private static final String[] LANGUAGES = {
+            "English, Hindi", "English, Marathi", "Hindi", "English, Kannada", "Tamil, English", "Bengali, Hindi"
+    };
+
+    private ScoringFixtures() {
+    }
+
+    static Case sampleCase() {
+        Case legalCase = new Case();
+        legalCase.setId(1L);
+        legalCase.setTitle("Tenant eviction dispute");
+        legalCase.setCaseType("Property Law");
+        legalCase.setLocation("Pune, Maharashtra");
+        legalCase.setPreferredLanguage("Marathi");
+        legalCase.setExpertiseTags(List.of("property", "tenancy", "civil"));
+        return legalCase;
+    }
+
+    static List<ProviderFeatures> providerFeatures(int size, Random random) {
+        List<ProviderFeatures> providers = new ArrayList<>(size);
+        for (User user : providers(size, random)) {
+            providers.add(ProviderFeatures.of(user));
+        }
+        return providers;
+    }
+
+    static List<User> providers(int size, Random random) {
+        List<User> providers = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            providers.add(provider(i + 1L, random));
+        }
+        return providers;
+    }
+
+    static User provider(long id, Random random) {
+        User user = new User();
+        user.setId(id);
+        user.setUsername("provider" + id);
+        user.setEmail("provider" + id + "@example.com");
+        user.setApprovalStatus(ApprovalStatus.APPROVED);
+        user.setLocation(CITIES[random.nextInt(CITIES.length)]);
+
+        String expertise = SPECIALIZATIONS[random.nextInt(SPECIALIZATIONS.length)]
+                + ", " + SPECIALIZATIONS[random.nextInt(SPECIALIZATIONS.length)];
+        String languages = LANGUAGES[random.nextInt(LANGUAGES.length)];
+
+        if (random.nextInt(4) == 0) {
+            user.setRole(Role.NGO);
+            NgoProfile profile = new NgoProfile();
+            profile.setUser(user);
+            profile.setFocusArea(expertise);
+            profile.setLanguages(languages);
+            user.setNgoProfile(profile);
+        } else {
+            user.setRole(Role.LAWYER);
+            LawyerProfile profile = new LawyerProfile();
+            profile.setUser(user);
+            profile.setSpecialization(expertise);
+            profile.setLanguages(languages);
+            user.setLawyerProfile(profile);
+        }
+        return user;
+    }
+}